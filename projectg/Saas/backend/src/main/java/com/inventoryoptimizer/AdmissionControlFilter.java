@@ -0,0 +1,237 @@
+package com.inventoryoptimizer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkheads per endpoint class so expensive reads cannot starve the sale write path. Each class
+ * has its own concurrency limit and bounded queue; requests that cannot get in are answered
+ * 429 with Retry-After. The analytics and read limits follow write latency: they are cut
+ * multiplicatively while writes miss their latency target and grow back one step at a time.
+ * Bulk transfers (exports, imports, archive reads) hold a permit for minutes, so they have a
+ * fixed bulkhead of their own and never take analytics permits from dashboards.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    public enum EndpointClass { WRITE, READ, ANALYTICS, BULK }
+
+    // Scans and aggregations; matched before the method decides between WRITE and READ
+    private static final List<String> ANALYTICS_PATHS = List.of(
+            "/api/analytics/**", "/api/forecasts/**", "/api/products/stock-investment", "/api/products/*/revenue",
+            "/api/sales/history/**", "/api/sales/revenue/**");
+
+    // Streamed exports and imports, which keep their permit until the whole body has been moved
+    private static final List<String> BULK_PATHS = List.of(
+            "/api/sales/export", "/api/sales/import", "/api/logs/export", "/api/archive/**");
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventory.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.admission.write.max-concurrency:32}")
+    private int writeLimit;
+
+    @Value("${inventory.admission.write.queue-size:200}")
+    private int writeQueue;
+
+    @Value("${inventory.admission.write.queue-timeout-millis:2000}")
+    private long writeQueueTimeoutMillis;
+
+    @Value("${inventory.admission.write.latency-slo-millis:200}")
+    private long writeLatencySloMillis;
+
+    @Value("${inventory.admission.read.max-concurrency:32}")
+    private int readLimit;
+
+    @Value("${inventory.admission.read.min-concurrency:4}")
+    private int readMinLimit;
+
+    @Value("${inventory.admission.read.queue-size:100}")
+    private int readQueue;
+
+    @Value("${inventory.admission.read.queue-timeout-millis:1000}")
+    private long readQueueTimeoutMillis;
+
+    @Value("${inventory.admission.analytics.max-concurrency:4}")
+    private int analyticsLimit;
+
+    @Value("${inventory.admission.analytics.min-concurrency:1}")
+    private int analyticsMinLimit;
+
+    @Value("${inventory.admission.analytics.queue-size:8}")
+    private int analyticsQueue;
+
+    @Value("${inventory.admission.analytics.queue-timeout-millis:500}")
+    private long analyticsQueueTimeoutMillis;
+
+    @Value("${inventory.admission.bulk.max-concurrency:2}")
+    private int bulkLimit;
+
+    @Value("${inventory.admission.bulk.queue-size:4}")
+    private int bulkQueue;
+
+    @Value("${inventory.admission.bulk.queue-timeout-millis:1000}")
+    private long bulkQueueTimeoutMillis;
+
+    @PostConstruct
+    void createBulkheads() {
+        bulkheads.put(EndpointClass.WRITE, new Bulkhead("write", writeLimit, writeQueue, writeQueueTimeoutMillis));
+        bulkheads.put(EndpointClass.READ, new Bulkhead("read", readLimit, readQueue, readQueueTimeoutMillis));
+        bulkheads.put(EndpointClass.ANALYTICS, new Bulkhead("analytics", analyticsLimit, analyticsQueue, analyticsQueueTimeoutMillis));
+        bulkheads.put(EndpointClass.BULK, new Bulkhead("bulk", bulkLimit, bulkQueue, bulkQueueTimeoutMillis));
+
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            Gauge.builder("inventory.admission.limit", bulkhead, Bulkhead::getLimit)
+                    .tag("class", bulkhead.getName()).register(meterRegistry);
+            Gauge.builder("inventory.admission.in.flight", bulkhead, Bulkhead::getInFlight)
+                    .tag("class", bulkhead.getName()).register(meterRegistry);
+            Gauge.builder("inventory.admission.queued", bulkhead, Bulkhead::getQueued)
+                    .tag("class", bulkhead.getName()).register(meterRegistry);
+            FunctionCounter.builder("inventory.admission.rejected", bulkhead, Bulkhead::getRejected)
+                    .tag("class", bulkhead.getName()).register(meterRegistry);
+        }
+    }
+
+    // Reactive reads hold no request thread or JDBC connection while in flight; the R2DBC pool
+    // queues them without blocking, so a bulkhead permit per open stream would only cap dashboards
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = pathWithinApplication(request);
+        return !enabled || !path.startsWith("/api/") || path.startsWith("/api/reactive/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Bulkhead bulkhead = bulkheads.get(classify(request));
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            response.setStatus(429);
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many concurrent " + bulkhead.getName() + " requests, retry shortly\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean releaseNow = true;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streaming responses keep their permit until the body is fully written
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(bulkhead, start));
+                releaseNow = false;
+            }
+        } finally {
+            if (releaseNow) {
+                bulkhead.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    EndpointClass classify(HttpServletRequest request) {
+        String path = pathWithinApplication(request);
+        if (BULK_PATHS.stream().anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+            return EndpointClass.BULK;
+        }
+        if (ANALYTICS_PATHS.stream().anyMatch(pattern -> pathMatcher.match(pattern, path))
+                || ("GET".equals(request.getMethod()) && "/api/sales".equals(path))) {
+            return EndpointClass.ANALYTICS;
+        }
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())
+                ? EndpointClass.READ : EndpointClass.WRITE;
+    }
+
+    // AIMD on the analytics and read limits, driven by the mean write latency of the last interval;
+    // the bulk limit stays fixed, since halving it would not release permits held by running transfers
+    @Scheduled(fixedDelayString = "${inventory.admission.adjust-interval-millis:1000}")
+    public void adjustLimits() {
+        long writeLatencyNanos = bulkheads.get(EndpointClass.WRITE).drainMeanLatencyNanos();
+        bulkheads.get(EndpointClass.READ).drainMeanLatencyNanos();
+        bulkheads.get(EndpointClass.ANALYTICS).drainMeanLatencyNanos();
+        bulkheads.get(EndpointClass.BULK).drainMeanLatencyNanos();
+
+        boolean overSlo = writeLatencyNanos > TimeUnit.MILLISECONDS.toNanos(writeLatencySloMillis);
+        adjust(bulkheads.get(EndpointClass.ANALYTICS), overSlo, analyticsMinLimit, analyticsLimit);
+        adjust(bulkheads.get(EndpointClass.READ), overSlo, readMinLimit, readLimit);
+        if (overSlo) {
+            log.debug("Write latency {} ms over its {} ms target; analytics limit now {}, read limit now {}",
+                    TimeUnit.NANOSECONDS.toMillis(writeLatencyNanos), writeLatencySloMillis,
+                    bulkheads.get(EndpointClass.ANALYTICS).getLimit(), bulkheads.get(EndpointClass.READ).getLimit());
+        }
+    }
+
+    private void adjust(Bulkhead bulkhead, boolean overSlo, int min, int max) {
+        int limit = bulkhead.getLimit();
+        int next = overSlo ? Math.max(min, limit / 2) : Math.min(max, limit + 1);
+        if (next != limit) {
+            bulkhead.setLimit(next);
+        }
+    }
+
+    Bulkhead bulkhead(EndpointClass endpointClass) {
+        return bulkheads.get(endpointClass);
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private record ReleaseOnCompletion(Bulkhead bulkhead, long start) implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            bulkhead.release(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.inventoryoptimizer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class AnalyticsController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private SalesRankingService salesRankingService;
+
+    @Autowired
+    private SalesSketchService salesSketchService;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    // Grouped sales query, e.g. {"dimensions": ["product", "month"], "measures": ["units", "revenue"],
+    // "filters": {"from": "2024-01-01T00:00:00", "customer": "ACME"}, "sort": "revenue", "limit": 20}
+    @PostMapping("/query")
+    public ResponseEntity<?> query(@RequestBody Map<String, Object> body) {
+        try {
+            AnalyticsQuery query = AnalyticsQuery.fromRequest(body);
+            return ResponseEntity.ok(requestCoalescer.coalesce("analytics-query", () -> analyticsService.query(query), query));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return badRequest(e);
+        }
+    }
+
+    // Best sellers over the last `days` days including today, ranked by units, revenue or count
+    @GetMapping("/top-products")
+    public ResponseEntity<?> getTopProducts(
+            @RequestParam(defaultValue = "revenue") String metric,
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(requestCoalescer.coalesce("top-products",
+                    () -> salesRankingService.topProducts(metric, days, limit), metric, days, limit));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    // Largest gains and declines of the last `days` days against the `days` days before them
+    @GetMapping("/movers")
+    public ResponseEntity<?> getMovers(
+            @RequestParam(defaultValue = "units") String metric,
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(requestCoalescer.coalesce("movers",
+                    () -> salesRankingService.movers(metric, days, limit), metric, days, limit));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    // Approximate distinct customers over the days [from, to] (ISO dates, default the last 30 days)
+    @GetMapping("/distinct-customers")
+    public ResponseEntity<?> getDistinctCustomers(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Long productId) {
+        try {
+            LocalDate end = to != null ? LocalDate.parse(to) : LocalDate.now();
+            LocalDate start = from != null ? LocalDate.parse(from) : end.minusDays(29);
+            return ResponseEntity.ok(requestCoalescer.coalesce("distinct-customers",
+                    () -> salesSketchService.distinctCustomers(start, end, productId), start, end, productId));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return badRequest(e);
+        }
+    }
+
+    // Approximate quantiles of units per sale (metric=quantity) or sale amount (metric=ticket)
+    @GetMapping("/quantiles")
+    public ResponseEntity<?> getQuantiles(
+            @RequestParam(defaultValue = "quantity") String metric,
+            @RequestParam(defaultValue = "0.5,0.9,0.99") List<Double> q,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Long productId) {
+        try {
+            LocalDate end = to != null ? LocalDate.parse(to) : LocalDate.now();
+            LocalDate start = from != null ? LocalDate.parse(from) : end.minusDays(29);
+            return ResponseEntity.ok(requestCoalescer.coalesce("quantiles",
+                    () -> salesSketchService.quantiles(metric, q, start, end, productId), metric, q, start, end, productId));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return badRequest(e);
+        }
+    }
+
+    private ResponseEntity<Map<String, String>> badRequest(RuntimeException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(error);
+    }
+}
@@ -0,0 +1,61 @@
+package com.inventoryoptimizer;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// A grouped sales query: dimensions to group by, measures to compute and optional filters.
+// Null filters are not applied; from/to select sales in [from, to).
+public record AnalyticsQuery(List<String> dimensions, List<String> measures, List<Long> productIds,
+                             String customer, String location, LocalDateTime from, LocalDateTime to,
+                             String sort, Integer limit) {
+
+    // Parse a request body of the form
+    // {"dimensions": [...], "measures": [...], "filters": {...}, "sort": "revenue", "limit": 100}
+    @SuppressWarnings("unchecked")
+    public static AnalyticsQuery fromRequest(Map<String, Object> body) {
+        Map<String, Object> filters = body.get("filters") instanceof Map<?, ?> map
+                ? (Map<String, Object>) map : Map.of();
+
+        List<Long> productIds = null;
+        if (filters.get("productIds") instanceof List<?> ids) {
+            productIds = new ArrayList<>();
+            for (Object id : ids) {
+                productIds.add(Long.valueOf(id.toString()));
+            }
+        }
+
+        return new AnalyticsQuery(
+                strings(body.get("dimensions")),
+                strings(body.get("measures")),
+                productIds,
+                text(filters.get("customer")),
+                text(filters.get("location")),
+                time(filters.get("from")),
+                time(filters.get("to")),
+                text(body.get("sort")),
+                body.get("limit") != null ? Integer.valueOf(body.get("limit").toString()) : null);
+    }
+
+    private static List<String> strings(Object value) {
+        List<String> result = new ArrayList<>();
+        if (value instanceof List<?> list) {
+            for (Object item : list) {
+                result.add(item.toString());
+            }
+        } else if (value != null) {
+            throw new IllegalArgumentException("Expected a list but got: " + value);
+        }
+        return result;
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static LocalDateTime time(Object value) {
+        return value != null ? LocalDateTime.parse(value.toString(), DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null;
+    }
+}
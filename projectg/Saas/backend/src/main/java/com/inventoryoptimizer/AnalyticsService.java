@@ -0,0 +1,423 @@
+package com.inventoryoptimizer;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-dimensional sales queries. A query is validated against fixed dimension and measure
+ * whitelists and compiled into grouped SQL with bound parameters, so aggregation happens in
+ * the database and only one row per group comes back. Queries grouped by product and calendar
+ * grain over whole days read the finalized days from sales_daily_rollup and only the recent
+ * tail from sale_record; the two partial results are merged here.
+ */
+@Service
+public class AnalyticsService {
+    public static final List<String> DIMENSIONS = List.of("product", "day", "week", "month", "hour", "customer");
+    public static final List<String> MEASURES = List.of("units", "revenue", "count", "avgTicket");
+
+    private static final Set<String> ROLLUP_DIMENSIONS = Set.of("product", "day", "week", "month");
+    private static final int MAX_PRODUCT_FILTER = 1000;
+
+    // Grouping expressions over sale_record (alias s) and sales_daily_rollup (alias r)
+    private static final Map<String, String> SALES_EXPRESSIONS = Map.of(
+            "product", "s.product_id",
+            "day", "CAST(s.timestamp AS DATE)",
+            "week", "CAST(DATE_TRUNC('week', s.timestamp) AS DATE)",
+            "month", "CAST(DATE_TRUNC('month', s.timestamp) AS DATE)",
+            "hour", "EXTRACT(HOUR FROM s.timestamp)",
+            "customer", "s.customer_key");
+    // Selected in place of the grouping expression where the group needs a readable label:
+    // customers group on the normalized key and show one of the names recorded for it
+    private static final Map<String, String> SALES_LABELS = Map.of(
+            "customer", "MAX(s.customer_name)");
+    private static final Map<String, String> ROLLUP_EXPRESSIONS = Map.of(
+            "product", "r.product_id",
+            "day", "r.sale_date",
+            "week", "CAST(DATE_TRUNC('week', r.sale_date) AS DATE)",
+            "month", "CAST(DATE_TRUNC('month', r.sale_date) AS DATE)");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // A query producing more groups than this is rejected rather than truncated
+    @Value("${inventory.analytics.max-groups:50000}")
+    private int maxGroups;
+
+    @Value("${inventory.analytics.default-limit:1000}")
+    private int defaultLimit;
+
+    @Value("${inventory.analytics.max-limit:10000}")
+    private int maxLimit;
+
+    @Value("${inventory.analytics.default-days:30}")
+    private int defaultDays;
+
+    @Value("${inventory.analytics.query-timeout-seconds:10}")
+    private int queryTimeoutSeconds;
+
+    private JdbcTemplate guardedTemplate;
+
+    // Sums per group: units, revenue in cents, sale count
+    private record Group(List<Object> key, long[] sums) {}
+
+    // One grouped SELECT with its bound parameters
+    private record Statement(String sql, List<Object> params) {}
+
+    // Merged groups of a query and how they were read
+    private record Aggregation(Map<List<Object>, long[]> groups, String source, int statements,
+                               LocalDate rollupFrom, LocalDate rollupTo) {}
+
+    @PostConstruct
+    void init() {
+        guardedTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        guardedTemplate.setQueryTimeout(queryTimeoutSeconds);
+        guardedTemplate.setMaxRows(maxGroups + 1);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> query(AnalyticsQuery query) {
+        long start = System.nanoTime();
+        List<String> dimensions = validateDimensions(query.dimensions());
+        List<String> measures = query.measures().isEmpty() ? MEASURES : validateMeasures(query.measures());
+        int limit = query.limit() != null ? query.limit() : defaultLimit;
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+        if (query.sort() != null && !measures.contains(query.sort()) && !dimensions.contains(query.sort())) {
+            throw new IllegalArgumentException("sort must be one of the requested dimensions or measures: " + query.sort());
+        }
+        if (query.productIds() != null && query.productIds().size() > MAX_PRODUCT_FILTER) {
+            throw new IllegalArgumentException("At most " + MAX_PRODUCT_FILTER + " products can be filtered on");
+        }
+
+        LocalDateTime to = query.to() != null ? query.to() : LocalDateTime.now();
+        LocalDateTime from = query.from() != null ? query.from() : to.minusDays(defaultDays);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+
+        Aggregation aggregation = aggregate(dimensions, query, from, to);
+        Map<List<Object>, long[]> groups = aggregation.groups();
+
+        List<Map.Entry<List<Object>, long[]>> ordered = new ArrayList<>(groups.entrySet());
+        ordered.sort(comparator(dimensions, query.sort()));
+        boolean truncated = ordered.size() > limit;
+        if (truncated) {
+            ordered = ordered.subList(0, limit);
+        }
+
+        Map<Long, String> productNames = dimensions.contains("product") ? productNames(ordered, dimensions) : Map.of();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<List<Object>, long[]> entry : ordered) {
+            rows.add(toRow(dimensions, measures, entry.getKey(), entry.getValue(), productNames));
+        }
+
+        Map<String, Object> plan = new HashMap<>();
+        plan.put("source", aggregation.source());
+        plan.put("statements", aggregation.statements());
+        if (aggregation.rollupFrom() != null) {
+            plan.put("rollupFrom", aggregation.rollupFrom().toString());
+            plan.put("rollupTo", aggregation.rollupTo().toString());
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("dimensions", dimensions);
+        result.put("measures", measures);
+        result.put("from", from);
+        result.put("to", to);
+        result.put("rows", rows);
+        result.put("rowCount", rows.size());
+        result.put("truncated", truncated);
+        result.put("plan", plan);
+        result.put("elapsedMs", (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    // Units, revenue in cents and sale count per product for sales in [from, to)
+    @Transactional(readOnly = true)
+    public Map<Long, long[]> aggregateByProduct(LocalDateTime from, LocalDateTime to) {
+        AnalyticsQuery query = new AnalyticsQuery(List.of("product"), List.of(), null, null, null, from, to, null, null);
+        Map<Long, long[]> totals = new HashMap<>();
+        for (Map.Entry<List<Object>, long[]> group : aggregate(query.dimensions(), query, from, to).groups().entrySet()) {
+            totals.put((Long) group.getKey().get(0), group.getValue());
+        }
+        return totals;
+    }
+
+    // Plan: finalized whole days from the rollup when the grain and filters allow it,
+    // everything else from sale_record
+    private Aggregation aggregate(List<String> dimensions, AnalyticsQuery query, LocalDateTime from, LocalDateTime to) {
+        List<Statement> statements = new ArrayList<>();
+        List<LocalDateTime[]> salesRanges = new ArrayList<>();
+        String source = "sales";
+        LocalDate rollupStart = null;
+        LocalDate rollupEnd = null;
+        LocalDate finalizedBefore = salesRollupService.getFinalizedBefore();
+        if (ROLLUP_DIMENSIONS.containsAll(dimensions) && query.customer() == null && query.location() == null
+                && finalizedBefore != null) {
+            rollupStart = from.toLocalTime().equals(LocalTime.MIDNIGHT) ? from.toLocalDate() : from.toLocalDate().plusDays(1);
+            rollupEnd = to.toLocalDate().isBefore(finalizedBefore) ? to.toLocalDate() : finalizedBefore;
+        }
+        if (rollupStart != null && rollupStart.isBefore(rollupEnd)) {
+            statements.add(rollupStatement(dimensions, query, rollupStart, rollupEnd));
+            addRange(salesRanges, from, rollupStart.atStartOfDay());
+            addRange(salesRanges, rollupEnd.atStartOfDay(), to);
+            source = salesRanges.isEmpty() ? "rollup" : "rollup+sales";
+        } else {
+            rollupStart = null;
+            rollupEnd = null;
+            addRange(salesRanges, from, to);
+        }
+        if (!salesRanges.isEmpty()) {
+            statements.add(salesStatement(dimensions, query, salesRanges));
+        }
+
+        Map<List<Object>, long[]> groups = new LinkedHashMap<>();
+        for (Statement statement : statements) {
+            List<Group> rows = guardedTemplate.query(statement.sql(), (rs, rowNum) -> readGroup(rs, dimensions),
+                    statement.params().toArray());
+            if (rows.size() > maxGroups) {
+                throw new IllegalArgumentException("Query produces more than " + maxGroups
+                        + " groups; narrow the filters or use a coarser dimension");
+            }
+            for (Group group : rows) {
+                if (group.sums()[2] == 0) {
+                    continue;
+                }
+                long[] sums = groups.computeIfAbsent(group.key(), k -> new long[3]);
+                for (int i = 0; i < 3; i++) {
+                    sums[i] = Math.addExact(sums[i], group.sums()[i]);
+                }
+            }
+        }
+        return new Aggregation(groups, source, statements.size(), rollupStart, rollupEnd);
+    }
+
+    private List<String> validateDimensions(List<String> requested) {
+        Set<String> seen = new HashSet<>();
+        for (String dimension : requested) {
+            if (!DIMENSIONS.contains(dimension)) {
+                throw new IllegalArgumentException("Unknown dimension: " + dimension + " (expected one of " + DIMENSIONS + ")");
+            }
+            if (!seen.add(dimension)) {
+                throw new IllegalArgumentException("Duplicate dimension: " + dimension);
+            }
+        }
+        return requested;
+    }
+
+    private List<String> validateMeasures(List<String> requested) {
+        for (String measure : requested) {
+            if (!MEASURES.contains(measure)) {
+                throw new IllegalArgumentException("Unknown measure: " + measure + " (expected one of " + MEASURES + ")");
+            }
+        }
+        return requested;
+    }
+
+    private static void addRange(List<LocalDateTime[]> ranges, LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(to)) {
+            ranges.add(new LocalDateTime[] {from, to});
+        }
+    }
+
+    private Statement salesStatement(List<String> dimensions, AnalyticsQuery query, List<LocalDateTime[]> ranges) {
+        List<Object> params = new ArrayList<>();
+        List<String> ranged = new ArrayList<>();
+        for (LocalDateTime[] range : ranges) {
+            ranged.add("(s.timestamp >= ? AND s.timestamp < ?)");
+            params.add(range[0]);
+            params.add(range[1]);
+        }
+        StringBuilder where = new StringBuilder("(").append(String.join(" OR ", ranged)).append(")");
+        appendProductFilter(where, params, "s.product_id", query.productIds());
+        if (query.customer() != null) {
+            where.append(" AND s.customer_key = ?");
+            params.add(SaleRecord.customerKey(query.customer()));
+        }
+        if (query.location() != null) {
+            where.append(" AND s.location = ?");
+            params.add(query.location());
+        }
+        return grouped(dimensions, SALES_EXPRESSIONS, SALES_LABELS,
+                "SUM(s.quantity_sold), CAST(COALESCE(SUM(s.total_amount), 0) * 100 AS BIGINT), COUNT(*)",
+                "sale_record s", where.toString(), params);
+    }
+
+    private Statement rollupStatement(List<String> dimensions, AnalyticsQuery query, LocalDate from, LocalDate to) {
+        List<Object> params = new ArrayList<>();
+        params.add(from);
+        params.add(to);
+        StringBuilder where = new StringBuilder("r.sale_date >= ? AND r.sale_date < ?");
+        appendProductFilter(where, params, "r.product_id", query.productIds());
+        return grouped(dimensions, ROLLUP_EXPRESSIONS, Map.of(),
+                "SUM(r.units), SUM(r.revenue_cents), SUM(r.sale_count)",
+                "sales_daily_rollup r", where.toString(), params);
+    }
+
+    private static void appendProductFilter(StringBuilder where, List<Object> params, String column, List<Long> productIds) {
+        if (productIds == null) {
+            return;
+        }
+        if (productIds.isEmpty()) {
+            where.append(" AND 1 = 0");
+            return;
+        }
+        where.append(" AND ").append(column).append(" IN (")
+                .append(String.join(", ", Collections.nCopies(productIds.size(), "?"))).append(")");
+        params.addAll(productIds);
+    }
+
+    private static Statement grouped(List<String> dimensions, Map<String, String> expressions, Map<String, String> labels,
+                                     String sums, String table, String where, List<Object> params) {
+        List<String> keys = dimensions.stream().map(expressions::get).toList();
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (String dimension : dimensions) {
+            sql.append(labels.getOrDefault(dimension, expressions.get(dimension))).append(", ");
+        }
+        sql.append(sums).append(" FROM ").append(table).append(" WHERE ").append(where);
+        if (!keys.isEmpty()) {
+            sql.append(" GROUP BY ").append(String.join(", ", keys));
+        }
+        return new Statement(sql.toString(), params);
+    }
+
+    // Group keys are normalized so rollup and sale_record rows for the same group merge
+    private static Group readGroup(ResultSet rs, List<String> dimensions) throws SQLException {
+        List<Object> key = new ArrayList<>(dimensions.size());
+        for (int i = 0; i < dimensions.size(); i++) {
+            Object value = rs.getObject(i + 1);
+            key.add(value == null ? null : switch (dimensions.get(i)) {
+                case "product" -> ((Number) value).longValue();
+                case "hour" -> ((Number) value).intValue();
+                case "customer" -> value.toString();
+                default -> toLocalDate(value);
+            });
+        }
+        int column = dimensions.size();
+        long[] sums = {rs.getLong(column + 1), rs.getLong(column + 2), rs.getLong(column + 3)};
+        return new Group(key, sums);
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate();
+        }
+        if (value instanceof OffsetDateTime dateTime) {
+            return dateTime.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
+    // By the sort measure descending, or by the dimensions in order
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Map.Entry<List<Object>, long[]>> comparator(List<String> dimensions, String sort) {
+        if (sort != null && MEASURES.contains(sort)) {
+            Comparator<Map.Entry<List<Object>, long[]>> byMeasure = Comparator.comparingDouble(e -> measureValue(sort, e.getValue()));
+            return byMeasure.reversed();
+        }
+        List<Integer> order = new ArrayList<>();
+        if (sort != null) {
+            order.add(dimensions.indexOf(sort));
+        }
+        for (int i = 0; i < dimensions.size(); i++) {
+            if (!order.contains(i)) {
+                order.add(i);
+            }
+        }
+        Comparator<Comparable> nullsFirst = Comparator.nullsFirst(Comparator.naturalOrder());
+        return (a, b) -> {
+            for (int i : order) {
+                int c = nullsFirst.compare((Comparable) a.getKey().get(i), (Comparable) b.getKey().get(i));
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return 0;
+        };
+    }
+
+    private static double measureValue(String measure, long[] sums) {
+        return switch (measure) {
+            case "units" -> sums[0];
+            case "revenue" -> sums[1];
+            case "count" -> sums[2];
+            default -> sums[2] == 0 ? 0 : (double) sums[1] / sums[2];
+        };
+    }
+
+    private Map<Long, String> productNames(List<Map.Entry<List<Object>, long[]>> groups, List<String> dimensions) {
+        int index = dimensions.indexOf("product");
+        Set<Long> ids = new HashSet<>();
+        for (Map.Entry<List<Object>, long[]> group : groups) {
+            ids.add((Long) group.getKey().get(index));
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            names.put(product.getId(), product.getName());
+        }
+        return names;
+    }
+
+    private static Map<String, Object> toRow(List<String> dimensions, List<String> measures, List<Object> key,
+                                             long[] sums, Map<Long, String> productNames) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < dimensions.size(); i++) {
+            String dimension = dimensions.get(i);
+            Object value = key.get(i);
+            switch (dimension) {
+                case "product" -> {
+                    row.put("productId", value);
+                    row.put("productName", productNames.get(value));
+                }
+                case "month" -> row.put(dimension, YearMonth.from((LocalDate) value).toString());
+                case "day", "week" -> row.put(dimension, value.toString());
+                default -> row.put(dimension, value);
+            }
+        }
+        for (String measure : measures) {
+            switch (measure) {
+                case "units" -> row.put(measure, sums[0]);
+                case "revenue" -> row.put(measure, Money.toDecimal(sums[1]));
+                case "count" -> row.put(measure, sums[2]);
+                default -> row.put(measure, Money.toDecimal(Money.divide(sums[1], sums[2])));
+            }
+        }
+        return row;
+    }
+}
@@ -0,0 +1,67 @@
+package com.inventoryoptimizer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+// Read access to partitions that were archived to files and dropped from the database
+@RestController
+@RequestMapping("/api/archive")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class ArchiveController {
+
+    @Autowired
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Stream archived rows of sale_record or log_entry in [from, to) as newline-delimited JSON
+    @GetMapping(value = "/{table}", produces = "application/x-ndjson")
+    public ResponseEntity<?> readArchive(
+            @PathVariable String table,
+            @RequestParam String from,
+            @RequestParam String to) {
+        LocalDateTime start;
+        LocalDateTime end;
+        try {
+            start = LocalDateTime.parse(from, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            end = LocalDateTime.parse(to, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (!PartitionMaintenanceService.PARTITIONED_TABLES.contains(table)) {
+            return error(HttpStatus.NOT_FOUND, "No archive for table: " + table);
+        }
+
+        StreamingResponseBody body = out -> partitionMaintenanceService.readArchived(table, start, end, row -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    private ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.status(status).body(error);
+    }
+}
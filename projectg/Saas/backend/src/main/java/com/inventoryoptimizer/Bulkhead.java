@@ -0,0 +1,130 @@
+package com.inventoryoptimizer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit with a bounded FIFO-ish wait queue. Callers beyond the limit wait up to the
+ * queue timeout for a permit; once the queue is full they are turned away at once. The limit can
+ * be changed while requests are in flight: lowering it only stops new admissions.
+ */
+class Bulkhead {
+    private final String name;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition permitReleased = lock.newCondition();
+
+    private volatile int limit;
+    private int inFlight;
+    private int queued;
+
+    // Completed requests and their total latency since the last drainLatency()
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong latencyNanos = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    Bulkhead(String name, int limit, int maxQueue, long queueTimeoutMillis) {
+        this.name = name;
+        this.limit = Math.max(1, limit);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+    }
+
+    // True once a permit is held; false if the queue was full or the wait timed out
+    boolean tryAcquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                inFlight++;
+                return true;
+            }
+            if (queued >= maxQueue) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            queued++;
+            try {
+                long remaining = queueTimeoutNanos;
+                while (inFlight >= limit) {
+                    if (remaining <= 0) {
+                        rejected.incrementAndGet();
+                        return false;
+                    }
+                    remaining = permitReleased.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(long elapsedNanos) {
+        completed.incrementAndGet();
+        latencyNanos.addAndGet(elapsedNanos);
+        lock.lock();
+        try {
+            inFlight--;
+            permitReleased.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void setLimit(int newLimit) {
+        lock.lock();
+        try {
+            int previous = limit;
+            limit = Math.max(1, newLimit);
+            // A raised limit may admit several waiters at once
+            for (int i = previous; i < limit; i++) {
+                permitReleased.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Mean latency in nanoseconds of the requests completed since the previous call, or -1 if none
+    long drainMeanLatencyNanos() {
+        long count = completed.getAndSet(0);
+        long total = latencyNanos.getAndSet(0);
+        return count > 0 ? total / count : -1;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,60 @@
+package com.inventoryoptimizer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/customers")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class CustomerController {
+
+    @Autowired
+    private CustomerService customerService;
+
+    // Lifetime totals and top products of a customer (name matched case-insensitively)
+    @GetMapping("/{name}")
+    public ResponseEntity<?> getCustomer(@PathVariable String name) {
+        Map<String, Object> summary = customerService.getSummary(name);
+        if (summary == null) {
+            return notFound(name);
+        }
+        return ResponseEntity.ok(summary);
+    }
+
+    // Customer summary plus a newest-first page of their sales; pass nextCursor back as cursor
+    @GetMapping("/{name}/history")
+    public ResponseEntity<?> getHistory(
+            @PathVariable String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        Map<String, Object> summary = customerService.getSummary(name);
+        if (summary == null) {
+            return notFound(name);
+        }
+        try {
+            CustomerService.HistoryPage page = customerService.getHistory(name, cursor, size);
+            Map<String, Object> result = new HashMap<>();
+            result.put("customer", summary);
+            result.put("content", page.content());
+            result.put("size", page.size());
+            result.put("hasNext", page.hasNext());
+            result.put("nextCursor", page.nextCursor());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    private ResponseEntity<Map<String, String>> notFound(String name) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "No purchases found for customer: " + name);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+}
@@ -0,0 +1,293 @@
+package com.inventoryoptimizer;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-customer purchase aggregates keyed by the normalized customer name. customer_summary
+ * and customer_product are upserted in the transaction that records the sales, so a lookup
+ * reads one summary row, the customer's product rows and one index range of sale_record
+ * instead of scanning all sales.
+ */
+@Service
+public class CustomerService {
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final int TOP_PRODUCTS = 5;
+    private static final int RECOMPUTE_CHUNK_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SaleRecordRepository saleRecordRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // One page of a customer's sales, newest first; nextCursor is null on the last page
+    public record HistoryPage(List<SaleRecord> content, int size, boolean hasNext, String nextCursor) {}
+
+    // Totals of one batch for one customer, or for one customer and product
+    private static class Totals {
+        String displayName;
+        long orders;
+        long units;
+        long cents;
+        LocalDateTime first;
+        LocalDateTime last;
+
+        void add(SaleRecord sale) {
+            displayName = sale.getCustomerName().trim();
+            orders++;
+            units += sale.getQuantitySold();
+            cents = Money.add(cents, Money.ofDecimal(sale.getTotalAmount()));
+            first = first == null || sale.getTimestamp().isBefore(first) ? sale.getTimestamp() : first;
+            last = last == null || sale.getTimestamp().isAfter(last) ? sale.getTimestamp() : last;
+        }
+    }
+
+    private String upsertSummarySql;
+    private String upsertProductSql;
+
+    // PostgreSQL gets INSERT .. ON CONFLICT, which is safe when two sales create the same customer at once
+    @PostConstruct
+    void chooseUpsertStatements() throws SQLException {
+        boolean postgres;
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        }
+        if (postgres) {
+            upsertSummarySql = "INSERT INTO customer_summary AS c " +
+                    "(customer_key, display_name, order_count, units, spend_cents, first_purchase, last_purchase) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (customer_key) DO UPDATE SET " +
+                    "display_name = EXCLUDED.display_name, order_count = c.order_count + EXCLUDED.order_count, " +
+                    "units = c.units + EXCLUDED.units, spend_cents = c.spend_cents + EXCLUDED.spend_cents, " +
+                    "first_purchase = LEAST(c.first_purchase, EXCLUDED.first_purchase), " +
+                    "last_purchase = GREATEST(c.last_purchase, EXCLUDED.last_purchase)";
+            upsertProductSql = "INSERT INTO customer_product AS c " +
+                    "(customer_key, product_id, order_count, units, spend_cents, last_purchase) " +
+                    "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (customer_key, product_id) DO UPDATE SET " +
+                    "order_count = c.order_count + EXCLUDED.order_count, units = c.units + EXCLUDED.units, " +
+                    "spend_cents = c.spend_cents + EXCLUDED.spend_cents, " +
+                    "last_purchase = GREATEST(c.last_purchase, EXCLUDED.last_purchase)";
+        } else {
+            upsertSummarySql = "MERGE INTO customer_summary c USING (VALUES (CAST(? AS VARCHAR(255)), " +
+                    "CAST(? AS VARCHAR(255)), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), " +
+                    "CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP))) " +
+                    "AS v (customer_key, display_name, order_count, units, spend_cents, first_purchase, last_purchase) " +
+                    "ON c.customer_key = v.customer_key WHEN MATCHED THEN UPDATE SET " +
+                    "display_name = v.display_name, order_count = c.order_count + v.order_count, " +
+                    "units = c.units + v.units, spend_cents = c.spend_cents + v.spend_cents, " +
+                    "first_purchase = LEAST(c.first_purchase, v.first_purchase), " +
+                    "last_purchase = GREATEST(c.last_purchase, v.last_purchase) " +
+                    "WHEN NOT MATCHED THEN INSERT " +
+                    "(customer_key, display_name, order_count, units, spend_cents, first_purchase, last_purchase) VALUES " +
+                    "(v.customer_key, v.display_name, v.order_count, v.units, v.spend_cents, v.first_purchase, v.last_purchase)";
+            upsertProductSql = "MERGE INTO customer_product c USING (VALUES (CAST(? AS VARCHAR(255)), " +
+                    "CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS TIMESTAMP))) " +
+                    "AS v (customer_key, product_id, order_count, units, spend_cents, last_purchase) " +
+                    "ON c.customer_key = v.customer_key AND c.product_id = v.product_id WHEN MATCHED THEN UPDATE SET " +
+                    "order_count = c.order_count + v.order_count, units = c.units + v.units, " +
+                    "spend_cents = c.spend_cents + v.spend_cents, " +
+                    "last_purchase = GREATEST(c.last_purchase, v.last_purchase) " +
+                    "WHEN NOT MATCHED THEN INSERT " +
+                    "(customer_key, product_id, order_count, units, spend_cents, last_purchase) VALUES " +
+                    "(v.customer_key, v.product_id, v.order_count, v.units, v.spend_cents, v.last_purchase)";
+        }
+    }
+
+    // Fold newly saved sales into the customer aggregates, in the caller's transaction.
+    // Rows are upserted in key order so concurrent batches lock them in the same order.
+    public void recordSales(List<SaleRecord> sales) {
+        Map<String, Totals> byCustomer = new TreeMap<>();
+        Map<String, Map<Long, Totals>> byCustomerProduct = new TreeMap<>();
+        for (SaleRecord sale : sales) {
+            String key = sale.getCustomerKey();
+            if (key == null) {
+                continue;
+            }
+            byCustomer.computeIfAbsent(key, k -> new Totals()).add(sale);
+            byCustomerProduct.computeIfAbsent(key, k -> new TreeMap<>())
+                    .computeIfAbsent(sale.getProduct().getId(), k -> new Totals()).add(sale);
+        }
+        if (byCustomer.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> summaryRows = new ArrayList<>();
+        for (Map.Entry<String, Totals> entry : byCustomer.entrySet()) {
+            Totals totals = entry.getValue();
+            summaryRows.add(new Object[] {entry.getKey(), totals.displayName, totals.orders, totals.units, totals.cents,
+                    Timestamp.valueOf(totals.first), Timestamp.valueOf(totals.last)});
+        }
+        List<Object[]> productRows = new ArrayList<>();
+        for (Map.Entry<String, Map<Long, Totals>> customer : byCustomerProduct.entrySet()) {
+            for (Map.Entry<Long, Totals> product : customer.getValue().entrySet()) {
+                Totals totals = product.getValue();
+                productRows.add(new Object[] {customer.getKey(), product.getKey(), totals.orders, totals.units,
+                        totals.cents, Timestamp.valueOf(totals.last)});
+            }
+        }
+        jdbcTemplate.batchUpdate(upsertSummarySql, summaryRows);
+        jdbcTemplate.batchUpdate(upsertProductSql, productRows);
+    }
+
+    // Rebuild the aggregates of these customers from sale_record after sales were removed
+    public void recomputeCustomers(Collection<String> customerKeys) {
+        List<String> keys = new ArrayList<>(customerKeys);
+        for (int from = 0; from < keys.size(); from += RECOMPUTE_CHUNK_SIZE) {
+            List<String> chunk = keys.subList(from, Math.min(from + RECOMPUTE_CHUNK_SIZE, keys.size()));
+            String in = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            Object[] params = chunk.toArray();
+            jdbcTemplate.update("DELETE FROM customer_product WHERE customer_key IN (" + in + ")", params);
+            jdbcTemplate.update("DELETE FROM customer_summary WHERE customer_key IN (" + in + ")", params);
+            jdbcTemplate.update("INSERT INTO customer_summary " +
+                    "(customer_key, display_name, order_count, units, spend_cents, first_purchase, last_purchase) " +
+                    "SELECT customer_key, MAX(customer_name), COUNT(*), SUM(quantity_sold), " +
+                    "CAST(COALESCE(SUM(total_amount), 0) * 100 AS BIGINT), MIN(timestamp), MAX(timestamp) " +
+                    "FROM sale_record WHERE customer_key IN (" + in + ") GROUP BY customer_key", params);
+            jdbcTemplate.update("INSERT INTO customer_product " +
+                    "(customer_key, product_id, order_count, units, spend_cents, last_purchase) " +
+                    "SELECT customer_key, product_id, COUNT(*), SUM(quantity_sold), " +
+                    "CAST(COALESCE(SUM(total_amount), 0) * 100 AS BIGINT), MAX(timestamp) " +
+                    "FROM sale_record WHERE customer_key IN (" + in + ") GROUP BY customer_key, product_id", params);
+        }
+    }
+
+    // Rebuild every customer's aggregates from sale_record after a bulk load
+    @Transactional
+    public void rebuildAll() {
+        jdbcTemplate.update("DELETE FROM customer_product");
+        jdbcTemplate.update("DELETE FROM customer_summary");
+        jdbcTemplate.update("INSERT INTO customer_summary " +
+                "(customer_key, display_name, order_count, units, spend_cents, first_purchase, last_purchase) " +
+                "SELECT customer_key, MAX(customer_name), COUNT(*), SUM(quantity_sold), " +
+                "CAST(COALESCE(SUM(total_amount), 0) * 100 AS BIGINT), MIN(timestamp), MAX(timestamp) " +
+                "FROM sale_record WHERE customer_key IS NOT NULL GROUP BY customer_key");
+        jdbcTemplate.update("INSERT INTO customer_product " +
+                "(customer_key, product_id, order_count, units, spend_cents, last_purchase) " +
+                "SELECT customer_key, product_id, COUNT(*), SUM(quantity_sold), " +
+                "CAST(COALESCE(SUM(total_amount), 0) * 100 AS BIGINT), MAX(timestamp) " +
+                "FROM sale_record WHERE customer_key IS NOT NULL GROUP BY customer_key, product_id");
+    }
+
+    // Lifetime totals and top products of a customer, or null if the customer never bought anything
+    @Transactional(readOnly = true)
+    public Map<String, Object> getSummary(String customerName) {
+        String key = SaleRecord.customerKey(customerName);
+        if (key == null) {
+            return null;
+        }
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT display_name, order_count, units, spend_cents, first_purchase, last_purchase " +
+                "FROM customer_summary WHERE customer_key = ?", key);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> row = rows.get(0);
+
+        List<Map<String, Object>> productRows = jdbcTemplate.queryForList(
+                "SELECT product_id, order_count, units, spend_cents, last_purchase FROM customer_product " +
+                "WHERE customer_key = ? ORDER BY spend_cents DESC, units DESC, product_id", key);
+        List<Long> productIds = new ArrayList<>();
+        for (Map<String, Object> product : productRows.subList(0, Math.min(TOP_PRODUCTS, productRows.size()))) {
+            productIds.add(((Number) product.get("product_id")).longValue());
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            names.put(product.getId(), product.getName());
+        }
+        List<Map<String, Object>> topProducts = new ArrayList<>();
+        for (Map<String, Object> product : productRows.subList(0, productIds.size())) {
+            Long productId = ((Number) product.get("product_id")).longValue();
+            Map<String, Object> top = new LinkedHashMap<>();
+            top.put("productId", productId);
+            top.put("productName", names.get(productId));
+            top.put("orderCount", ((Number) product.get("order_count")).longValue());
+            top.put("units", ((Number) product.get("units")).longValue());
+            top.put("spend", Money.toDecimal(((Number) product.get("spend_cents")).longValue()));
+            top.put("lastPurchase", toLocalDateTime(product.get("last_purchase")));
+            topProducts.add(top);
+        }
+
+        long orders = ((Number) row.get("order_count")).longValue();
+        long cents = ((Number) row.get("spend_cents")).longValue();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("customerKey", key);
+        summary.put("name", row.get("display_name"));
+        summary.put("orderCount", orders);
+        summary.put("units", ((Number) row.get("units")).longValue());
+        summary.put("lifetimeSpend", Money.toDecimal(cents));
+        summary.put("averageOrderValue", Money.toDecimal(orders > 0 ? Money.divide(cents, orders) : 0));
+        summary.put("firstPurchase", toLocalDateTime(row.get("first_purchase")));
+        summary.put("lastPurchase", toLocalDateTime(row.get("last_purchase")));
+        summary.put("productCount", productRows.size());
+        summary.put("topProducts", topProducts);
+        return summary;
+    }
+
+    // Newest-first page of a customer's sales after the cursor, read from the customer index
+    @Transactional(readOnly = true)
+    public HistoryPage getHistory(String customerName, String cursor, int size) {
+        String key = SaleRecord.customerKey(customerName);
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        SaleRecord after = decodeCursor(cursor);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<SaleRecord> rows = after == null
+                ? saleRecordRepository.findByCustomerKeyNewestFirst(key, page)
+                : saleRecordRepository.findByCustomerKeyOlderThan(key, after.getTimestamp(), after.getId(), page);
+
+        boolean hasNext = rows.size() > limit;
+        List<SaleRecord> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? encodeCursor(content.get(content.size() - 1)) : null;
+        return new HistoryPage(content, content.size(), hasNext, nextCursor);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private String encodeCursor(SaleRecord last) {
+        String key = last.getTimestamp() + "_" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private SaleRecord decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.lastIndexOf('_');
+            SaleRecord position = new SaleRecord();
+            position.setTimestamp(LocalDateTime.parse(key.substring(0, separator)));
+            position.setId(Long.valueOf(key.substring(separator + 1)));
+            return position;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid history cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.inventoryoptimizer;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceProxyConfig {
+
+    // Wraps the pool in a datasource-proxy that feeds SqlStatementListener; the JDBC objects
+    // handed out still unwrap to the driver's own (e.g. PGConnection for COPY)
+    @Bean
+    public static BeanPostProcessor sqlStatementDataSourceProxy(Environment environment) {
+        boolean enabled = environment.getProperty("inventory.sql.stats.enabled", Boolean.class, true);
+        boolean countRows = environment.getProperty("inventory.sql.stats.count-rows", Boolean.class, true);
+        long slowQueryMillis = environment.getProperty("inventory.sql.slow-query-millis", Long.class, 500L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the application-wide DataSource: with a read replica the pools behind it are beans too
+                if (!enabled || !"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                SqlStatementListener listener = new SqlStatementListener(slowQueryMillis);
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, dataSource).listener(listener);
+                if (countRows) {
+                    builder.proxyResultSet().methodListener(listener);
+                }
+                return builder.build();
+            }
+        };
+    }
+}
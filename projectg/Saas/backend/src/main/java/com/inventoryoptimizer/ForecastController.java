@@ -11,14 +11,17 @@ import java.util.Map;
 public class ForecastController {
     @Autowired
     private ForecastService forecastService;
+    
+    @Autowired
+    private RequestCoalescer requestCoalescer;
 
     @GetMapping("/product/{productId}")
     public Map<String, Object> getForecast(@PathVariable Long productId, @RequestParam(defaultValue = "7") int days) {
-        return forecastService.forecastLinearRegression(productId, days);
+        return requestCoalescer.coalesce("forecast-product", () -> forecastService.forecastLinearRegression(productId, days), productId, days);
     }
     
     @GetMapping("/revenue")
     public Map<String, Object> getPredictedRevenue(@RequestParam(defaultValue = "30") int days) {
-        return forecastService.forecastTotalRevenue(days);
+        return requestCoalescer.coalesce("forecast-revenue", () -> forecastService.forecastTotalRevenue(days), days);
     }
 }
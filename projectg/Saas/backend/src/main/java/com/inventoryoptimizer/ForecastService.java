@@ -1,33 +1,51 @@
 package com.inventoryoptimizer;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.HashMap;
 
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @Service
+@Transactional(readOnly = true)
 public class ForecastService {
     @Autowired
-    private SaleRecordRepository saleRecordRepository;
+    private SalesColumnStore salesColumnStore;
     
     @Autowired
     private ProductRepository productRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private DistributionSummary productsPerForecast;
+    
+    @PostConstruct
+    void registerMetrics() {
+        productsPerForecast = DistributionSummary.builder("inventory.forecast.products")
+                .description("Products evaluated by one total revenue forecast")
+                .register(meterRegistry);
+    }
 
     public Map<String, Object> forecastLinearRegression(Long productId, int numDays) {
-        List<SaleRecord> sales = saleRecordRepository.findAll().stream()
-                .filter(s -> s.getProduct().getId().equals(productId))
-                .sorted((a, b) -> a.getTimestamp().compareTo(b.getTimestamp()))
-                .collect(Collectors.toList());
-        
+        return forecastFromQuantities(productId, salesColumnStore.series(Math.toIntExact(productId)).quantities(), numDays);
+    }
+    
+    // Regression over a product's sale quantities in time order
+    private Map<String, Object> forecastFromQuantities(Long productId, int[] quantities, int numDays) {
         Map<String, Object> result = new HashMap<>();
         result.put("productId", productId);
         result.put("forecastDays", numDays);
-        result.put("historicalSales", sales.size());
+        result.put("historicalSales", quantities.length);
         
-        if (sales.size() < 2) {
+        if (quantities.length < 2) {
             result.put("forecast", 0.0);
             result.put("averageDailySales", 0.0);
             result.put("confidence", "Low - Not enough historical data");
@@ -36,16 +54,19 @@ public class ForecastService {
         }
         
         // Calculate average daily sales
-        double totalSales = sales.stream().mapToInt(SaleRecord::getQuantitySold).sum();
-        double averageDailySales = totalSales / sales.size();
+        int n = quantities.length;
+        double totalSales = 0;
+        for (int quantity : quantities) {
+            totalSales += quantity;
+        }
+        double averageDailySales = totalSales / n;
         
         // Simple linear regression: x = day index, y = quantitySold
-        int n = sales.size();
         double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
         for (int i = 0; i < n; i++) {
             sumX += i;
-            sumY += sales.get(i).getQuantitySold();
-            sumXY += i * sales.get(i).getQuantitySold();
+            sumY += quantities[i];
+            sumXY += i * quantities[i];
             sumXX += i * i;
         }
         
@@ -80,25 +101,30 @@ public class ForecastService {
     public Map<String, Object> forecastTotalRevenue(int numDays) {
         // Get all products
         List<Product> products = productRepository.findAll();
+        SalesColumnStore.Series[] seriesByProduct = salesColumnStore.seriesByProduct();
         Map<String, Object> result = new HashMap<>();
         
-        double totalPredictedRevenue = 0.0;
+        long totalPredictedRevenue = 0;
         int productsWithForecasts = 0;
         
         for (Product product : products) {
             if (product.getPrice() != null) {
-                Map<String, Object> forecast = forecastLinearRegression(product.getId(), numDays);
+                int id = Math.toIntExact(product.getId());
+                int[] quantities = id < seriesByProduct.length && seriesByProduct[id] != null
+                        ? seriesByProduct[id].quantities() : new int[0];
+                Map<String, Object> forecast = forecastFromQuantities(product.getId(), quantities, numDays);
                 double predictedQuantity = (Double) forecast.get("forecast");
-                double predictedRevenue = predictedQuantity * product.getPrice().doubleValue();
+                long predictedRevenue = Money.times(Money.ofDecimal(product.getPrice()), predictedQuantity);
                 
                 if (predictedQuantity > 0) {
-                    totalPredictedRevenue += predictedRevenue;
+                    totalPredictedRevenue = Money.add(totalPredictedRevenue, predictedRevenue);
                     productsWithForecasts++;
                 }
             }
         }
         
-        result.put("predictedRevenue", totalPredictedRevenue);
+        productsPerForecast.record(products.size());
+        result.put("predictedRevenue", Money.toDecimal(totalPredictedRevenue));
         result.put("forecastDays", numDays);
         result.put("productsAnalyzed", products.size());
         result.put("productsWithForecasts", productsWithForecasts);
@@ -0,0 +1,163 @@
+package com.inventoryoptimizer;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+// Replays the stored response for write requests that repeat an Idempotency-Key with the same body
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final List<String> IDEMPOTENT_PATHS = List.of(
+            "/api/sales", "/api/sales/quick", "/api/products/*/add-stock");
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return IDEMPOTENT_PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        // The body is part of the scope, so reusing a key for another product or quantity is a 422
+        byte[] body = request.getInputStream().readAllBytes();
+        request = new CachedBodyRequest(request, body);
+        String query = request.getQueryString();
+        String scope = request.getMethod() + " " + request.getRequestURI() + (query != null ? "?" + query : "")
+                + (body.length > 0 ? " " + sha256(body) : "");
+        IdempotencyService.Claim claim = idempotencyService.claim(key, scope);
+
+        switch (claim.outcome()) {
+            case REPLAY -> {
+                IdempotencyService.CachedResponse cached = claim.response();
+                response.setStatus(cached.statusCode());
+                if (cached.contentType() != null) {
+                    response.setContentType(cached.contentType());
+                }
+                response.setHeader(REPLAYED_HEADER, "true");
+                response.getOutputStream().write(cached.body());
+                return;
+            }
+            case IN_PROGRESS -> {
+                response.setHeader("Retry-After", "1");
+                writeError(response, HttpServletResponse.SC_CONFLICT, "A request with this Idempotency-Key is still in progress");
+                return;
+            }
+            case KEY_REUSED -> {
+                writeError(response, 422, "Idempotency-Key was already used for a different request");
+                return;
+            }
+            default -> { }
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            idempotencyService.abandon(key);
+            throw e;
+        }
+
+        // Server errors are not replayed: the write may not have happened, so a retry should run it
+        if (wrapper.getStatus() < 500) {
+            idempotencyService.complete(key, scope, wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray());
+        } else {
+            idempotencyService.abandon(key);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    // The request body read up front for the scope hash, served again to the controller
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+    }
+}
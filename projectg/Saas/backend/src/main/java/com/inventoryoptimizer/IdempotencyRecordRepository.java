@@ -0,0 +1,46 @@
+package com.inventoryoptimizer;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    // Plain INSERT so a concurrent claim of the same key fails on the primary key instead of merging
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_record (idempotency_key, scope, status_code, created_at, expires_at) " +
+                   "VALUES (:key, :scope, 0, :createdAt, :expiresAt)", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("scope") String scope,
+              @Param("createdAt") LocalDateTime createdAt, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.contentType = :contentType, " +
+           "r.responseBody = :responseBody WHERE r.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("statusCode") int statusCode,
+                 @Param("contentType") String contentType, @Param("responseBody") String responseBody);
+    
+    // Restart a claim whose lease ran out; only the retry that still sees the stale claim wins
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.createdAt = :now " +
+           "WHERE r.idempotencyKey = :key AND r.statusCode = 0 AND r.createdAt = :staleCreatedAt")
+    int takeOver(@Param("key") String key, @Param("staleCreatedAt") LocalDateTime staleCreatedAt,
+                 @Param("now") LocalDateTime now);
+    
+    // Drop a claim whose request failed, so the client can retry it
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.statusCode = 0")
+    int abandon(@Param("key") String key);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
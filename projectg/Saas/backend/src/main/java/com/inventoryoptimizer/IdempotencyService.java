@@ -0,0 +1,154 @@
+package com.inventoryoptimizer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Dedup store behind the Idempotency-Key header. Completed responses are kept in a bounded
+ * in-memory LRU for fast replays and persisted in idempotency_record, which also serialises
+ * concurrent first attempts: only the request that inserts the key runs the handler. A claim
+ * holds a short lease, so a request that died mid-flight does not block retries for the TTL.
+ */
+@Service
+public class IdempotencyService {
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventory.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    // Longer than the slowest idempotent write, or a retry could run it a second time
+    @Value("${inventory.idempotency.claim-lease-seconds:60}")
+    private long claimLeaseSeconds;
+
+    @Value("${inventory.idempotency.max-cached-responses:10000}")
+    private int maxCachedResponses;
+
+    public enum Outcome { CLAIMED, REPLAY, IN_PROGRESS, KEY_REUSED }
+
+    public record CachedResponse(String scope, int statusCode, String contentType, byte[] body, LocalDateTime expiresAt) {}
+
+    public record Claim(Outcome outcome, CachedResponse response) {}
+
+    private final Map<String, CachedResponse> recentResponses = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > maxCachedResponses;
+        }
+    };
+
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    @PostConstruct
+    void registerCacheMetrics() {
+        cacheHits = MetricsConfig.cacheCounter(meterRegistry, "idempotency", "hit");
+        cacheMisses = MetricsConfig.cacheCounter(meterRegistry, "idempotency", "miss");
+        meterRegistry.gauge(MetricsConfig.CACHE_SIZE, Tags.of("cache", "idempotency"), recentResponses, responses -> {
+            synchronized (responses) {
+                return responses.size();
+            }
+        });
+    }
+
+    // Either claim the key for this request or report what the earlier request with it produced
+    public Claim claim(String key, String scope) {
+        LocalDateTime now = LocalDateTime.now();
+
+        CachedResponse cached = getCached(key, now);
+        (cached != null ? cacheHits : cacheMisses).increment();
+        if (cached != null) {
+            return cached.scope().equals(scope) ? new Claim(Outcome.REPLAY, cached) : new Claim(Outcome.KEY_REUSED, null);
+        }
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                recordRepository.claim(key, scope, now, now.plusSeconds(ttlSeconds));
+                return new Claim(Outcome.CLAIMED, null);
+            } catch (DataIntegrityViolationException e) {
+                Optional<IdempotencyRecord> existing = recordRepository.findById(key);
+                if (existing.isEmpty()) {
+                    continue; // abandoned between our insert and lookup
+                }
+                IdempotencyRecord record = existing.get();
+                if (record.getExpiresAt().isBefore(now)) {
+                    recordRepository.deleteById(key);
+                    continue;
+                }
+                if (!record.getScope().equals(scope)) {
+                    return new Claim(Outcome.KEY_REUSED, null);
+                }
+                if (record.getStatusCode() == 0) {
+                    // A claim past its lease belongs to a request that crashed or was killed
+                    if (record.getCreatedAt().plusSeconds(claimLeaseSeconds).isBefore(now)
+                            && recordRepository.takeOver(key, record.getCreatedAt(), now) == 1) {
+                        return new Claim(Outcome.CLAIMED, null);
+                    }
+                    return new Claim(Outcome.IN_PROGRESS, null);
+                }
+                CachedResponse response = toCachedResponse(record);
+                putCached(key, response);
+                return new Claim(Outcome.REPLAY, response);
+            }
+        }
+        return new Claim(Outcome.IN_PROGRESS, null);
+    }
+
+    public void complete(String key, String scope, int statusCode, String contentType, byte[] body) {
+        String responseBody = new String(body, StandardCharsets.UTF_8);
+        recordRepository.complete(key, statusCode, contentType, responseBody);
+        putCached(key, new CachedResponse(scope, statusCode, contentType, body, LocalDateTime.now().plusSeconds(ttlSeconds)));
+    }
+
+    // The request failed without a response worth replaying; let the client try again
+    public void abandon(String key) {
+        recordRepository.abandon(key);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.idempotency.cleanup-interval-millis:600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (recentResponses) {
+            recentResponses.values().removeIf(response -> response.expiresAt().isBefore(now));
+        }
+        recordRepository.deleteExpired(now);
+    }
+
+    private CachedResponse getCached(String key, LocalDateTime now) {
+        synchronized (recentResponses) {
+            CachedResponse cached = recentResponses.get(key);
+            if (cached != null && cached.expiresAt().isBefore(now)) {
+                recentResponses.remove(key);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void putCached(String key, CachedResponse response) {
+        synchronized (recentResponses) {
+            recentResponses.put(key, response);
+        }
+    }
+
+    private CachedResponse toCachedResponse(IdempotencyRecord record) {
+        byte[] body = record.getResponseBody() != null ? record.getResponseBody().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        return new CachedResponse(record.getScope(), record.getStatusCode(), record.getContentType(), body, record.getExpiresAt());
+    }
+}
@@ -0,0 +1,41 @@
+package com.inventoryoptimizer;
+
+import jakarta.persistence.*;
+
+// Stock of one product at one store or warehouse; a product's quantityOnHand is the sum of its rows
+@Entity
+public class LocationStock {
+    // Location used when a request does not name one (and for stock that predates locations)
+    public static final String DEFAULT_LOCATION = "MAIN";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private String location;
+
+    private int quantity;
+
+    // Constructors
+    public LocationStock() {}
+
+    public LocationStock(Long productId, String location, int quantity) {
+        this.productId = productId;
+        this.location = location;
+        this.quantity = quantity;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+}
@@ -0,0 +1,37 @@
+package com.inventoryoptimizer;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface LocationStockRepository extends JpaRepository<LocationStock, Long> {
+    
+    // Stock rows of a product across all locations
+    List<LocationStock> findByProductIdOrderByLocation(Long productId);
+    
+    Optional<LocationStock> findByProductIdAndLocation(Long productId, String location);
+    
+    // Load one location's row holding its lock; sales elsewhere are not blocked
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM LocationStock s WHERE s.productId = :productId AND s.location = :location")
+    Optional<LocationStock> findForUpdate(@Param("productId") Long productId, @Param("location") String location);
+    
+    // Total stock of a product over all locations
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM LocationStock s WHERE s.productId = :productId")
+    int sumQuantityByProductId(@Param("productId") Long productId);
+    
+    // Decrement one location in a single UPDATE without reading the row first (reserved stock)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE LocationStock s SET s.quantity = s.quantity - :quantity WHERE s.productId = :productId AND s.location = :location")
+    int decrementStock(@Param("productId") Long productId, @Param("location") String location, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("DELETE FROM LocationStock s WHERE s.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
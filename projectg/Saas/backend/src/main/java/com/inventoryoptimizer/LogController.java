@@ -1,14 +1,23 @@
 package com.inventoryoptimizer;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
 
+// Every log query returns a newest-first slice; pass nextCursor back as cursor for the next one
 @RestController
 @RequestMapping("/api/logs")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
@@ -17,54 +26,120 @@ public class LogController {
     @Autowired
     private LogService logService;
     
-    // Get all logs with pagination
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Get logs with optional combined filters
     @GetMapping
-    public ResponseEntity<Page<LogEntry>> getAllLogs(
-            @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<?> getLogs(
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "50") int size) {
-        Page<LogEntry> logs = logService.getAllLogs(page, size);
-        return ResponseEntity.ok(logs);
+        try {
+            LogFilter filter = new LogFilter(upper(action), upper(entityType), entityId, user, parseTime(from), parseTime(to));
+            return ResponseEntity.ok(logService.queryLogs(filter, cursor, size));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return badRequest(e);
+        }
     }
     
     // Get logs by action type
     @GetMapping("/action/{action}")
-    public ResponseEntity<List<LogEntry>> getLogsByAction(@PathVariable String action) {
-        List<LogEntry> logs = logService.getLogsByAction(action.toUpperCase());
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<?> getLogsByAction(
+            @PathVariable String action,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return getLogs(action, null, null, null, null, null, cursor, size);
     }
     
     // Get logs by entity type
     @GetMapping("/entity/{entityType}")
-    public ResponseEntity<List<LogEntry>> getLogsByEntityType(@PathVariable String entityType) {
-        List<LogEntry> logs = logService.getLogsByEntityType(entityType.toUpperCase());
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<?> getLogsByEntityType(
+            @PathVariable String entityType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return getLogs(null, entityType, null, null, null, null, cursor, size);
     }
     
     // Get logs for a specific entity
     @GetMapping("/entity/{entityType}/{entityId}")
-    public ResponseEntity<List<LogEntry>> getLogsForEntity(
+    public ResponseEntity<?> getLogsForEntity(
             @PathVariable String entityType, 
-            @PathVariable Long entityId) {
-        List<LogEntry> logs = logService.getLogsForEntity(entityType.toUpperCase(), entityId);
-        return ResponseEntity.ok(logs);
+            @PathVariable Long entityId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return getLogs(null, entityType, entityId, null, null, null, cursor, size);
     }
     
     // Get logs by date range
     @GetMapping("/date-range")
-    public ResponseEntity<List<LogEntry>> getLogsByDateRange(
+    public ResponseEntity<?> getLogsByDateRange(
             @RequestParam String startDate,
-            @RequestParam String endDate) {
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
-        LocalDateTime start = LocalDateTime.parse(startDate, formatter);
-        LocalDateTime end = LocalDateTime.parse(endDate, formatter);
-        List<LogEntry> logs = logService.getLogsByDateRange(start, end);
-        return ResponseEntity.ok(logs);
+            @RequestParam String endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return getLogs(null, null, null, null, startDate, endDate, cursor, size);
     }
     
     // Get logs by user
     @GetMapping("/user/{userName}")
-    public ResponseEntity<List<LogEntry>> getLogsByUser(@PathVariable String userName) {
-        List<LogEntry> logs = logService.getLogsByUser(userName);
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<?> getLogsByUser(
+            @PathVariable String userName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return getLogs(null, null, null, userName, null, null, cursor, size);
+    }
+    
+    // Stream every matching log as newline-delimited JSON, newest first
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<?> exportLogs(
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        LogFilter filter;
+        try {
+            filter = new LogFilter(upper(action), upper(entityType), entityId, user, parseTime(from), parseTime(to));
+        } catch (DateTimeParseException e) {
+            return badRequest(e);
+        }
+        
+        StreamingResponseBody body = out -> logService.forEachLog(filter, batch -> writeLines(out, batch));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+    
+    private void writeLines(OutputStream out, Iterable<LogEntry> batch) {
+        try {
+            for (LogEntry entry : batch) {
+                out.write(objectMapper.writeValueAsBytes(entry));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private LocalDateTime parseTime(String value) {
+        return value != null ? LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null;
+    }
+    
+    private String upper(String value) {
+        return value != null ? value.toUpperCase() : null;
+    }
+    
+    private ResponseEntity<Map<String, String>> badRequest(RuntimeException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 }
@@ -0,0 +1,12 @@
+package com.inventoryoptimizer;
+
+import java.time.LocalDateTime;
+
+// Optional filters for log queries; null fields are not applied
+public record LogFilter(String action, String entityType, Long entityId, String userName,
+                        LocalDateTime from, LocalDateTime to) {
+
+    public static LogFilter all() {
+        return new LogFilter(null, null, null, null, null, null);
+    }
+}
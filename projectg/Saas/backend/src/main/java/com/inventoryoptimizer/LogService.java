@@ -1,55 +1,143 @@
 package com.inventoryoptimizer;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Consumer;
 
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @Service
 public class LogService {
+    public static final int MAX_SLICE_SIZE = 500;
+    private static final int EXPORT_BATCH_SIZE = 1000;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("id"));
+
+    // One slice of a keyset-paginated log query; nextCursor is null on the last slice
+    public record LogSlice(List<LogEntry> content, int size, boolean hasNext, String nextCursor) {}
     
     @Autowired
     private LogEntryRepository logEntryRepository;
     
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate readOnlyTransaction;
+    
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
     // Create a new log entry
     public LogEntry createLog(String action, String entityType, Long entityId, String description, String userName) {
         LogEntry logEntry = new LogEntry(action, entityType, entityId, description, userName);
         return logEntryRepository.save(logEntry);
     }
     
-    // Get all logs with pagination
-    public Page<LogEntry> getAllLogs(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return logEntryRepository.findAllByOrderByTimestampDesc(pageable);
+    // Newest-first slice of logs matching the filter, starting after the cursor.
+    // One extra row is read to tell whether a next slice exists, so no COUNT is needed.
+    @Transactional(readOnly = true)
+    public LogSlice queryLogs(LogFilter filter, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        List<LogEntry> rows = fetchAfter(filter, decodeCursor(cursor), limit + 1);
+
+        boolean hasNext = rows.size() > limit;
+        List<LogEntry> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? encodeCursor(content.get(content.size() - 1)) : null;
+        return new LogSlice(content, content.size(), hasNext, nextCursor);
     }
-    
-    // Get logs by action type
-    public List<LogEntry> getLogsByAction(String action) {
-        return logEntryRepository.findByActionOrderByTimestampDesc(action);
+
+    // Walk every matching log in keyset batches, so an export never holds a long-running cursor
+    public void forEachLog(LogFilter filter, Consumer<List<LogEntry>> batchConsumer) {
+        LogEntry after = null;
+        while (true) {
+            // Each batch is its own read-only transaction, so it can be served by a read replica
+            LogEntry cursor = after;
+            List<LogEntry> batch = readOnlyTransaction.execute(status -> fetchAfter(filter, cursor, EXPORT_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                return;
+            }
+            batchConsumer.accept(batch);
+            if (batch.size() < EXPORT_BATCH_SIZE) {
+                return;
+            }
+            after = batch.get(batch.size() - 1);
+        }
     }
-    
-    // Get logs by entity type
-    public List<LogEntry> getLogsByEntityType(String entityType) {
-        return logEntryRepository.findByEntityTypeOrderByTimestampDesc(entityType);
+
+    private List<LogEntry> fetchAfter(LogFilter filter, LogEntry after, int limit) {
+        Specification<LogEntry> spec = matching(filter);
+        if (after != null) {
+            spec = spec.and(olderThan(after.getTimestamp(), after.getId()));
+        }
+        return logEntryRepository.findBy(spec, query -> query.sortBy(NEWEST_FIRST).limit(limit).all());
     }
-    
-    // Get logs for a specific entity
-    public List<LogEntry> getLogsForEntity(String entityType, Long entityId) {
-        return logEntryRepository.findByEntityTypeAndEntityIdOrderByTimestampDesc(entityType, entityId);
+
+    private Specification<LogEntry> matching(LogFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.action() != null) {
+                predicates.add(cb.equal(root.get("action"), filter.action()));
+            }
+            if (filter.entityType() != null) {
+                predicates.add(cb.equal(root.get("entityType"), filter.entityType()));
+            }
+            if (filter.entityId() != null) {
+                predicates.add(cb.equal(root.get("entityId"), filter.entityId()));
+            }
+            if (filter.userName() != null) {
+                predicates.add(cb.equal(root.get("userName"), filter.userName()));
+            }
+            if (filter.from() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("timestamp"), filter.from()));
+            }
+            if (filter.to() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("timestamp"), filter.to()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
     }
-    
-    // Get logs within date range
-    public List<LogEntry> getLogsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return logEntryRepository.findByDateRange(startDate, endDate);
+
+    // (timestamp, id) < (ts, id), written with a plain range on timestamp so the index can seek to it
+    private Specification<LogEntry> olderThan(LocalDateTime timestamp, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("timestamp"), timestamp),
+                cb.or(cb.lessThan(root.get("timestamp"), timestamp), cb.lessThan(root.get("id"), id)));
     }
-    
-    // Get logs by user
-    public List<LogEntry> getLogsByUser(String userName) {
-        return logEntryRepository.findByUserNameOrderByTimestampDesc(userName);
+
+    static String encodeCursor(LogEntry last) {
+        String key = last.getTimestamp() + "_" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static LogEntry decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.lastIndexOf('_');
+            LogEntry position = new LogEntry();
+            position.setTimestamp(LocalDateTime.parse(key.substring(0, separator)));
+            position.setId(Long.valueOf(key.substring(separator + 1)));
+            return position;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid log cursor: " + cursor);
+        }
     }
     
     // Convenience methods for common actions
@@ -65,9 +153,9 @@ public class LogService {
         createLog("DELETE", "PRODUCT", productId, "Deleted product: " + productName, userName);
     }
     
-    public void logStockAdjustment(Long productId, String productName, int oldQuantity, int newQuantity, String userName) {
+    public void logStockAdjustment(Long productId, String productName, String location, int oldQuantity, int newQuantity, String userName) {
         createLog("STOCK_ADJUSTMENT", "PRODUCT", productId, 
-                String.format("Stock adjusted for %s: %d → %d", productName, oldQuantity, newQuantity), userName);
+                String.format("Stock adjusted for %s at %s: %d → %d", productName, location, oldQuantity, newQuantity), userName);
     }
     
     public void logSale(Long saleId, Long productId, String productName, int quantity, String userName) {
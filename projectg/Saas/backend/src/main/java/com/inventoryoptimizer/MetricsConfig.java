@@ -0,0 +1,28 @@
+package com.inventoryoptimizer;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+    // Timer name shared by every @Timed service; class and method are tags on it
+    public static final String SERVICE_TIMER = "inventory.service";
+
+    // Lookups of the in-memory caches, tagged cache=<name> and result=hit|miss; hit ratio is hits over the sum
+    public static final String CACHE_REQUESTS = "inventory.cache.requests";
+    public static final String CACHE_SIZE = "inventory.cache.size";
+
+    // One counter per cache and result, registered on first use and looked up after that
+    static Counter cacheCounter(MeterRegistry meterRegistry, String cache, String result) {
+        return Counter.builder(CACHE_REQUESTS).tag("cache", cache).tag("result", result).register(meterRegistry);
+    }
+
+    // Makes @Timed on service classes record into the registry scraped at /actuator/prometheus
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
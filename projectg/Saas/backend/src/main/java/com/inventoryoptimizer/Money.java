@@ -0,0 +1,49 @@
+package com.inventoryoptimizer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money on long cents for aggregation paths. Amounts enter once via
+ * {@link #ofDecimal}, are summed and multiplied as longs with overflow checks, and leave once
+ * via {@link #toDecimal} at the API boundary. Rounding to the cent is HALF_UP everywhere.
+ */
+public final class Money {
+    public static final int SCALE = 2;
+
+    private Money() {}
+
+    // Cents of a decimal amount; null counts as zero
+    public static long ofDecimal(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long add(long cents, long otherCents) {
+        return Math.addExact(cents, otherCents);
+    }
+
+    public static long times(long cents, long quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+
+    // Cents times a fractional factor (e.g. a forecast quantity), rounded to the cent
+    public static long times(long cents, double factor) {
+        return BigDecimal.valueOf(cents).multiply(BigDecimal.valueOf(factor))
+                .setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // Cents divided by a count (e.g. an average per unit), rounded to the cent
+    public static long divide(long cents, long divisor) {
+        if (divisor == 0) {
+            throw new ArithmeticException("Division of money by zero");
+        }
+        return BigDecimal.valueOf(cents).divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
@@ -0,0 +1,249 @@
+package com.inventoryoptimizer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the monthly partitions of sale_record and log_entry in shape on PostgreSQL: creates
+ * partitions ahead of time and, once a partition is older than its table's retention, exports
+ * it to a gzip NDJSON file under the archive directory and drops it. Archived months can still
+ * be read back with {@link #readArchived}. On databases without partitioning (H2) the scheduled
+ * maintenance does nothing.
+ */
+@Service
+public class PartitionMaintenanceService {
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    public static final List<String> PARTITIONED_TABLES = List.of("sale_record", "log_entry");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final int ARCHIVE_FETCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${inventory.partitions.log-retention-months:12}")
+    private int logRetentionMonths;
+
+    @Value("${inventory.partitions.sale-retention-months:0}")
+    private int saleRetentionMonths;
+
+    @Value("${inventory.partitions.archive-dir:archive}")
+    private String archiveDir;
+
+    private boolean partitioned;
+
+    @PostConstruct
+    void detectPartitioning() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            partitioned = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        }
+    }
+
+    @Scheduled(cron = "${inventory.partitions.maintenance-cron:0 15 2 * * *}")
+    public void maintain() {
+        if (!enabled || !partitioned) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (String table : PARTITIONED_TABLES) {
+            Integer created = jdbcTemplate.queryForObject("SELECT create_monthly_partitions(?, ?, ?)", Integer.class,
+                    table, today.withDayOfMonth(1), today.plusMonths(monthsAhead).withDayOfMonth(1));
+            if (created != null && created > 0) {
+                log.info("Created {} monthly partitions for {}", created, table);
+            }
+
+            int retentionMonths = retentionMonths(table);
+            if (retentionMonths > 0) {
+                YearMonth oldestKept = YearMonth.from(today).minusMonths(retentionMonths);
+                List<YearMonth> detached = listDetachedMonths(table);
+                for (YearMonth month : partitionsOlderThan(listPartitionMonths(table), oldestKept)) {
+                    archiveAndDrop(table, month, true);
+                }
+                // Left behind by a run that detached a month and then failed to archive it
+                for (YearMonth month : partitionsOlderThan(detached, oldestKept)) {
+                    archiveAndDrop(table, month, false);
+                }
+            }
+        }
+    }
+
+    // Partitions whose whole month lies before the oldest month we keep
+    static List<YearMonth> partitionsOlderThan(List<YearMonth> partitions, YearMonth oldestKept) {
+        return partitions.stream().filter(month -> month.isBefore(oldestKept)).sorted().toList();
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(PARTITION_SUFFIX);
+    }
+
+    private List<YearMonth> listPartitionMonths(String table) {
+        return partitionMonths(table, jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ?", String.class, table));
+    }
+
+    // Month tables that are no longer attached to their parent
+    private List<YearMonth> listDetachedMonths(String table) {
+        return partitionMonths(table, jdbcTemplate.queryForList(
+                "SELECT relname FROM pg_class WHERE relkind = 'r' AND NOT relispartition " +
+                "AND relnamespace = current_schema()::regnamespace AND relname LIKE ?", String.class, table + "\\_p%"));
+    }
+
+    private static List<YearMonth> partitionMonths(String table, List<String> names) {
+        String prefix = table + "_p";
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : names) {
+            if (name.startsWith(prefix) && name.length() == prefix.length() + 6) {
+                months.add(YearMonth.parse(name.substring(prefix.length()), PARTITION_SUFFIX));
+            }
+        }
+        return months;
+    }
+
+    // The partition is detached before it is read, so no row can land in it after the export
+    // (late rows for the month go to the DEFAULT partition instead), and it is only dropped once
+    // the archive file is in place. A failed export leaves the detached table for the next run.
+    private void archiveAndDrop(String table, YearMonth month, boolean attached) {
+        String partition = partitionName(table, month);
+        if (attached) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+        }
+        long rows = archiveMonth(table, partition, month);
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        log.info("Archived {} rows of {} to {} and dropped the partition", rows, partition, archiveFile(table, month));
+    }
+
+    // Export one month of a table (read from the given source relation) to its archive file
+    public long archiveMonth(String table, String source, YearMonth month) {
+        Path file = archiveFile(table, month);
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        JdbcTemplate cursor = new JdbcTemplate(dataSource);
+        cursor.setFetchSize(ARCHIVE_FETCH_SIZE);
+
+        // A transaction keeps the PostgreSQL driver on a server-side cursor instead of buffering the month
+        Long rows = new TransactionTemplate(transactionManager).execute(status -> {
+            try {
+                Files.createDirectories(file.getParent());
+                try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                        new GZIPOutputStream(Files.newOutputStream(partial)), StandardCharsets.UTF_8))) {
+                    long[] count = {0};
+                    cursor.query("SELECT * FROM " + source + " WHERE timestamp >= ? AND timestamp < ? ORDER BY timestamp, id",
+                            rs -> {
+                                ResultSetMetaData meta = rs.getMetaData();
+                                Map<String, Object> row = new LinkedHashMap<>();
+                                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                                    Object value = rs.getObject(i);
+                                    row.put(meta.getColumnLabel(i).toLowerCase(),
+                                            value instanceof Timestamp ts ? ts.toLocalDateTime() : value);
+                                }
+                                try {
+                                    writer.write(objectMapper.writeValueAsString(row));
+                                    writer.newLine();
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                                count[0]++;
+                            },
+                            month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+                    return count[0];
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        try {
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows != null ? rows : 0;
+    }
+
+    // Stream archived rows of a table with from <= timestamp < to, oldest first
+    public void readArchived(String table, LocalDateTime from, LocalDateTime to, Consumer<Map<String, Object>> consumer) {
+        if (!PARTITIONED_TABLES.contains(table)) {
+            throw new IllegalArgumentException("No archive for table: " + table);
+        }
+        for (YearMonth month = YearMonth.from(from); !month.atDay(1).atStartOfDay().isAfter(to); month = month.plusMonths(1)) {
+            Path file = archiveFile(table, month);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> row = objectMapper.readValue(line, Map.class);
+                    LocalDateTime timestamp = LocalDateTime.parse(row.get("timestamp").toString());
+                    if (!timestamp.isBefore(from) && timestamp.isBefore(to)) {
+                        consumer.accept(row);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Path archiveFile(String table, YearMonth month) {
+        return Paths.get(archiveDir, table, partitionName(table, month) + ".ndjson.gz");
+    }
+
+    private int retentionMonths(String table) {
+        return "log_entry".equals(table) ? logRetentionMonths : saleRetentionMonths;
+    }
+}
@@ -1,6 +1,8 @@
 package com.inventoryoptimizer;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Formula;
+
 import java.math.BigDecimal;
 
 @Entity
@@ -11,7 +13,11 @@ public class Product {
 
     private String name;
     private String sku;
+    
+    // Sum of the per-location stock rows; stock itself is changed through LocationStock
+    @Formula("(SELECT COALESCE(SUM(ls.quantity), 0) FROM location_stock ls WHERE ls.product_id = id)")
     private int quantityOnHand;
+    
     private int lowStockThreshold = 10; // default threshold
     
     @Column(precision = 10, scale = 2)
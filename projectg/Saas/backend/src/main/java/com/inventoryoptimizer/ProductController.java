@@ -2,10 +2,13 @@ package com.inventoryoptimizer;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +22,15 @@ public class ProductController {
     
     @Autowired
     private SaleRecordRepository saleRecordRepository;
+    
+    @Autowired
+    private ReservationService reservationService;
+    
+    @Autowired
+    private StockLedgerService stockLedgerService;
+    
+    @Autowired
+    private RequestCoalescer requestCoalescer;
 
     @GetMapping
     public List<Product> getAllProducts() {
@@ -82,28 +94,59 @@ public class ProductController {
     
     // Add stock endpoint
     @PostMapping("/{id}/add-stock")
-    public ResponseEntity<Product> addStock(@PathVariable Long id, @RequestBody Map<String, Integer> request) {
+    public ResponseEntity<Product> addStock(@PathVariable Long id, @RequestBody Map<String, Object> request) {
         try {
-            Integer quantity = request.get("quantity");
+            Integer quantity = request.get("quantity") != null ? Integer.valueOf(request.get("quantity").toString()) : null;
             if (quantity == null || quantity <= 0) {
                 return ResponseEntity.badRequest().build();
             }
-            Product updatedProduct = productService.addStock(id, quantity);
+            String location = request.get("location") != null ? request.get("location").toString() : LocationStock.DEFAULT_LOCATION;
+            Product updatedProduct = productService.addStock(id, quantity, location);
             return ResponseEntity.ok(updatedProduct);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    // Get stock per location
+    @GetMapping("/{id}/locations")
+    public ResponseEntity<List<LocationStock>> getLocationStock(@PathVariable Long id) {
+        if (productService.getProductById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(productService.getLocationStock(id));
+    }
+    
+    // Get stock as it was at a point in time, from the stock ledger
+    @GetMapping("/{id}/stock-at")
+    public ResponseEntity<Map<String, Object>> getStockAt(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime time) {
+        if (productService.getProductById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(stockLedgerService.getStockAt(id, time));
+    }
+    
+    // Get stock available to sell (on hand minus open reservations)
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Map<String, Object>> getAvailability(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(reservationService.getAvailability(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     // Get product revenue information
     @GetMapping("/{id}/revenue")
     public ResponseEntity<Map<String, Object>> getProductRevenue(@PathVariable Long id) {
         try {
-            Double totalRevenue = saleRecordRepository.getTotalRevenueByProductId(id);
+            BigDecimal totalRevenue = saleRecordRepository.getTotalRevenueByProductId(id);
             Integer totalQuantitySold = saleRecordRepository.getTotalQuantitySoldByProductId(id);
             
             Map<String, Object> revenue = new HashMap<>();
-            revenue.put("totalRevenue", totalRevenue != null ? totalRevenue : 0.0);
+            revenue.put("totalRevenue", Money.toDecimal(Money.ofDecimal(totalRevenue)));
             revenue.put("totalQuantitySold", totalQuantitySold != null ? totalQuantitySold : 0);
             
             return ResponseEntity.ok(revenue);
@@ -157,7 +200,7 @@ public class ProductController {
     @GetMapping("/stock-investment")
     public ResponseEntity<Map<String, Object>> getStockInvestment() {
         try {
-            Map<String, Object> investment = productService.calculateStockInvestment();
+            Map<String, Object> investment = requestCoalescer.coalesce("stock-investment", productService::calculateStockInvestment);
             return ResponseEntity.ok(investment);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -1,15 +1,21 @@
 package com.inventoryoptimizer;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @Service
 public class ProductService {
     @Autowired
@@ -18,8 +24,30 @@ public class ProductService {
     @Autowired
     private SaleRecordRepository saleRecordRepository;
     
+    @Autowired
+    private LocationStockRepository locationStockRepository;
+    
     @Autowired
     private LogService logService;
+    
+    @Autowired
+    private StockLedgerService stockLedgerService;
+    
+    @Autowired
+    private SalesColumnStore salesColumnStore;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @Autowired
+    private SalesRankingService salesRankingService;
+    
+    @Autowired
+    private CustomerService customerService;
+    
+    @Autowired
+    @Lazy
+    private ReservationService reservationService;
 
     public List<Product> getAllProducts() {
         return productRepository.findAll();
@@ -29,9 +57,24 @@ public class ProductService {
         return productRepository.findById(id);
     }
 
+    @Transactional
     public Product saveProduct(Product product) {
         boolean isNew = product.getId() == null;
+        
+        // quantityOnHand is the sum over locations; a changed total is applied to the default location
+        int requestedQuantity = product.getQuantityOnHand();
         Product savedProduct = productRepository.save(product);
+        int currentQuantity = isNew ? 0 : locationStockRepository.sumQuantityByProductId(savedProduct.getId());
+        if (isNew || requestedQuantity != currentQuantity) {
+            LocationStock stock = lockLocation(savedProduct.getId(), LocationStock.DEFAULT_LOCATION);
+            stock.setQuantity(stock.getQuantity() + requestedQuantity - currentQuantity);
+            locationStockRepository.save(stock);
+            if (requestedQuantity != currentQuantity) {
+                stockLedgerService.record(savedProduct.getId(), LocationStock.DEFAULT_LOCATION, requestedQuantity - currentQuantity,
+                        isNew ? StockMovement.OPENING : StockMovement.ADJUSTMENT);
+            }
+        }
+        savedProduct.setQuantityOnHand(requestedQuantity);
         
         // Log the action
         if (isNew) {
@@ -65,50 +108,146 @@ public class ProductService {
         // Log before deletion
         logService.logProductDeleted(id, product.getName(), "system");
         
+        locationStockRepository.deleteByProductId(id);
         productRepository.deleteById(id);
     }
     
+    // Stock of a product per location
+    public List<LocationStock> getLocationStock(Long productId) {
+        return locationStockRepository.findByProductIdOrderByLocation(productId);
+    }
+    
     // New method to add stock
     public Product addStock(Long productId, int quantity) {
-        Optional<Product> productOpt = productRepository.findById(productId);
-        if (productOpt.isEmpty()) {
-            throw new RuntimeException("Product not found with id: " + productId);
-        }
+        return addStock(productId, quantity, LocationStock.DEFAULT_LOCATION);
+    }
+    
+    // Receive stock at one location; only that location's row is locked
+    @Transactional
+    public Product addStock(Long productId, int quantity, String location) {
+        Product product = findProduct(productId);
         
-        Product product = productOpt.get();
-        int oldQuantity = product.getQuantityOnHand();
-        product.setQuantityOnHand(oldQuantity + quantity);
-        Product savedProduct = productRepository.save(product);
+        LocationStock stock = lockLocation(productId, location);
+        int oldQuantity = stock.getQuantity();
+        stock.setQuantity(oldQuantity + quantity);
+        locationStockRepository.save(stock);
+        product.setQuantityOnHand(product.getQuantityOnHand() + quantity);
+        stockLedgerService.record(productId, location, quantity, StockMovement.RECEIPT);
         
         // Log the stock adjustment
-        logService.logStockAdjustment(productId, product.getName(), oldQuantity, 
+        logService.logStockAdjustment(productId, product.getName(), location, oldQuantity, 
                                     oldQuantity + quantity, "system");
         
-        return savedProduct;
+        return product;
     }
     
     // Method to reduce stock (for sales)
     public Product reduceStock(Long productId, int quantity) {
-        Optional<Product> productOpt = productRepository.findById(productId);
-        if (productOpt.isEmpty()) {
-            throw new RuntimeException("Product not found with id: " + productId);
-        }
+        return reduceStock(productId, quantity, LocationStock.DEFAULT_LOCATION);
+    }
+    
+    // Reduce stock at one location; sales at other locations are not blocked
+    @Transactional
+    public Product reduceStock(Long productId, int quantity, String location) {
+        Product product = findProduct(productId);
         
-        Product product = productOpt.get();
-        int oldQuantity = product.getQuantityOnHand();
+        LocationStock stock = lockLocation(productId, location);
+        int oldQuantity = stock.getQuantity();
         
-        if (oldQuantity < quantity) {
-            throw new RuntimeException("Insufficient stock. Available: " + oldQuantity + ", Requested: " + quantity);
+        // Stock held by open reservations is not available to other sales
+        int available = oldQuantity - reservationService.getReservedQuantity(productId, location);
+        if (available < quantity) {
+            throw new RuntimeException("Insufficient stock. Available: " + available + ", Requested: " + quantity);
         }
         
-        product.setQuantityOnHand(oldQuantity - quantity);
-        Product savedProduct = productRepository.save(product);
+        stock.setQuantity(oldQuantity - quantity);
+        locationStockRepository.save(stock);
+        product.setQuantityOnHand(product.getQuantityOnHand() - quantity);
         
         // Log the stock adjustment
-        logService.logStockAdjustment(productId, product.getName(), oldQuantity, 
+        logService.logStockAdjustment(productId, product.getName(), location, oldQuantity, 
                                     oldQuantity - quantity, "system");
         
-        return savedProduct;
+        return product;
+    }
+    
+    // Reduce stock for a combined batch of sales at one location with one row lock and one stock UPDATE.
+    // Sales are honoured in arrival order; those that no longer fit are rejected individually.
+    @Transactional
+    public Product reduceStockCombined(Long productId, String location, List<SaleCombiner.PendingSale> batch) {
+        Product product = findProduct(productId);
+        
+        LocationStock stock = lockLocation(productId, location);
+        int oldQuantity = stock.getQuantity();
+        int remaining = oldQuantity;
+        int available = oldQuantity - reservationService.getReservedQuantity(productId, location);
+        
+        for (SaleCombiner.PendingSale sale : batch) {
+            if (available < sale.quantity) {
+                sale.reject(new RuntimeException("Insufficient stock. Available: " + available + ", Requested: " + sale.quantity));
+            } else {
+                available -= sale.quantity;
+                remaining -= sale.quantity;
+            }
+        }
+        
+        if (remaining != oldQuantity) {
+            stock.setQuantity(remaining);
+            locationStockRepository.save(stock);
+            product.setQuantityOnHand(product.getQuantityOnHand() - (oldQuantity - remaining));
+            
+            // Log the stock adjustment
+            logService.logStockAdjustment(productId, product.getName(), location, oldQuantity, remaining, "system");
+        }
+        
+        return product;
+    }
+    
+    // Take stock that a confirmed reservation already set aside: no availability re-check
+    @Transactional
+    public Product consumeReservedStock(Long productId, String location, int quantity) {
+        if (locationStockRepository.decrementStock(productId, location, quantity) == 0) {
+            throw new RuntimeException("No stock row for product " + productId + " at location " + location);
+        }
+        
+        Product product = findProduct(productId);
+        int newQuantity = locationStockRepository.findByProductIdAndLocation(productId, location).get().getQuantity();
+        
+        // Log the stock adjustment
+        logService.logStockAdjustment(productId, product.getName(), location, newQuantity + quantity, 
+                                    newQuantity, "system");
+        
+        return product;
+    }
+    
+    private Product findProduct(Long productId) {
+        Optional<Product> productOpt = productRepository.findById(productId);
+        if (productOpt.isEmpty()) {
+            throw new RuntimeException("Product not found with id: " + productId);
+        }
+        return productOpt.get();
+    }
+    
+    // Lock a product's stock row at a location, starting an empty one for a new location
+    private LocationStock lockLocation(Long productId, String location) {
+        return locationStockRepository.findForUpdate(productId, location)
+                .orElseGet(() -> new LocationStock(productId, location, 0));
+    }
+    
+    // Take imported historical sales off current stock as one adjustment per product and location.
+    // The sales already happened, so stock may go negative rather than the import being refused.
+    @Transactional
+    public void applyImportedSales(Long productId, String location, int quantity) {
+        Product product = findProduct(productId);
+        
+        LocationStock stock = lockLocation(productId, location);
+        int oldQuantity = stock.getQuantity();
+        stock.setQuantity(oldQuantity - quantity);
+        locationStockRepository.save(stock);
+        product.setQuantityOnHand(product.getQuantityOnHand() - quantity);
+        stockLedgerService.record(productId, location, -quantity, StockMovement.ADJUSTMENT);
+        
+        logService.logStockAdjustment(productId, product.getName(), location, oldQuantity, oldQuantity - quantity, "system");
     }
     
     // Force delete product and all related data
@@ -128,9 +267,24 @@ public class ProductService {
             saleRecordRepository.deleteAll(salesRecords);
             logService.createLog("DELETE_SALES", "SaleRecord", null, 
                                "Deleted " + salesRecords.size() + " sales records for product: " + productName, "system");
+            // The column store is append-only, so it is rebuilt without the deleted sales
+            salesColumnStore.rebuildAfterCommit();
+            salesRollupService.deleteProduct(id);
+            salesRankingService.evictAllAfterCommit();
+            
+            // Customer aggregates are recomputed from the remaining sales of the affected customers
+            Set<String> customerKeys = new HashSet<>();
+            for (SaleRecord sale : salesRecords) {
+                if (sale.getCustomerKey() != null) {
+                    customerKeys.add(sale.getCustomerKey());
+                }
+            }
+            saleRecordRepository.flush();
+            customerService.recomputeCustomers(customerKeys);
         }
         
         // Now delete the product
+        locationStockRepository.deleteByProductId(id);
         productRepository.deleteById(id);
         
         // Log the deletion
@@ -138,41 +292,48 @@ public class ProductService {
     }
     
     // Calculate total stock investment
+    @Transactional(readOnly = true)
     public Map<String, Object> calculateStockInvestment() {
         List<Product> products = productRepository.findAll();
-        List<SaleRecord> allSales = saleRecordRepository.findAll();
+        long[] soldByProduct = salesColumnStore.quantityByProduct();
         
         Map<String, Object> result = new HashMap<>();
         
         // Calculate current stock investment (cost price * current quantity)
-        double currentStockInvestment = products.stream()
-            .filter(p -> p.getCostPrice() != null && p.getQuantityOnHand() > 0)
-            .mapToDouble(p -> p.getCostPrice().doubleValue() * p.getQuantityOnHand())
-            .sum();
+        long currentStockInvestment = 0;
+        for (Product product : products) {
+            if (product.getCostPrice() != null && product.getQuantityOnHand() > 0) {
+                currentStockInvestment = Money.add(currentStockInvestment,
+                        Money.times(Money.ofDecimal(product.getCostPrice()), product.getQuantityOnHand()));
+            }
+        }
         
         // Calculate sold stock investment (cost price * quantity sold)
-        double soldStockInvestment = 0.0;
-        for (SaleRecord sale : allSales) {
-            if (sale.getProduct() != null && sale.getProduct().getCostPrice() != null) {
-                soldStockInvestment += sale.getProduct().getCostPrice().doubleValue() * sale.getQuantitySold();
+        long soldStockInvestment = 0;
+        for (Product product : products) {
+            int id = Math.toIntExact(product.getId());
+            if (product.getCostPrice() != null && id < soldByProduct.length) {
+                soldStockInvestment = Money.add(soldStockInvestment,
+                        Money.times(Money.ofDecimal(product.getCostPrice()), soldByProduct[id]));
             }
         }
         
         // Total investment = current stock + sold stock
-        double totalInvestment = currentStockInvestment + soldStockInvestment;
+        long totalInvestment = Money.add(currentStockInvestment, soldStockInvestment);
         
         // Calculate total units (current + sold)
         int currentUnits = products.stream().mapToInt(Product::getQuantityOnHand).sum();
-        int soldUnits = allSales.stream().mapToInt(SaleRecord::getQuantitySold).sum();
+        int soldUnits = (int) Arrays.stream(soldByProduct).sum();
         int totalUnits = currentUnits + soldUnits;
         
-        result.put("currentStockInvestment", currentStockInvestment);
-        result.put("soldStockInvestment", soldStockInvestment);
-        result.put("totalInvestment", totalInvestment);
+        // Money is converted back to decimals only here, at the API boundary
+        result.put("currentStockInvestment", Money.toDecimal(currentStockInvestment));
+        result.put("soldStockInvestment", Money.toDecimal(soldStockInvestment));
+        result.put("totalInvestment", Money.toDecimal(totalInvestment));
         result.put("currentUnits", currentUnits);
         result.put("soldUnits", soldUnits);
         result.put("totalUnits", totalUnits);
-        result.put("averageCostPerUnit", totalUnits > 0 ? totalInvestment / totalUnits : 0.0);
+        result.put("averageCostPerUnit", Money.toDecimal(totalUnits > 0 ? Money.divide(totalInvestment, totalUnits) : 0));
         
         return result;
     }
@@ -0,0 +1,112 @@
+package com.inventoryoptimizer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Quantile sketch over non-negative values with a relative-error guarantee (DDSketch).
+ * Values fall into logarithmic buckets of ratio gamma = (1 + a) / (1 - a), so any quantile
+ * is answered within a relative error of a of the true value. The bucket count grows with
+ * the logarithm of the value range, not with the number of values, and sketches with the
+ * same accuracy merge by adding bucket counts.
+ */
+class QuantileSketch {
+    static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long zeroCount;
+    private long count;
+
+    QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+    }
+
+    double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    long count() {
+        return count;
+    }
+
+    void add(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("QuantileSketch only holds non-negative values: " + value);
+        }
+        if (value == 0) {
+            zeroCount++;
+        } else {
+            buckets.merge((int) Math.ceil(Math.log(value) / logGamma), 1L, Long::sum);
+        }
+        count++;
+    }
+
+    void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches of accuracy " + other.relativeAccuracy + " into " + relativeAccuracy);
+        }
+        for (Map.Entry<Integer, Long> bucket : other.buckets.entrySet()) {
+            buckets.merge(bucket.getKey(), bucket.getValue(), Long::sum);
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    // Value at quantile q in [0, 1]; NaN when the sketch is empty
+    double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("quantile must be in [0, 1]: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                // Midpoint of the bucket in relative terms: within relativeAccuracy of every value in it
+                return 2 * Math.exp(bucket.getKey() * logGamma) / (Math.exp(logGamma) + 1);
+            }
+        }
+        return 2 * Math.exp(buckets.lastKey() * logGamma) / (Math.exp(logGamma) + 1);
+    }
+
+    byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 8 + 4 + buckets.size() * 12);
+        buffer.putDouble(relativeAccuracy).putLong(zeroCount).putInt(buckets.size());
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            buffer.putInt(bucket.getKey()).putLong(bucket.getValue());
+        }
+        return buffer.array();
+    }
+
+    static QuantileSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        QuantileSketch sketch = new QuantileSketch(buffer.getDouble());
+        sketch.zeroCount = buffer.getLong();
+        sketch.count = sketch.zeroCount;
+        int size = buffer.getInt();
+        for (int i = 0; i < size; i++) {
+            int index = buffer.getInt();
+            long bucketCount = buffer.getLong();
+            sketch.buckets.put(index, bucketCount);
+            sketch.count += bucketCount;
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,81 @@
+package com.inventoryoptimizer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+// R2DBC pool behind the /api/reactive read endpoints. It points at the same database as
+// spring.datasource.url unless inventory.reactive.r2dbc.url says otherwise (e.g. a read replica).
+// The pool is not a ConnectionFactory bean: Boot's JDBC DataSource auto-configuration backs off
+// when one exists. Writes never use it, so there is no reactive transaction manager either.
+@Configuration
+@ConditionalOnProperty(name = "inventory.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveReadConfig implements DisposableBean {
+
+    private ConnectionPool pool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(
+            MeterRegistry meterRegistry,
+            @Value("${inventory.reactive.r2dbc.url:}") String r2dbcUrl,
+            @Value("${spring.datasource.url}") String jdbcUrl,
+            @Value("${inventory.reactive.r2dbc.username:${spring.datasource.username:}}") String username,
+            @Value("${inventory.reactive.r2dbc.password:${spring.datasource.password:}}") String password,
+            @Value("${inventory.reactive.pool.max-size:10}") int maxSize,
+            @Value("${inventory.reactive.pool.max-acquire-time-millis:5000}") long maxAcquireTimeMillis) {
+        ConnectionFactoryOptions options = r2dbcUrl.isBlank() ? fromJdbcUrl(jdbcUrl) : ConnectionFactoryOptions.parse(r2dbcUrl);
+        ConnectionFactory connectionFactory = ConnectionFactories.get(options.mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+
+        // Callers beyond max-size wait for a connection without holding a thread
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("reactive")
+                .initialSize(1)
+                .maxSize(maxSize)
+                .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMillis))
+                .build());
+        // r2dbc_pool_* gauges (acquired, idle, pending) tagged name=reactive
+        new ConnectionPoolMetrics(pool, "reactive", Tags.empty()).bindTo(meterRegistry);
+        return DatabaseClient.create(pool);
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+
+    // jdbc:postgresql://host:port/db maps directly; H2 URLs have no authority part, so the
+    // mode (mem/file) and the rest of the URL are passed to the driver as protocol and database
+    static ConnectionFactoryOptions fromJdbcUrl(String jdbcUrl) {
+        if (jdbcUrl.startsWith("jdbc:h2:")) {
+            String h2Url = jdbcUrl.substring("jdbc:h2:".length());
+            int separator = h2Url.indexOf(':');
+            return ConnectionFactoryOptions.builder()
+                    .option(ConnectionFactoryOptions.DRIVER, "h2")
+                    .option(ConnectionFactoryOptions.PROTOCOL, h2Url.substring(0, separator))
+                    .option(ConnectionFactoryOptions.DATABASE, h2Url.substring(separator + 1))
+                    .build();
+        }
+        if (!jdbcUrl.startsWith("jdbc:")) {
+            throw new IllegalArgumentException("Cannot derive an R2DBC URL from " + jdbcUrl + "; set inventory.reactive.r2dbc.url");
+        }
+        return ConnectionFactoryOptions.parse("r2dbc:" + jdbcUrl.substring("jdbc:".length()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.inventoryoptimizer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+// Non-blocking mirrors of the dashboard reads. Lists stream as NDJSON, one object per line,
+// written as the database produces rows; writes stay on /api/products and /api/sales.
+@RestController
+@RequestMapping("/api/reactive")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+@ConditionalOnProperty(name = "inventory.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveReadController {
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private ReactiveReadService reactiveReadService;
+
+    // Same products as GET /api/products
+    @GetMapping(value = "/products", produces = NDJSON)
+    public Flux<Product> getProducts() {
+        return reactiveReadService.getProducts();
+    }
+
+    // Newest sales first; GET /api/sales/recent is the limit=10 case
+    @GetMapping(value = "/sales/recent", produces = NDJSON)
+    public Flux<SaleRecord> getRecentSales(@RequestParam(defaultValue = "10") int limit) {
+        return reactiveReadService.getRecentSales(limit);
+    }
+
+    @GetMapping("/sales/revenue/total")
+    public Mono<Map<String, Object>> getTotalRevenue() {
+        return reactiveReadService.getTotalRevenue();
+    }
+
+    // Filters and cursor as in GET /api/logs; every line carries the cursor to resume after it
+    @GetMapping(value = "/logs", produces = NDJSON)
+    public ResponseEntity<Flux<?>> getLogs(
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            LogFilter filter = new LogFilter(upper(action), upper(entityType), entityId, user, parseTime(from), parseTime(to));
+            return ResponseEntity.ok(reactiveReadService.getLogs(filter, cursor, size));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Flux.just(Map.of("error", e.getMessage())));
+        }
+    }
+
+    private LocalDateTime parseTime(String value) {
+        return value != null ? LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null;
+    }
+
+    private String upper(String value) {
+        return value != null ? value.toUpperCase() : null;
+    }
+}
@@ -0,0 +1,167 @@
+package com.inventoryoptimizer;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Dashboard reads over R2DBC. Rows are emitted as the subscriber asks for them, so a slow client
+ * throttles its own query instead of piling rows up in memory, and no request thread or JDBC
+ * connection is held while a response is in flight. Results have the same JSON shape as the
+ * servlet endpoints they mirror; the write path stays on JPA.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveReadService {
+
+    // A log row plus the cursor that resumes the query right after it
+    public record LogLine(LogEntry log, String cursor) {}
+
+    @Autowired
+    private DatabaseClient reactiveDatabaseClient;
+
+    @Autowired
+    private SaleRecordService saleRecordService;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Value("${inventory.reactive.max-rows:10000}")
+    private int maxRows;
+
+    public Flux<Product> getProducts() {
+        return reactiveDatabaseClient.sql("SELECT p.id, p.name, p.sku, p.low_stock_threshold, p.price, p.cost_price, p.discontinued, " +
+                        "COALESCE((SELECT SUM(ls.quantity) FROM location_stock ls WHERE ls.product_id = p.id), 0) AS quantity_on_hand " +
+                        "FROM product p ORDER BY p.id")
+                .map(ReactiveReadService::toProduct)
+                .all();
+    }
+
+    // Newest sales first, each with its product like GET /api/sales/recent
+    public Flux<SaleRecord> getRecentSales(int limit) {
+        return reactiveDatabaseClient.sql("SELECT s.id, s.quantity_sold, s.timestamp, s.unit_price, s.total_amount, s.customer_name, " +
+                        "s.notes, s.location, p.id AS product_id, p.name, p.sku, p.low_stock_threshold, p.price, p.cost_price, p.discontinued, " +
+                        "COALESCE((SELECT SUM(ls.quantity) FROM location_stock ls WHERE ls.product_id = p.id), 0) AS quantity_on_hand " +
+                        "FROM sale_record s JOIN product p ON p.id = s.product_id " +
+                        "ORDER BY s.timestamp DESC, s.id DESC LIMIT :limit")
+                .bind("limit", clamp(limit))
+                .map(row -> {
+                    SaleRecord sale = new SaleRecord();
+                    sale.setId(row.get("id", Long.class));
+                    sale.setQuantitySold(row.get("quantity_sold", Integer.class));
+                    sale.setTimestamp(row.get("timestamp", LocalDateTime.class));
+                    sale.setUnitPrice(row.get("unit_price", BigDecimal.class));
+                    sale.setTotalAmount(row.get("total_amount", BigDecimal.class));
+                    sale.setCustomerName(row.get("customer_name", String.class));
+                    sale.setNotes(row.get("notes", String.class));
+                    sale.setLocation(row.get("location", String.class));
+                    Product product = toProduct(row);
+                    product.setId(row.get("product_id", Long.class));
+                    sale.setProduct(product);
+                    return sale;
+                })
+                .all();
+    }
+
+    // Totals come from the in-memory column store, not a table scan; the catch-up read it may do
+    // runs on the bounded elastic pool rather than on a driver thread
+    public Mono<Map<String, Object>> getTotalRevenue() {
+        return Mono.fromCallable(() -> requestCoalescer.coalesce("revenue-total", saleRecordService::getTotalRevenue))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Newest-first logs after the cursor (same cursor format as GET /api/logs)
+    public Flux<LogLine> getLogs(LogFilter filter, String cursor, int size) {
+        LogEntry after = LogService.decodeCursor(cursor);
+
+        StringBuilder sql = new StringBuilder("SELECT id, action, entity_type, entity_id, description, user_name, timestamp, details " +
+                "FROM log_entry WHERE 1 = 1");
+        if (filter.action() != null) {
+            sql.append(" AND action = :action");
+        }
+        if (filter.entityType() != null) {
+            sql.append(" AND entity_type = :entityType");
+        }
+        if (filter.entityId() != null) {
+            sql.append(" AND entity_id = :entityId");
+        }
+        if (filter.userName() != null) {
+            sql.append(" AND user_name = :userName");
+        }
+        if (filter.from() != null) {
+            sql.append(" AND timestamp >= :from");
+        }
+        if (filter.to() != null) {
+            sql.append(" AND timestamp <= :to");
+        }
+        if (after != null) {
+            // Same keyset predicate as LogService, so the (timestamp, id) index can seek to the cursor
+            sql.append(" AND timestamp <= :afterTime AND (timestamp < :afterTime OR id < :afterId)");
+        }
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT :limit");
+
+        DatabaseClient.GenericExecuteSpec spec = reactiveDatabaseClient.sql(sql.toString()).bind("limit", clamp(size));
+        if (filter.action() != null) {
+            spec = spec.bind("action", filter.action());
+        }
+        if (filter.entityType() != null) {
+            spec = spec.bind("entityType", filter.entityType());
+        }
+        if (filter.entityId() != null) {
+            spec = spec.bind("entityId", filter.entityId());
+        }
+        if (filter.userName() != null) {
+            spec = spec.bind("userName", filter.userName());
+        }
+        if (filter.from() != null) {
+            spec = spec.bind("from", filter.from());
+        }
+        if (filter.to() != null) {
+            spec = spec.bind("to", filter.to());
+        }
+        if (after != null) {
+            spec = spec.bind("afterTime", after.getTimestamp()).bind("afterId", after.getId());
+        }
+
+        return spec.map(row -> {
+                    LogEntry entry = new LogEntry();
+                    entry.setId(row.get("id", Long.class));
+                    entry.setAction(row.get("action", String.class));
+                    entry.setEntityType(row.get("entity_type", String.class));
+                    entry.setEntityId(row.get("entity_id", Long.class));
+                    entry.setDescription(row.get("description", String.class));
+                    entry.setUserName(row.get("user_name", String.class));
+                    entry.setTimestamp(row.get("timestamp", LocalDateTime.class));
+                    entry.setDetails(row.get("details", String.class));
+                    return new LogLine(entry, LogService.encodeCursor(entry));
+                })
+                .all();
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, maxRows));
+    }
+
+    private static Product toProduct(Readable row) {
+        Product product = new Product();
+        product.setId(row.get("id", Long.class));
+        product.setName(row.get("name", String.class));
+        product.setSku(row.get("sku", String.class));
+        product.setLowStockThreshold(row.get("low_stock_threshold", Integer.class));
+        product.setPrice(row.get("price", BigDecimal.class));
+        product.setCostPrice(row.get("cost_price", BigDecimal.class));
+        product.setDiscontinued(row.get("discontinued", Boolean.class));
+        product.setQuantityOnHand(row.get("quantity_on_hand", Number.class).intValue());
+        return product;
+    }
+}
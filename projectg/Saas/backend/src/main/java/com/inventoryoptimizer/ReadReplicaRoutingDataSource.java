@@ -0,0 +1,80 @@
+package com.inventoryoptimizer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and everything else to the
+ * primary. It has to sit behind a LazyConnectionDataSourceProxy: the transaction's read-only flag
+ * is only set after the transaction manager has asked for its connection, so the target is
+ * picked when the first statement runs. Reads fall back to the primary while the replica is
+ * unreachable or lagging more than the configured limit.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final DataSource replica;
+    private volatile boolean replicaAvailable = true;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        this.replica = replica;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return replicaAvailable && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    void setReplicaAvailable(boolean available) {
+        if (available != replicaAvailable) {
+            if (available) {
+                log.info("Read replica is back within its lag limit; routing read-only transactions to it");
+            } else {
+                log.warn("Read replica unavailable or lagging; routing read-only transactions to the primary");
+            }
+        }
+        replicaAvailable = available;
+    }
+
+    // Probe the replica and take it out of rotation if it is down or more than maxLagSeconds behind.
+    // Replay lag is only known for PostgreSQL streaming replicas; other databases just need to answer.
+    public void checkReplicaLag(long maxLagSeconds) {
+        try (Connection connection = replica.getConnection()) {
+            boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+            if (!postgres || maxLagSeconds <= 0) {
+                setReplicaAvailable(connection.isValid(5));
+                return;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(
+                         "SELECT CASE WHEN pg_is_in_recovery() " +
+                         "THEN COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) ELSE 0 END")) {
+                rs.next();
+                double lagSeconds = rs.getDouble(1);
+                setReplicaAvailable(lagSeconds <= maxLagSeconds);
+            }
+        } catch (SQLException e) {
+            log.warn("Read replica check failed: {}", e.getMessage());
+            setReplicaAvailable(false);
+        }
+    }
+}
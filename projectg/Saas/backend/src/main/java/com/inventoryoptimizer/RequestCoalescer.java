@@ -0,0 +1,82 @@
+package com.inventoryoptimizer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for read endpoints: while a computation for an endpoint and parameter set is
+ * running, identical calls wait for it and get the same result (or exception) instead of
+ * starting their own. Nothing is kept once it finishes, so caching stays with the services.
+ * Callers share the result object and must not modify it.
+ */
+@Component
+public class RequestCoalescer {
+    public static final String METRIC = "inventory.coalescing.requests";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    // Run the computation, or join an identical one already in flight. Coalesce outside any
+    // transaction, so waiting callers do not hold database connections.
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(String endpoint, Supplier<T> computation, Object... params) {
+        List<Object> key = new ArrayList<>(params.length + 1);
+        key.add(endpoint);
+        Collections.addAll(key, params);
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            counter(endpoint, "follower").increment();
+            return (T) join(running);
+        }
+
+        counter(endpoint, "leader").increment();
+        try {
+            T result = computation.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String endpoint, String role) {
+        return counters.computeIfAbsent(endpoint + "/" + role, name -> Counter.builder(METRIC)
+                .description("Read requests that ran a computation (leader) or shared one in flight (follower)")
+                .tag("endpoint", endpoint)
+                .tag("role", role)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,89 @@
+package com.inventoryoptimizer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/api/reservations")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class ReservationController {
+    @Autowired
+    private ReservationService reservationService;
+
+    // Hold stock for a checkout
+    @PostMapping
+    public ResponseEntity<?> createHold(@RequestBody Map<String, Object> holdData) {
+        try {
+            Long productId = Long.valueOf(holdData.get("productId").toString());
+            int quantity = Integer.parseInt(holdData.get("quantity").toString());
+            String location = holdData.get("location") != null ? holdData.get("location").toString() : LocationStock.DEFAULT_LOCATION;
+            
+            Long ttlSeconds = null;
+            if (holdData.get("ttlSeconds") != null) {
+                ttlSeconds = Long.valueOf(holdData.get("ttlSeconds").toString());
+            }
+            
+            return ResponseEntity.ok(reservationService.createHold(productId, location, quantity, ttlSeconds));
+        } catch (RuntimeException e) {
+            return error(HttpStatus.BAD_REQUEST, e);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StockReservation> getReservation(@PathVariable Long id) {
+        return reservationService.getReservation(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Convert a hold into a sale (payment succeeded)
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<?> confirmHold(@PathVariable Long id, @RequestBody(required = false) Map<String, Object> saleData) {
+        try {
+            BigDecimal unitPrice = null;
+            String customerName = null;
+            String notes = null;
+            if (saleData != null) {
+                if (saleData.get("unitPrice") != null) {
+                    unitPrice = new BigDecimal(saleData.get("unitPrice").toString());
+                }
+                customerName = saleData.get("customerName") != null ? saleData.get("customerName").toString() : null;
+                notes = saleData.get("notes") != null ? saleData.get("notes").toString() : null;
+            }
+            
+            return ResponseEntity.ok(reservationService.confirmHold(id, unitPrice, customerName, notes));
+        } catch (IllegalStateException e) {
+            return error(HttpStatus.CONFLICT, e);
+        } catch (NoSuchElementException e) {
+            return error(HttpStatus.NOT_FOUND, e);
+        } catch (IllegalArgumentException e) {
+            // Includes NumberFormatException from a malformed unitPrice
+            return error(HttpStatus.BAD_REQUEST, e);
+        }
+    }
+
+    // Give the held stock back (checkout abandoned)
+    @PostMapping("/{id}/release")
+    public ResponseEntity<?> releaseHold(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(reservationService.releaseHold(id));
+        } catch (IllegalStateException e) {
+            return error(HttpStatus.CONFLICT, e);
+        } catch (NoSuchElementException e) {
+            return error(HttpStatus.NOT_FOUND, e);
+        }
+    }
+
+    private ResponseEntity<Map<String, String>> error(HttpStatus status, RuntimeException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(status).body(error);
+    }
+}
@@ -0,0 +1,314 @@
+package com.inventoryoptimizer;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stock holds for checkout flows. Holds are persisted in stock_reservation and mirrored in
+ * memory: per-location reserved totals for availability checks, and a timing wheel that
+ * expires holds once their TTL passes. The in-memory state is rebuilt from the table on
+ * startup, so a crash loses no holds. Settled holds (confirmed, released, expired) are purged
+ * once they are older than the retention, so the table holds live holds and recent history only.
+ */
+@Service
+public class ReservationService {
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private LocationStockRepository locationStockRepository;
+
+    @Autowired
+    private SaleRecordService saleRecordService;
+
+    @Autowired
+    private LogService logService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${inventory.reservations.default-ttl-seconds:900}")
+    private long defaultTtlSeconds;
+
+    @Value("${inventory.reservations.tick-millis:100}")
+    private long tickMillis;
+
+    @Value("${inventory.reservations.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${inventory.reservations.settled-retention-days:30}")
+    private int settledRetentionDays;
+
+    private static final int EXPIRY_CHUNK_SIZE = 1000;
+
+    // What the timing wheel needs to undo a hold without going back to the database
+    private record Hold(Long reservationId, Long productId, String location, int quantity) {}
+
+    // productId -> location -> quantity held
+    private final Map<Long, Map<String, Integer>> reservedByProduct = new ConcurrentHashMap<>();
+    private final Map<Long, TimingWheel.Timeout<Hold>> liveHolds = new ConcurrentHashMap<>();
+    private TimingWheel<Hold> expiryWheel;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void recoverHolds() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        expiryWheel = new TimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+
+        // Holds that expired while we were down are picked up by the first tick
+        for (StockReservation reservation : reservationRepository.findByStatus(StockReservation.HELD)) {
+            addReserved(reservation.getProductId(), reservation.getLocation(), reservation.getQuantity());
+            scheduleExpiry(reservation);
+        }
+    }
+
+    // Quantity currently held for checkouts on a product, over all locations
+    public int getReservedQuantity(Long productId) {
+        Map<String, Integer> byLocation = reservedByProduct.get(productId);
+        return byLocation != null ? byLocation.values().stream().mapToInt(Integer::intValue).sum() : 0;
+    }
+
+    // Quantity currently held for checkouts on a product at one location
+    public int getReservedQuantity(Long productId, String location) {
+        Map<String, Integer> byLocation = reservedByProduct.get(productId);
+        return byLocation != null ? byLocation.getOrDefault(location, 0) : 0;
+    }
+
+    public Map<String, Object> getAvailability(Long productId) {
+        Optional<Product> productOpt = productRepository.findById(productId);
+        if (productOpt.isEmpty()) {
+            throw new RuntimeException("Product not found with id: " + productId);
+        }
+
+        int quantityOnHand = productOpt.get().getQuantityOnHand();
+        int reserved = getReservedQuantity(productId);
+
+        List<Map<String, Object>> locations = new ArrayList<>();
+        for (LocationStock stock : locationStockRepository.findByProductIdOrderByLocation(productId)) {
+            int reservedHere = getReservedQuantity(productId, stock.getLocation());
+            Map<String, Object> locationData = new HashMap<>();
+            locationData.put("location", stock.getLocation());
+            locationData.put("quantityOnHand", stock.getQuantity());
+            locationData.put("reserved", reservedHere);
+            locationData.put("availableToSell", stock.getQuantity() - reservedHere);
+            locations.add(locationData);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("productId", productId);
+        result.put("quantityOnHand", quantityOnHand);
+        result.put("reserved", reserved);
+        result.put("availableToSell", quantityOnHand - reserved);
+        result.put("locations", locations);
+        return result;
+    }
+
+    public Optional<StockReservation> getReservation(Long id) {
+        return reservationRepository.findById(id);
+    }
+
+    @Transactional
+    public StockReservation createHold(Long productId, String location, int quantity, Long ttlSeconds) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Reservation quantity must be positive: " + quantity);
+        }
+
+        Optional<Product> productOpt = productRepository.findById(productId);
+        if (productOpt.isEmpty()) {
+            throw new RuntimeException("Product not found with id: " + productId);
+        }
+
+        // The location row lock orders us against concurrent sales and other holds there
+        Product product = productOpt.get();
+        int onHand = locationStockRepository.findForUpdate(productId, location).map(LocationStock::getQuantity).orElse(0);
+        int available = onHand - getReservedQuantity(productId, location);
+        if (available < quantity) {
+            throw new RuntimeException("Insufficient stock. Available: " + available + ", Requested: " + quantity);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation = new StockReservation();
+        reservation.setProductId(productId);
+        reservation.setLocation(location);
+        reservation.setQuantity(quantity);
+        reservation.setStatus(StockReservation.HELD);
+        reservation.setCreatedAt(now);
+        reservation.setExpiresAt(now.plusSeconds(ttlSeconds != null ? ttlSeconds : defaultTtlSeconds));
+        StockReservation saved = reservationRepository.save(reservation);
+
+        // Count the hold before the row lock is released; undo it if the transaction rolls back
+        addReserved(productId, location, quantity);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    scheduleExpiry(saved);
+                } else {
+                    addReserved(productId, location, -quantity);
+                }
+            }
+        });
+
+        logService.createLog("RESERVE", "STOCK_RESERVATION", saved.getId(),
+                String.format("Reserved %d units of %s at %s until %s", quantity, product.getName(), location, saved.getExpiresAt()), "system");
+
+        return saved;
+    }
+
+    // Turn a live hold into a sale. Stock was set aside when the hold was created, so the
+    // sale is recorded without re-checking availability under the location row lock.
+    @Transactional
+    public SaleRecord confirmHold(Long id, BigDecimal unitPrice, String customerName, String notes) {
+        StockReservation reservation = findReservation(id);
+
+        if (reservationRepository.transitionFromLiveHold(id, StockReservation.CONFIRMED, LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Reservation " + id + " is no longer held");
+        }
+
+        SaleRecord sale = saleRecordService.recordReservedSale(reservation.getProductId(), reservation.getLocation(),
+                reservation.getQuantity(), unitPrice, customerName, notes);
+
+        reservation.setStatus(StockReservation.CONFIRMED);
+        reservation.setSaleId(sale.getId());
+        reservationRepository.save(reservation);
+
+        settleAfterCommit(reservation);
+        return sale;
+    }
+
+    @Transactional
+    public StockReservation releaseHold(Long id) {
+        StockReservation reservation = findReservation(id);
+
+        if (reservationRepository.transitionFromHeld(id, StockReservation.RELEASED) == 0) {
+            throw new IllegalStateException("Reservation " + id + " is no longer held");
+        }
+        reservation.setStatus(StockReservation.RELEASED);
+
+        logService.createLog("RELEASE", "STOCK_RESERVATION", id,
+                String.format("Released reservation of %d units for product %d", reservation.getQuantity(), reservation.getProductId()), "system");
+
+        settleAfterCommit(reservation);
+        return reservation;
+    }
+
+    // Advance the timing wheel and expire every hold whose TTL has passed
+    @Scheduled(fixedDelayString = "${inventory.reservations.tick-millis:100}")
+    public void expireDueHolds() {
+        List<Hold> due = expiryWheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+
+        int expiredCount = 0;
+        for (int from = 0; from < due.size(); from += EXPIRY_CHUNK_SIZE) {
+            List<Hold> chunk = due.subList(from, Math.min(from + EXPIRY_CHUNK_SIZE, due.size()));
+
+            // A hold confirmed or released concurrently loses nothing here: the conditional update skips it
+            List<Hold> expired = transactionTemplate.execute(status -> {
+                List<Hold> transitioned = new ArrayList<>();
+                for (Hold hold : chunk) {
+                    if (reservationRepository.transitionFromHeld(hold.reservationId(), StockReservation.EXPIRED) == 1) {
+                        transitioned.add(hold);
+                    }
+                }
+                return transitioned;
+            });
+
+            for (Hold hold : expired) {
+                liveHolds.remove(hold.reservationId());
+                addReserved(hold.productId(), hold.location(), -hold.quantity());
+            }
+            expiredCount += expired.size();
+        }
+
+        if (expiredCount > 0) {
+            logService.createLog("EXPIRE", "STOCK_RESERVATION", null, "Expired " + expiredCount + " stock reservations", "system");
+        }
+    }
+
+    // Delete settled holds past the retention, a chunk per transaction so locks stay short
+    @Scheduled(cron = "${inventory.reservations.purge-cron:0 45 2 * * *}")
+    public long purgeSettledHolds() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(settledRetentionDays);
+        long purged = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = reservationRepository.findSettledIds(cutoff, PageRequest.of(0, EXPIRY_CHUNK_SIZE));
+                reservationRepository.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            purged += deleted;
+            if (deleted < EXPIRY_CHUNK_SIZE) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            logService.createLog("PURGE", "STOCK_RESERVATION", null,
+                    "Purged " + purged + " settled stock reservations older than " + settledRetentionDays + " days", "system");
+        }
+        return purged;
+    }
+
+    private StockReservation findReservation(Long id) {
+        Optional<StockReservation> reservationOpt = reservationRepository.findById(id);
+        if (reservationOpt.isEmpty()) {
+            throw new NoSuchElementException("Reservation not found with id: " + id);
+        }
+        return reservationOpt.get();
+    }
+
+    private void scheduleExpiry(StockReservation reservation) {
+        long deadline = reservation.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Hold hold = new Hold(reservation.getId(), reservation.getProductId(), reservation.getLocation(), reservation.getQuantity());
+        liveHolds.put(reservation.getId(), expiryWheel.schedule(hold, deadline));
+    }
+
+    // Drop a confirmed or released hold from memory once its new state is committed
+    private void settleAfterCommit(StockReservation reservation) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                TimingWheel.Timeout<Hold> timeout = liveHolds.remove(reservation.getId());
+                if (timeout != null) {
+                    timeout.cancel();
+                }
+                addReserved(reservation.getProductId(), reservation.getLocation(), -reservation.getQuantity());
+            }
+        });
+    }
+
+    private void addReserved(Long productId, String location, int delta) {
+        reservedByProduct.compute(productId, (id, byLocation) -> {
+            Map<String, Integer> locations = byLocation != null ? byLocation : new ConcurrentHashMap<>();
+            locations.compute(location, (loc, current) -> {
+                int updated = (current != null ? current : 0) + delta;
+                return updated == 0 ? null : updated;
+            });
+            return locations.isEmpty() ? null : locations;
+        });
+    }
+}
@@ -0,0 +1,161 @@
+package com.inventoryoptimizer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Group-commit stage for sales on the same stock row. Callers queue on a per-location lane and
+ * whichever finds the lane idle drains it and applies the batch as one transaction with a
+ * single stock UPDATE. Batches grow with contention; an uncontended sale is applied alone.
+ * A combiner returns as soon as its own sale is settled and hands the lane to the oldest
+ * waiter, so no caller keeps applying other callers' sales indefinitely.
+ */
+class SaleCombiner {
+
+    // A single caller's sale waiting to be applied as part of a batch
+    static class PendingSale {
+        final Long productId;
+        final String location;
+        final int quantity;
+        final BigDecimal unitPrice;
+        final String customerName;
+        final String notes;
+
+        private SaleRecord result;
+        private RuntimeException error;
+        private final CompletableFuture<SaleRecord> done = new CompletableFuture<>();
+        private Thread waiter;
+
+        PendingSale(Long productId, String location, int quantity, BigDecimal unitPrice, String customerName, String notes) {
+            this.productId = productId;
+            this.location = location;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.customerName = customerName;
+            this.notes = notes;
+        }
+
+        void accept(SaleRecord sale) { this.result = sale; }
+        void reject(RuntimeException error) { this.error = error; }
+        boolean isRejected() { return error != null; }
+    }
+
+    interface BatchHandler {
+        // Applies the batch atomically; individual sales are accepted or rejected on the entries
+        void apply(Long productId, String location, List<PendingSale> batch);
+    }
+
+    private static class Lane {
+        final Queue<PendingSale> queue = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean combining = new AtomicBoolean();
+    }
+
+    // One lane per product and location: sales at different locations touch different stock rows
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final BatchHandler handler;
+    private final long windowNanos;
+    private final int maxBatch;
+
+    SaleCombiner(BatchHandler handler, long windowMicros, int maxBatch) {
+        this.handler = handler;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatch = Math.max(1, maxBatch);
+    }
+
+    SaleRecord submit(PendingSale sale) {
+        String key = sale.productId + "@" + sale.location;
+        sale.waiter = Thread.currentThread();
+        // Enqueue inside compute so an idle lane cannot be pruned between lookup and add
+        Lane lane = lanes.compute(key, (k, existing) -> {
+            Lane target = existing != null ? existing : new Lane();
+            target.queue.add(sale);
+            return target;
+        });
+
+        // Combine when the lane is idle, otherwise wait to be settled or handed the lane
+        while (!sale.done.isDone()) {
+            if (lane.combining.compareAndSet(false, true)) {
+                try {
+                    if (windowNanos > 0) {
+                        LockSupport.parkNanos(windowNanos);
+                    }
+                    combine(lane);
+                } finally {
+                    lane.combining.set(false);
+                    handOff(key, lane);
+                }
+            } else {
+                LockSupport.park(this);
+            }
+        }
+
+        try {
+            return sale.done.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Wake the oldest queued caller to combine next, or drop the lane once it has gone quiet
+    private void handOff(String key, Lane lane) {
+        PendingSale next = lane.queue.peek();
+        if (next != null) {
+            LockSupport.unpark(next.waiter);
+        } else {
+            lanes.computeIfPresent(key, (k, current) -> current.queue.isEmpty() && !current.combining.get() ? null : current);
+        }
+    }
+
+    int laneCount() {
+        return lanes.size();
+    }
+
+    private void combine(Lane lane) {
+        List<PendingSale> batch = new ArrayList<>();
+        PendingSale next;
+        while (batch.size() < maxBatch && (next = lane.queue.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            handler.apply(batch.get(0).productId, batch.get(0).location, batch);
+        } catch (RuntimeException e) {
+            // The whole batch rolled back, so nobody's sale was recorded
+            batch.forEach(sale -> settle(sale, null, e));
+            return;
+        } catch (Error e) {
+            batch.forEach(sale -> settle(sale, null, e));
+            throw e;
+        }
+
+        // Only release callers once the batch transaction has committed
+        for (PendingSale sale : batch) {
+            settle(sale, sale.result, sale.error);
+        }
+    }
+
+    private static void settle(PendingSale sale, SaleRecord result, Throwable error) {
+        if (error != null) {
+            sale.done.completeExceptionally(error);
+        } else {
+            sale.done.complete(result);
+        }
+        LockSupport.unpark(sale.waiter);
+    }
+}
@@ -3,6 +3,7 @@ package com.inventoryoptimizer;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
 public class SaleRecord {
@@ -24,7 +25,9 @@ public class SaleRecord {
     private BigDecimal totalAmount; // unitPrice * quantitySold
     
     private String customerName; // optional customer information
+    private String customerKey; // normalized customerName for customer lookups
     private String notes; // optional notes about the sale
+    private String location; // store or warehouse the stock was taken from
 
     // Getters and setters
     public Long getId() { return id; }
@@ -40,7 +43,21 @@ public class SaleRecord {
     public BigDecimal getTotalAmount() { return totalAmount; }
     public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
     public String getCustomerName() { return customerName; }
-    public void setCustomerName(String customerName) { this.customerName = customerName; }
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+        this.customerKey = customerKey(customerName);
+    }
+    public String getCustomerKey() { return customerKey; }
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    // Customer names match case-insensitively and without surrounding blanks; blank means no customer
+    public static String customerKey(String customerName) {
+        if (customerName == null || customerName.isBlank()) {
+            return null;
+        }
+        return customerName.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -1,14 +1,22 @@
 package com.inventoryoptimizer;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/sales")
@@ -16,6 +24,18 @@ import java.util.Map;
 public class SaleRecordController {
     @Autowired
     private SaleRecordService saleRecordService;
+    
+    @Autowired
+    private SalesImportService salesImportService;
+
+    @Autowired
+    private SalesExportService salesExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
 
     // Record a sale with full details
     @PostMapping
@@ -31,14 +51,35 @@ public class SaleRecordController {
             
             String customerName = (String) saleData.get("customerName");
             String notes = (String) saleData.get("notes");
+            String location = saleData.get("location") != null ? saleData.get("location").toString() : LocationStock.DEFAULT_LOCATION;
             
-            SaleRecord sale = saleRecordService.recordSale(productId, quantitySold, unitPrice, customerName, notes);
+            SaleRecord sale = saleRecordService.recordSale(productId, location, quantitySold, unitPrice, customerName, notes);
             return ResponseEntity.ok(sale);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    // Bulk import historical sales from a CSV (header row) or NDJSON body. Stock is only
+    // reduced with adjustStock=true; rejected rows are reported with their line numbers.
+    @PostMapping("/import")
+    public ResponseEntity<?> importSales(
+            HttpServletRequest request,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean adjustStock) throws IOException {
+        if (format == null) {
+            String contentType = request.getContentType() != null ? request.getContentType() : "";
+            format = contentType.contains("ndjson") || contentType.contains("json") ? SalesImportService.NDJSON : SalesImportService.CSV;
+        }
+        try {
+            return ResponseEntity.ok(salesImportService.importSales(request.getInputStream(), format, adjustStock));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
     // Quick sale endpoint (backward compatibility)
     @PostMapping("/quick")
     public ResponseEntity<SaleRecord> recordQuickSale(@RequestParam Long productId, @RequestParam int quantitySold) {
@@ -57,6 +98,51 @@ public class SaleRecordController {
         return ResponseEntity.ok(sales);
     }
     
+    // Stream sales in [from, to) oldest first as CSV or the columnar binary format, read
+    // from a database cursor so memory stays flat however many rows match
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSales(
+            @RequestParam(defaultValue = SalesExportService.CSV) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String compress) {
+        boolean csv = SalesExportService.CSV.equals(format);
+        if (!csv && !SalesExportService.COLUMNAR.equals(format)) {
+            return exportError("Unsupported export format: " + format + " (expected csv or columnar)");
+        }
+        boolean gzip = "gzip".equals(compress);
+        if (compress != null && !gzip) {
+            return exportError("Unsupported compression: " + compress + " (expected gzip)");
+        }
+
+        SalesExportService.ExportFilter filter = new SalesExportService.ExportFilter(from, to, productId);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 1 << 16);
+                salesExportService.export(format, filter, compressed);
+                compressed.finish();
+            } else {
+                salesExportService.export(format, filter, out);
+            }
+        };
+        String filename = "sales." + (csv ? "csv" : "salescol") + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : csv ? MediaType.parseMediaType("text/csv; charset=UTF-8") : MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    // Streaming handlers need a StreamingResponseBody on every path, so the error map is streamed too
+    private ResponseEntity<StreamingResponseBody> exportError(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, error));
+    }
+    
     // Get recent sales
     @GetMapping("/recent")
     public ResponseEntity<List<SaleRecord>> getRecentSales() {
@@ -74,7 +160,7 @@ public class SaleRecordController {
     @GetMapping("/history/daily-trend")
     public ResponseEntity<List<Map<String, Object>>> getDailyTrend(@RequestParam(defaultValue = "30") int days) {
         try {
-            List<Map<String, Object>> dailyTrend = saleRecordService.getDailyTrend(days);
+            List<Map<String, Object>> dailyTrend = requestCoalescer.coalesce("daily-trend", () -> saleRecordService.getDailyTrend(days), days);
             return ResponseEntity.ok(dailyTrend);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -84,7 +170,7 @@ public class SaleRecordController {
     // Get total revenue
     @GetMapping("/revenue/total")
     public ResponseEntity<Map<String, Object>> getTotalRevenue() {
-        Map<String, Object> revenue = saleRecordService.getTotalRevenue();
+        Map<String, Object> revenue = requestCoalescer.coalesce("revenue-total", saleRecordService::getTotalRevenue);
         return ResponseEntity.ok(revenue);
     }
     
@@ -93,7 +179,8 @@ public class SaleRecordController {
     public ResponseEntity<Map<String, Object>> getRevenueForPeriod(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        Map<String, Object> revenue = saleRecordService.getRevenueForPeriod(startDate, endDate);
+        Map<String, Object> revenue = requestCoalescer.coalesce("revenue-period",
+                () -> saleRecordService.getRevenueForPeriod(startDate, endDate), startDate, endDate);
         return ResponseEntity.ok(revenue);
     }
 }
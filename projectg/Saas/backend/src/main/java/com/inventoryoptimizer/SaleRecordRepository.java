@@ -1,9 +1,11 @@
 package com.inventoryoptimizer;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -24,9 +26,22 @@ public interface SaleRecordRepository extends JpaRepository<SaleRecord, Long> {
     
     // Calculate total revenue for a product
     @Query("SELECT COALESCE(SUM(s.totalAmount), 0) FROM SaleRecord s WHERE s.product.id = :productId")
-    Double getTotalRevenueByProductId(@Param("productId") Long productId);
+    BigDecimal getTotalRevenueByProductId(@Param("productId") Long productId);
     
     // Calculate total sales quantity for a product
     @Query("SELECT COALESCE(SUM(s.quantitySold), 0) FROM SaleRecord s WHERE s.product.id = :productId")
     Integer getTotalQuantitySoldByProductId(@Param("productId") Long productId);
+    
+    // Newest sales of a customer, read through the (customer_key, timestamp, id) index
+    @Query("SELECT s FROM SaleRecord s JOIN FETCH s.product WHERE s.customerKey = :customerKey " +
+           "ORDER BY s.timestamp DESC, s.id DESC")
+    List<SaleRecord> findByCustomerKeyNewestFirst(@Param("customerKey") String customerKey, Pageable page);
+    
+    // Sales of a customer older than (timestamp, id), newest first
+    @Query("SELECT s FROM SaleRecord s JOIN FETCH s.product WHERE s.customerKey = :customerKey " +
+           "AND s.timestamp <= :timestamp AND (s.timestamp < :timestamp OR s.id < :id) " +
+           "ORDER BY s.timestamp DESC, s.id DESC")
+    List<SaleRecord> findByCustomerKeyOlderThan(@Param("customerKey") String customerKey,
+                                                @Param("timestamp") LocalDateTime timestamp,
+                                                @Param("id") Long id, Pageable page);
 }
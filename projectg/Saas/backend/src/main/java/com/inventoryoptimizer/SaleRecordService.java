@@ -1,16 +1,26 @@
 package com.inventoryoptimizer;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.stream.Collectors;
 
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @Service
 public class SaleRecordService {
     @Autowired
@@ -21,12 +31,144 @@ public class SaleRecordService {
     
     @Autowired
     private LogService logService;
+    
+    @Autowired
+    private StockLedgerService stockLedgerService;
+    
+    @Autowired
+    private SalesColumnStore salesColumnStore;
+    
+    @Autowired
+    private SalesRankingService salesRankingService;
+    
+    @Autowired
+    private SalesSketchService salesSketchService;
+    
+    @Autowired
+    private CustomerService customerService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Read on every sale and flipped at runtime by setCombiningEnabled
+    @Value("${inventory.sales.combining.enabled:true}")
+    private volatile boolean combiningEnabled;
+    
+    @Value("${inventory.sales.combining.window-micros:0}")
+    private long combiningWindowMicros;
+    
+    @Value("${inventory.sales.combining.max-batch:256}")
+    private int combiningMaxBatch;
+    
+    private TransactionTemplate transactionTemplate;
+    private SaleCombiner saleCombiner;
+    
+    // recordSale latency split by the statements it issues
+    private Timer stockUpdateTimer;
+    private Timer saleInsertTimer;
+    private Timer derivedDataTimer;
+    private Timer logInsertTimer;
+    
+    @PostConstruct
+    void initSaleCombiner() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        saleCombiner = new SaleCombiner(
+                (productId, location, batch) -> transactionTemplate.executeWithoutResult(status -> applyCombinedSales(productId, location, batch)),
+                combiningWindowMicros, combiningMaxBatch);
+        stockUpdateTimer = saleStepTimer("stock_update");
+        saleInsertTimer = saleStepTimer("sale_insert");
+        derivedDataTimer = saleStepTimer("derived_data");
+        logInsertTimer = saleStepTimer("log_insert");
+    }
+    
+    private Timer saleStepTimer(String step) {
+        return Timer.builder("inventory.sale.step")
+                .description("Time spent in one step of recording a sale or combined batch")
+                .tag("step", step)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
-    @Transactional
     public SaleRecord recordSale(Long productId, int quantitySold, BigDecimal unitPrice, String customerName, String notes) {
+        return recordSale(productId, LocationStock.DEFAULT_LOCATION, quantitySold, unitPrice, customerName, notes);
+    }
+    
+    // Record a sale taking stock from one location
+    public SaleRecord recordSale(Long productId, String location, int quantitySold, BigDecimal unitPrice, String customerName, String notes) {
+        // Concurrent sales of the same stock row share one transaction, unless the caller already holds one
+        if (combiningEnabled && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return saleCombiner.submit(new SaleCombiner.PendingSale(productId, location, quantitySold, unitPrice, customerName, notes));
+        }
+        return transactionTemplate.execute(status -> recordSingleSale(productId, location, quantitySold, unitPrice, customerName, notes));
+    }
+    
+    private SaleRecord recordSingleSale(Long productId, String location, int quantitySold, BigDecimal unitPrice, String customerName, String notes) {
         // Reduce stock using the ProductService
-        Product product = productService.reduceStock(productId, quantitySold);
+        Product product = stockUpdateTimer.record(() -> productService.reduceStock(productId, quantitySold, location));
+        
+        return saveSale(product, location, quantitySold, unitPrice, customerName, notes);
+    }
+    
+    // Record the sale for a confirmed reservation; availability was checked when the stock was held
+    @Transactional
+    public SaleRecord recordReservedSale(Long productId, String location, int quantitySold, BigDecimal unitPrice, String customerName, String notes) {
+        Product product = stockUpdateTimer.record(() -> productService.consumeReservedStock(productId, location, quantitySold));
+        
+        return saveSale(product, location, quantitySold, unitPrice, customerName, notes);
+    }
+    
+    // Insert one sale after its stock was taken, with its ledger movement, derived data and log entry
+    private SaleRecord saveSale(Product product, String location, int quantitySold, BigDecimal unitPrice, String customerName, String notes) {
+        SaleRecord savedSale = saleInsertTimer.record(() -> {
+            SaleRecord sale = saleRecordRepository.save(newSale(product, location, quantitySold, unitPrice, customerName, notes));
+            stockLedgerService.recordSales(List.of(sale));
+            return sale;
+        });
+        derivedDataTimer.record(() -> publishSales(List.of(savedSale)));
+        
+        // Log the sale
+        logInsertTimer.record(() -> logService.logSale(savedSale.getId(), product.getId(), product.getName(), quantitySold, "system"));
         
+        return savedSale;
+    }
+    
+    // Apply a batch from the SaleCombiner: one stock update, then the accepted sales in one flush
+    private void applyCombinedSales(Long productId, String location, List<SaleCombiner.PendingSale> batch) {
+        Product product = stockUpdateTimer.record(() -> productService.reduceStockCombined(productId, location, batch));
+        
+        List<SaleRecord> sales = new ArrayList<>();
+        for (SaleCombiner.PendingSale pending : batch) {
+            if (!pending.isRejected()) {
+                SaleRecord sale = newSale(product, location, pending.quantity, pending.unitPrice, pending.customerName, pending.notes);
+                pending.accept(sale);
+                sales.add(sale);
+            }
+        }
+        saleInsertTimer.record(() -> {
+            saleRecordRepository.saveAll(sales);
+            stockLedgerService.recordSales(sales);
+        });
+        derivedDataTimer.record(() -> publishSales(sales));
+        
+        logInsertTimer.record(() -> {
+            for (SaleRecord sale : sales) {
+                logService.logSale(sale.getId(), productId, product.getName(), sale.getQuantitySold(), "system");
+            }
+        });
+    }
+    
+    // Update customer aggregates with the sales, and feed the in-memory analytics structures once the transaction commits
+    private void publishSales(List<SaleRecord> sales) {
+        customerService.recordSales(sales);
+        salesColumnStore.appendAfterCommit(sales);
+        salesRankingService.evictAfterCommit(sales);
+        salesSketchService.addAfterCommit(sales);
+    }
+    
+    private SaleRecord newSale(Product product, String location, int quantitySold, BigDecimal unitPrice, String customerName, String notes) {
         // Calculate total amount
         BigDecimal totalAmount = unitPrice != null ? unitPrice.multiply(BigDecimal.valueOf(quantitySold)) : BigDecimal.ZERO;
 
@@ -37,14 +179,19 @@ public class SaleRecordService {
         sale.setTotalAmount(totalAmount);
         sale.setCustomerName(customerName);
         sale.setNotes(notes);
+        sale.setLocation(location);
         sale.setTimestamp(LocalDateTime.now());
-        
-        SaleRecord savedSale = saleRecordRepository.save(sale);
-        
-        // Log the sale
-        logService.logSale(savedSale.getId(), productId, product.getName(), quantitySold, "system");
-        
-        return savedSale;
+        return sale;
+    }
+    
+    // Switch combining on or off at runtime (contention benchmarks compare both modes)
+    void setCombiningEnabled(boolean combiningEnabled) {
+        this.combiningEnabled = combiningEnabled;
+    }
+    
+    // Product/location lanes currently held by the combiner; idle lanes are dropped
+    int getCombiningLaneCount() {
+        return saleCombiner.laneCount();
     }
     
     // Overloaded method for backward compatibility
@@ -52,74 +199,72 @@ public class SaleRecordService {
         return recordSale(productId, quantitySold, null, null, null);
     }
 
+    @Transactional(readOnly = true)
     public List<SaleRecord> getSalesForProduct(Long productId) {
         return saleRecordRepository.findByProductId(productId);
     }
     
+    @Transactional(readOnly = true)
     public List<SaleRecord> getAllSales() {
         return saleRecordRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public List<SaleRecord> getRecentSales() {
         return saleRecordRepository.findTop10ByOrderByTimestampDesc();
     }
 
+    // Analytics below scan the columnar copy of sale_record instead of loading entities
     public List<Map<String, Object>> getDailyTrend(int days) {
-        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
-        List<SaleRecord> recentSales = saleRecordRepository.findByTimestampBetween(startDate, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startDate = now.minusDays(days);
+        int fromDay = (int) startDate.toLocalDate().toEpochDay();
+        int dayCount = (int) (now.toLocalDate().toEpochDay() - fromDay) + 1;
+        int fromMinute = SalesColumnStore.toEpochMinute(startDate);
 
-        return recentSales.stream()
-                .collect(Collectors.groupingBy(
-                    sale -> sale.getTimestamp().toLocalDate(),
-                    Collectors.summingDouble(sale -> sale.getTotalAmount() != null ? sale.getTotalAmount().doubleValue() : 0.0)
-                ))
-                .entrySet().stream()
-                .map(entry -> {
-                    Map<String, Object> dayData = new HashMap<>();
-                    dayData.put("date", entry.getKey().toString());
-                    dayData.put("totalSales", entry.getValue());
-                    return dayData;
-                })
-                .sorted((a, b) -> ((String)a.get("date")).compareTo((String)b.get("date")))
-                .collect(Collectors.toList());
+        // Whole days are scanned; the partial first day is trimmed to the start time separately
+        SalesColumnStore.DailyTotals daily = salesColumnStore.dailyTotals(fromDay, dayCount);
+        SalesColumnStore.Totals beforeStart = salesColumnStore.totals(fromDay * 1440, fromMinute);
+
+        List<Map<String, Object>> trend = new ArrayList<>();
+        for (int day = 0; day < dayCount; day++) {
+            long sales = daily.sales()[day];
+            long cents = daily.cents()[day];
+            if (day == 0) {
+                sales -= beforeStart.sales();
+                cents -= beforeStart.cents();
+            }
+            if (sales > 0) {
+                Map<String, Object> dayData = new HashMap<>();
+                dayData.put("date", LocalDate.ofEpochDay(fromDay + day).toString());
+                dayData.put("totalSales", Money.toDecimal(cents));
+                trend.add(dayData);
+            }
+        }
+        return trend;
     }
     
     // Get total revenue
     public Map<String, Object> getTotalRevenue() {
-        List<SaleRecord> allSales = saleRecordRepository.findAll();
-        
-        double totalRevenue = allSales.stream()
-                .mapToDouble(sale -> sale.getTotalAmount() != null ? sale.getTotalAmount().doubleValue() : 0.0)
-                .sum();
-        
-        int totalQuantitySold = allSales.stream()
-                .mapToInt(SaleRecord::getQuantitySold)
-                .sum();
+        SalesColumnStore.Totals totals = salesColumnStore.totals(Integer.MIN_VALUE, Integer.MAX_VALUE);
         
         Map<String, Object> result = new HashMap<>();
-        result.put("totalRevenue", totalRevenue);
-        result.put("totalQuantitySold", totalQuantitySold);
-        result.put("totalSales", allSales.size());
+        result.put("totalRevenue", Money.toDecimal(totals.cents()));
+        result.put("totalQuantitySold", (int) totals.quantity());
+        result.put("totalSales", (int) totals.sales());
         
         return result;
     }
     
-    // Get revenue for a specific time period
+    // Get revenue for a specific time period (both ends inclusive, to the minute)
     public Map<String, Object> getRevenueForPeriod(LocalDateTime startDate, LocalDateTime endDate) {
-        List<SaleRecord> periodSales = saleRecordRepository.findByTimestampBetween(startDate, endDate);
-        
-        double totalRevenue = periodSales.stream()
-                .mapToDouble(sale -> sale.getTotalAmount() != null ? sale.getTotalAmount().doubleValue() : 0.0)
-                .sum();
-        
-        int totalQuantitySold = periodSales.stream()
-                .mapToInt(SaleRecord::getQuantitySold)
-                .sum();
+        SalesColumnStore.Totals totals = salesColumnStore.totals(
+                SalesColumnStore.toEpochMinute(startDate), SalesColumnStore.toEpochMinute(endDate) + 1);
         
         Map<String, Object> result = new HashMap<>();
-        result.put("totalRevenue", totalRevenue);
-        result.put("totalQuantitySold", totalQuantitySold);
-        result.put("totalSales", periodSales.size());
+        result.put("totalRevenue", Money.toDecimal(totals.cents()));
+        result.put("totalQuantitySold", (int) totals.quantity());
+        result.put("totalSales", (int) totals.sales());
         result.put("startDate", startDate);
         result.put("endDate", endDate);
         
@@ -0,0 +1,736 @@
+package com.inventoryoptimizer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only columnar copy of sale_record for analytics scans. Each sale is four primitives
+ * (productId, epoch minute, quantity, amount in cents) stored column by column in memory-mapped
+ * segment files, so aggregations are tight loops over int/long buffers with no entity
+ * hydration or per-row garbage. Committed sales are appended as they are recorded; the store
+ * can be rebuilt from the database at any time, which is also done on startup when it does
+ * not match the sale_record table.
+ *
+ * Writers are serialised; readers never lock. A reader takes the current generation and its
+ * row count, and only looks at rows below that count. A rebuild scans the table without the
+ * write lock: appends go on landing in the current generation and are also buffered, and the
+ * lock is only taken to replay that buffer into the new generation and switch over.
+ *
+ * The store is per process and only sees the sales this instance records; sales recorded by
+ * another instance reach it through catch-up at the next startup. Analytics read from it are
+ * therefore only complete on a single-instance deployment.
+ */
+@Component
+public class SalesColumnStore {
+    private static final Logger log = LoggerFactory.getLogger(SalesColumnStore.class);
+
+    private static final int BYTES_PER_ROW = Integer.BYTES * 3 + Long.BYTES;
+    private static final int META_BYTES = Long.BYTES * 2; // row count, highest sale id
+    private static final int REBUILD_FETCH_SIZE = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${inventory.columnar.dir:data/sales-columns}")
+    private String directory;
+
+    @Value("${inventory.columnar.segment-rows:1048576}")
+    private int segmentRows;
+
+    // A ReentrantLock rather than a monitor: rebuild and catch-up hold it across JDBC reads,
+    // which would pin a virtual thread to its carrier inside synchronized
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // One rebuild at a time; held for the whole scan, which appends never wait on
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Generation current;
+    // Appends made while a rebuild scans, replayed into the new generation; guarded by writeLock
+    private List<Row> appendedDuringRebuild;
+    private FileChannel lockChannel;
+    private FileLock directoryLock;
+    private boolean temporaryDirectory;
+
+    private record Row(int productId, int minute, int quantity, long cents, long saleId) {}
+
+    public record Totals(long sales, long quantity, long cents) {}
+
+    // Per-day sale counts and amounts; index 0 is the first requested day
+    public record DailyTotals(long[] sales, long[] cents) {}
+
+    // One product's sales in time order
+    public record Series(int[] minutes, int[] quantities) {}
+
+    public SalesColumnStore() {}
+
+    // Standalone store without a database behind it (tests and benchmarks)
+    SalesColumnStore(Path directory, int segmentRows) {
+        this.directory = directory.toString();
+        this.segmentRows = segmentRows;
+        this.current = openGeneration(latestGeneration().orElse(directory.resolve("gen-1")));
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        lockDirectory();
+        Path latest = latestGeneration().orElse(null);
+        if (latest != null) {
+            current = openGeneration(latest);
+            if (matchesDatabase()) {
+                catchUp();
+                return;
+            }
+            log.info("Sales column store does not match sale_record, rebuilding");
+        }
+        rebuild();
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        Generation generation = current;
+        if (generation != null) {
+            generation.force();
+        }
+        if (directoryLock != null) {
+            directoryLock.release();
+            lockChannel.close();
+        }
+        if (temporaryDirectory) {
+            if (generation != null) {
+                generation.delete();
+            }
+            deleteDirectory(Paths.get(directory));
+        }
+    }
+
+    // One writer per directory. Another instance on the same directory (a second process, or a
+    // second application context in tests) gets a private temporary store built from the database.
+    private void lockDirectory() throws IOException {
+        Path root = Paths.get(directory);
+        Files.createDirectories(root);
+        lockChannel = FileChannel.open(root.resolve("store.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            directoryLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            directoryLock = null;
+        }
+        if (directoryLock == null) {
+            lockChannel.close();
+            directory = Files.createTempDirectory("sales-columns").toString();
+            temporaryDirectory = true;
+            log.warn("Sales column store directory {} is in use, using temporary store {}", root, directory);
+        }
+    }
+
+    public long size() {
+        return current.size;
+    }
+
+    // Append sales once the surrounding transaction commits, so rolled-back sales never show up
+    public void appendAfterCommit(List<SaleRecord> sales) {
+        int count = sales.size();
+        int[] productIds = new int[count];
+        int[] minutes = new int[count];
+        int[] quantities = new int[count];
+        long[] cents = new long[count];
+        long[] saleIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            SaleRecord sale = sales.get(i);
+            productIds[i] = Math.toIntExact(sale.getProduct().getId());
+            minutes[i] = toEpochMinute(sale.getTimestamp());
+            quantities[i] = sale.getQuantitySold();
+            cents[i] = toCents(sale.getTotalAmount());
+            saleIds[i] = sale.getId() != null ? sale.getId() : 0;
+        }
+
+        Runnable append = () -> {
+            writeLock.lock();
+            try {
+                for (int i = 0; i < count; i++) {
+                    // A rebuild that ran between this commit and now has already read the sale
+                    if (!current.readByRebuild(saleIds[i])) {
+                        appendLocked(new Row(productIds[i], minutes[i], quantities[i], cents[i], saleIds[i]));
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append.run();
+                }
+            });
+        } else {
+            append.run();
+        }
+    }
+
+    void append(int productId, int minute, int quantity, long cents, long saleId) {
+        writeLock.lock();
+        try {
+            appendLocked(new Row(productId, minute, quantity, cents, saleId));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Callers hold the write lock
+    private void appendLocked(Row row) {
+        current.append(row.productId(), row.minute(), row.quantity(), row.cents(), row.saleId());
+        if (appendedDuringRebuild != null) {
+            appendedDuringRebuild.add(row);
+        }
+    }
+
+    // True while a rebuild is scanning sale_record
+    boolean isRebuilding() {
+        writeLock.lock();
+        try {
+            return appendedDuringRebuild != null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Rebuild the store from sale_record into a fresh generation and switch readers over to it
+    public long rebuild() {
+        rebuildLock.lock();
+        try {
+            Generation previous;
+            writeLock.lock();
+            try {
+                previous = current;
+                appendedDuringRebuild = new ArrayList<>();
+            } finally {
+                writeLock.unlock();
+            }
+
+            long nextNumber = previous != null ? previous.number + 1 : 1;
+            Path target = Paths.get(directory, "gen-" + nextNumber);
+            Generation rebuilt = null;
+            boolean switched = false;
+            try {
+                deleteDirectory(target); // left behind by an interrupted rebuild
+                Generation generation = openGeneration(target);
+                rebuilt = generation;
+
+                JdbcTemplate cursor = new JdbcTemplate(dataSource);
+                cursor.setFetchSize(REBUILD_FETCH_SIZE);
+                SaleIdSet read = new TransactionTemplate(transactionManager).execute(status -> {
+                    Long minId = cursor.queryForObject("SELECT MIN(id) FROM sale_record", Long.class);
+                    SaleIdSet ids = new SaleIdSet(minId != null ? minId : 0);
+                    cursor.query("SELECT id, product_id, timestamp, quantity_sold, total_amount FROM sale_record ORDER BY timestamp, id",
+                            rs -> {
+                                Timestamp timestamp = rs.getTimestamp(3);
+                                generation.append(Math.toIntExact(rs.getLong(2)),
+                                        timestamp != null ? toEpochMinute(timestamp.toLocalDateTime()) : 0,
+                                        rs.getInt(4), toCents(rs.getBigDecimal(5)), rs.getLong(1));
+                                ids.add(rs.getLong(1));
+                            });
+                    return ids;
+                });
+                generation.force();
+
+                writeLock.lock();
+                try {
+                    // Appends made during the scan that it did not read (committed after its snapshot)
+                    for (Row row : appendedDuringRebuild) {
+                        if (!read.contains(row.saleId())) {
+                            generation.append(row.productId(), row.minute(), row.quantity(), row.cents(), row.saleId());
+                        }
+                    }
+                    // Sales that committed before the query but whose after-commit append has not run
+                    // yet must not be added a second time
+                    generation.rebuildIds = read;
+                    current = generation;
+                    switched = true;
+                } finally {
+                    appendedDuringRebuild = null;
+                    writeLock.unlock();
+                }
+            } finally {
+                if (!switched) {
+                    writeLock.lock();
+                    try {
+                        appendedDuringRebuild = null;
+                    } finally {
+                        writeLock.unlock();
+                    }
+                    if (rebuilt != null) {
+                        rebuilt.delete();
+                    }
+                }
+            }
+            if (previous != null) {
+                previous.delete();
+            }
+            return rebuilt.size;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Rebuild once the surrounding transaction commits (after sales were deleted)
+    public void rebuildAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    // Count, quantity and amount of the sales with fromMinute <= minute < toMinute
+    public Totals totals(int fromMinute, int toMinute) {
+        Generation generation = current;
+        long size = generation.size;
+        long sales = 0;
+        long quantity = 0;
+        long cents = 0;
+        for (Segment segment : generation.segments(size)) {
+            int rows = segment.rows(size);
+            if (segment.maxMinute < fromMinute || segment.minMinute >= toMinute) {
+                continue;
+            }
+            IntBuffer minuteColumn = segment.minutes;
+            IntBuffer quantityColumn = segment.quantities;
+            LongBuffer centsColumn = segment.cents;
+            for (int i = 0; i < rows; i++) {
+                int minute = minuteColumn.get(i);
+                if (minute >= fromMinute && minute < toMinute) {
+                    sales++;
+                    quantity += quantityColumn.get(i);
+                    cents = Math.addExact(cents, centsColumn.get(i));
+                }
+            }
+        }
+        return new Totals(sales, quantity, cents);
+    }
+
+    // Sales and amounts per day for days fromDay (epoch day) to fromDay + days - 1
+    public DailyTotals dailyTotals(int fromDay, int days) {
+        long[] sales = new long[days];
+        long[] cents = new long[days];
+        int fromMinute = fromDay * 1440;
+        int toMinute = (fromDay + days) * 1440;
+
+        Generation generation = current;
+        long size = generation.size;
+        for (Segment segment : generation.segments(size)) {
+            int rows = segment.rows(size);
+            if (segment.maxMinute < fromMinute || segment.minMinute >= toMinute) {
+                continue;
+            }
+            IntBuffer minuteColumn = segment.minutes;
+            LongBuffer centsColumn = segment.cents;
+            for (int i = 0; i < rows; i++) {
+                int minute = minuteColumn.get(i);
+                if (minute >= fromMinute && minute < toMinute) {
+                    int day = (minute - fromMinute) / 1440;
+                    sales[day]++;
+                    cents[day] = Math.addExact(cents[day], centsColumn.get(i));
+                }
+            }
+        }
+        return new DailyTotals(sales, cents);
+    }
+
+    // Units sold per product, indexed by product id
+    public long[] quantityByProduct() {
+        Generation generation = current;
+        long size = generation.size;
+        long[] quantities = new long[generation.maxProductId + 1];
+        for (Segment segment : generation.segments(size)) {
+            int rows = segment.rows(size);
+            IntBuffer productColumn = segment.productIds;
+            IntBuffer quantityColumn = segment.quantities;
+            for (int i = 0; i < rows; i++) {
+                int productId = productColumn.get(i);
+                if (productId < quantities.length) {
+                    quantities[productId] += quantityColumn.get(i);
+                }
+            }
+        }
+        return quantities;
+    }
+
+    public Series series(int productId) {
+        Generation generation = current;
+        long size = generation.size;
+        int[] minutes = new int[16];
+        int[] quantities = new int[16];
+        int count = 0;
+        for (Segment segment : generation.segments(size)) {
+            int rows = segment.rows(size);
+            IntBuffer productColumn = segment.productIds;
+            for (int i = 0; i < rows; i++) {
+                if (productColumn.get(i) == productId) {
+                    if (count == minutes.length) {
+                        minutes = Arrays.copyOf(minutes, count * 2);
+                        quantities = Arrays.copyOf(quantities, count * 2);
+                    }
+                    minutes[count] = segment.minutes.get(i);
+                    quantities[count] = segment.quantities.get(i);
+                    count++;
+                }
+            }
+        }
+        return sortedByTime(Arrays.copyOf(minutes, count), Arrays.copyOf(quantities, count));
+    }
+
+    // Every product's series in one pass, indexed by product id (null where a product has no sales)
+    public Series[] seriesByProduct() {
+        Generation generation = current;
+        long size = generation.size;
+        int products = generation.maxProductId + 1;
+
+        int[] counts = new int[products];
+        for (Segment segment : generation.segments(size)) {
+            int rows = segment.rows(size);
+            for (int i = 0; i < rows; i++) {
+                int productId = segment.productIds.get(i);
+                if (productId < products) {
+                    counts[productId]++;
+                }
+            }
+        }
+
+        int[][] minutes = new int[products][];
+        int[][] quantities = new int[products][];
+        for (int p = 0; p < products; p++) {
+            if (counts[p] > 0) {
+                minutes[p] = new int[counts[p]];
+                quantities[p] = new int[counts[p]];
+            }
+        }
+        int[] filled = new int[products];
+        for (Segment segment : generation.segments(size)) {
+            int rows = segment.rows(size);
+            for (int i = 0; i < rows; i++) {
+                int productId = segment.productIds.get(i);
+                if (productId < products && filled[productId] < counts[productId]) {
+                    int slot = filled[productId]++;
+                    minutes[productId][slot] = segment.minutes.get(i);
+                    quantities[productId][slot] = segment.quantities.get(i);
+                }
+            }
+        }
+
+        Series[] series = new Series[products];
+        for (int p = 0; p < products; p++) {
+            if (counts[p] > 0) {
+                series[p] = sortedByTime(minutes[p], quantities[p]);
+            }
+        }
+        return series;
+    }
+
+    public static int toEpochMinute(LocalDateTime time) {
+        return Math.toIntExact(time.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return Money.ofDecimal(amount);
+    }
+
+    // Rows are appended in commit order, which can trail timestamp order slightly
+    private static Series sortedByTime(int[] minutes, int[] quantities) {
+        boolean sorted = true;
+        for (int i = 1; i < minutes.length && sorted; i++) {
+            sorted = minutes[i - 1] <= minutes[i];
+        }
+        if (sorted) {
+            return new Series(minutes, quantities);
+        }
+        long[] keys = new long[minutes.length];
+        for (int i = 0; i < minutes.length; i++) {
+            keys[i] = ((long) minutes[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] sortedMinutes = new int[minutes.length];
+        int[] sortedQuantities = new int[minutes.length];
+        for (int i = 0; i < keys.length; i++) {
+            int index = (int) keys[i];
+            sortedMinutes[i] = minutes[index];
+            sortedQuantities[i] = quantities[index];
+        }
+        return new Series(sortedMinutes, sortedQuantities);
+    }
+
+    // The store is usable if it holds exactly the sales up to its highest sale id
+    private boolean matchesDatabase() {
+        Generation generation = current;
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sale_record WHERE id <= ?", Long.class, generation.lastSaleId);
+        return rows != null && rows == generation.size;
+    }
+
+    // Append sales committed while the application was not running
+    private void catchUp() {
+        writeLock.lock();
+        try {
+            Generation generation = current;
+            jdbcTemplate.query("SELECT id, product_id, timestamp, quantity_sold, total_amount FROM sale_record WHERE id > ? ORDER BY id",
+                    rs -> {
+                        Timestamp timestamp = rs.getTimestamp(3);
+                        generation.append(Math.toIntExact(rs.getLong(2)),
+                                timestamp != null ? toEpochMinute(timestamp.toLocalDateTime()) : 0,
+                                rs.getInt(4), toCents(rs.getBigDecimal(5)), rs.getLong(1));
+                    }, generation.lastSaleId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Optional<Path> latestGeneration() {
+        Path root = Paths.get(directory);
+        if (!Files.isDirectory(root)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> children = Files.list(root)) {
+            return children.filter(path -> path.getFileName().toString().matches("gen-\\d+"))
+                    .max(Comparator.comparingLong(SalesColumnStore::generationNumber));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteDirectory(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long generationNumber(Path path) {
+        return Long.parseLong(path.getFileName().toString().substring("gen-".length()));
+    }
+
+    private Generation openGeneration(Path path) {
+        try {
+            return new Generation(path, generationNumber(path), segmentRows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // One complete copy of the sales: a meta file plus fixed-size segment files
+    private static final class Generation {
+        final Path path;
+        final long number;
+        final int segmentRows;
+        final FileChannel metaChannel;
+        final MappedByteBuffer meta;
+        volatile Segment[] segments = new Segment[0];
+        volatile long size;
+        long lastSaleId;
+        volatile int maxProductId;
+        SaleIdSet rebuildIds; // sales read by the rebuild that created this generation, if any
+
+        Generation(Path path, long number, int segmentRows) throws IOException {
+            this.path = path;
+            this.number = number;
+            this.segmentRows = segmentRows;
+            Files.createDirectories(path);
+            metaChannel = FileChannel.open(path.resolve("store.meta"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            meta = metaChannel.map(FileChannel.MapMode.READ_WRITE, 0, META_BYTES);
+            meta.order(ByteOrder.LITTLE_ENDIAN);
+
+            long rows = meta.getLong(0);
+            lastSaleId = meta.getLong(Long.BYTES);
+            int segmentCount = (int) ((rows + segmentRows - 1) / segmentRows);
+            Segment[] opened = new Segment[segmentCount];
+            for (int s = 0; s < segmentCount; s++) {
+                opened[s] = new Segment(path, s, segmentRows);
+                opened[s].recomputeBounds((int) Math.min(segmentRows, rows - (long) s * segmentRows));
+                maxProductId = Math.max(maxProductId, opened[s].maxProductId);
+            }
+            segments = opened;
+            size = rows;
+        }
+
+        // Callers hold the store's write lock, or are the rebuild filling a generation no reader sees yet
+        void append(int productId, int minute, int quantity, long cents, long saleId) {
+            int segmentIndex = (int) (size / segmentRows);
+            int row = (int) (size % segmentRows);
+            if (segmentIndex == segments.length) {
+                try {
+                    Segment[] grown = Arrays.copyOf(segments, segmentIndex + 1);
+                    grown[segmentIndex] = new Segment(path, segmentIndex, segmentRows);
+                    segments = grown;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            segments[segmentIndex].write(row, productId, minute, quantity, cents);
+            maxProductId = Math.max(maxProductId, productId);
+            lastSaleId = Math.max(lastSaleId, saleId);
+            meta.putLong(Long.BYTES, lastSaleId);
+            meta.putLong(0, size + 1);
+            size = size + 1; // publishes the row to readers
+        }
+
+        // Callers hold the store's write lock
+        boolean readByRebuild(long saleId) {
+            return rebuildIds != null && rebuildIds.contains(saleId);
+        }
+
+        List<Segment> segments(long rows) {
+            Segment[] snapshot = segments;
+            int count = (int) Math.min(snapshot.length, (rows + segmentRows - 1) / segmentRows);
+            return Arrays.asList(snapshot).subList(0, count);
+        }
+
+        void force() {
+            meta.force();
+            for (Segment segment : segments) {
+                segment.buffer.force();
+            }
+        }
+
+        void delete() {
+            try {
+                metaChannel.close();
+                for (Segment segment : segments) {
+                    segment.channel.close();
+                }
+                deleteDirectory(path);
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Could not delete old sales column generation {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    // Sale ids as a bitmap offset from the smallest id; identity ids are dense, so ten million
+    // sales take a little over a megabyte. Ids more than 2^31 above the base are not tracked.
+    private static final class SaleIdSet {
+        final long base;
+        final BitSet ids = new BitSet();
+
+        SaleIdSet(long base) {
+            this.base = base;
+        }
+
+        void add(long saleId) {
+            long offset = saleId - base;
+            if (offset >= 0 && offset < Integer.MAX_VALUE) {
+                ids.set((int) offset);
+            }
+        }
+
+        boolean contains(long saleId) {
+            long offset = saleId - base;
+            return offset >= 0 && offset < Integer.MAX_VALUE && ids.get((int) offset);
+        }
+    }
+
+    // Fixed-capacity file holding the four columns of segmentRows sales
+    private static final class Segment {
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final int index;
+        final int capacity;
+        final IntBuffer productIds;
+        final IntBuffer minutes;
+        final IntBuffer quantities;
+        final LongBuffer cents;
+        volatile int minMinute = Integer.MAX_VALUE;
+        volatile int maxMinute = Integer.MIN_VALUE;
+        int maxProductId;
+
+        Segment(Path directory, int index, int capacity) throws IOException {
+            this.index = index;
+            this.capacity = capacity;
+            Path file = directory.resolve(String.format("segment-%05d.col", index));
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * BYTES_PER_ROW);
+            int intColumn = capacity * Integer.BYTES;
+            productIds = buffer.slice(0, intColumn).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            minutes = buffer.slice(intColumn, intColumn).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            quantities = buffer.slice(intColumn * 2, intColumn).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            cents = buffer.slice(intColumn * 3, capacity * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        }
+
+        // Rows of this segment that fall below the given store size
+        int rows(long storeSize) {
+            return (int) Math.min(capacity, storeSize - (long) index * capacity);
+        }
+
+        void write(int row, int productId, int minute, int quantity, long amount) {
+            productIds.put(row, productId);
+            minutes.put(row, minute);
+            quantities.put(row, quantity);
+            cents.put(row, amount);
+            maxProductId = Math.max(maxProductId, productId);
+            if (minute < minMinute) {
+                minMinute = minute;
+            }
+            if (minute > maxMinute) {
+                maxMinute = minute;
+            }
+        }
+
+        void recomputeBounds(int rows) {
+            for (int i = 0; i < rows; i++) {
+                int minute = minutes.get(i);
+                minMinute = Math.min(minMinute, minute);
+                maxMinute = Math.max(maxMinute, minute);
+                maxProductId = Math.max(maxProductId, productIds.get(i));
+            }
+        }
+    }
+}
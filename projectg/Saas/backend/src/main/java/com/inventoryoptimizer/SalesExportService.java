@@ -0,0 +1,319 @@
+package com.inventoryoptimizer;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams sales straight from a forward-only JDBC cursor, so memory use is one fetch batch
+ * (plus one block for the columnar format) however many rows are exported.
+ *
+ * <p>The columnar format is a sequence of blocks after the 8-byte magic "SALESCOL" and a
+ * format version int. Each block starts with its row count (0 ends the stream) followed by
+ * one column at a time, big-endian: id long[], epoch-second timestamp (UTC wall clock)
+ * long[], product id long[], quantity int[], unit price cents long[] ({@link Long#MIN_VALUE}
+ * when absent), total cents long[], then location and customer name as dictionary columns
+ * (entry count, UTF strings, int code per row, -1 for null).
+ */
+@Service
+public class SalesExportService {
+    public static final String CSV = "csv";
+    public static final String COLUMNAR = "columnar";
+    static final byte[] COLUMNAR_MAGIC = "SALESCOL".getBytes(StandardCharsets.US_ASCII);
+    static final int COLUMNAR_VERSION = 1;
+    static final long NO_PRICE = Long.MIN_VALUE;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${inventory.export.fetch-size:10000}")
+    private int fetchSize;
+
+    @Value("${inventory.export.block-rows:65536}")
+    private int blockRows;
+
+    private JdbcTemplate cursorTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    // Optional filters; sales in [from, to), null fields are not applied
+    public record ExportFilter(LocalDateTime from, LocalDateTime to, Long productId) {}
+
+    // One sale as read back from the columnar format
+    public record ColumnarSale(long id, LocalDateTime timestamp, long productId, int quantity,
+                               BigDecimal unitPrice, BigDecimal totalAmount, String location, String customerName) {}
+
+    @PostConstruct
+    void init() {
+        cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursorTemplate.setFetchSize(fetchSize);
+        // PostgreSQL only streams with a fetch size inside a transaction
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void export(String format, ExportFilter filter, OutputStream out) throws IOException {
+        if (CSV.equals(format)) {
+            exportCsv(filter, out);
+        } else if (COLUMNAR.equals(format)) {
+            exportColumnar(filter, out);
+        } else {
+            throw new IllegalArgumentException("Unsupported export format: " + format + " (expected csv or columnar)");
+        }
+    }
+
+    private void exportCsv(ExportFilter filter, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(new BufferedOutputStream(out, 1 << 16), StandardCharsets.UTF_8);
+        writer.write("id,timestamp,productId,sku,productName,location,quantitySold,unitPrice,totalAmount,customerName,notes\n");
+        StringBuilder line = new StringBuilder(256);
+        stream(filter, "s.id, s.timestamp, s.product_id, p.sku, p.name, s.location, s.quantity_sold, " +
+                "s.unit_price, s.total_amount, s.customer_name, s.notes", rs -> {
+            line.setLength(0);
+            line.append(rs.getLong(1)).append(',')
+                .append(rs.getTimestamp(2).toLocalDateTime()).append(',')
+                .append(rs.getLong(3)).append(',');
+            appendCsv(line, rs.getString(4)).append(',');
+            appendCsv(line, rs.getString(5)).append(',');
+            appendCsv(line, rs.getString(6)).append(',');
+            line.append(rs.getInt(7)).append(',');
+            BigDecimal unitPrice = rs.getBigDecimal(8);
+            BigDecimal totalAmount = rs.getBigDecimal(9);
+            line.append(unitPrice != null ? unitPrice.toPlainString() : "").append(',')
+                .append(totalAmount != null ? totalAmount.toPlainString() : "").append(',');
+            appendCsv(line, rs.getString(10)).append(',');
+            appendCsv(line, rs.getString(11)).append('\n');
+            write(writer, line);
+        });
+        writer.flush();
+    }
+
+    private void exportColumnar(ExportFilter filter, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        data.write(COLUMNAR_MAGIC);
+        data.writeInt(COLUMNAR_VERSION);
+        ColumnBlock block = new ColumnBlock(blockRows);
+        stream(filter, "s.id, s.timestamp, s.product_id, s.quantity_sold, s.unit_price, s.total_amount, " +
+                "s.location, s.customer_name", rs -> {
+            BigDecimal unitPrice = rs.getBigDecimal(5);
+            block.add(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), rs.getLong(3), rs.getInt(4),
+                    unitPrice != null ? Money.ofDecimal(unitPrice) : NO_PRICE, Money.ofDecimal(rs.getBigDecimal(6)),
+                    rs.getString(7), rs.getString(8));
+            if (block.size == blockRows) {
+                writeBlock(data, block);
+            }
+        });
+        writeBlock(data, block);
+        data.writeInt(0);
+        data.flush();
+    }
+
+    private void stream(ExportFilter filter, String columns, RowWriter rowWriter) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns)
+                .append(" FROM sale_record s LEFT JOIN product p ON p.id = s.product_id WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (filter.from() != null) {
+            sql.append(" AND s.timestamp >= ?");
+            params.add(filter.from());
+        }
+        if (filter.to() != null) {
+            sql.append(" AND s.timestamp < ?");
+            params.add(filter.to());
+        }
+        if (filter.productId() != null) {
+            sql.append(" AND s.product_id = ?");
+            params.add(filter.productId());
+        }
+        sql.append(" ORDER BY s.timestamp, s.id");
+
+        readOnlyTransaction.executeWithoutResult(status -> cursorTemplate.query(sql.toString(), rs -> {
+            try {
+                rowWriter.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, params.toArray()));
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private static void write(Writer writer, CharSequence line) {
+        try {
+            writer.append(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static StringBuilder appendCsv(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    // Column buffers for one block of the columnar format
+    private static class ColumnBlock {
+        final long[] ids;
+        final long[] seconds;
+        final long[] productIds;
+        final int[] quantities;
+        final long[] unitPrices;
+        final long[] totals;
+        final Dictionary locations;
+        final Dictionary customers;
+        int size;
+
+        ColumnBlock(int capacity) {
+            ids = new long[capacity];
+            seconds = new long[capacity];
+            productIds = new long[capacity];
+            quantities = new int[capacity];
+            unitPrices = new long[capacity];
+            totals = new long[capacity];
+            locations = new Dictionary(capacity);
+            customers = new Dictionary(capacity);
+        }
+
+        void add(long id, LocalDateTime timestamp, long productId, int quantity, long unitPrice, long total,
+                 String location, String customer) {
+            ids[size] = id;
+            seconds[size] = timestamp.toEpochSecond(ZoneOffset.UTC);
+            productIds[size] = productId;
+            quantities[size] = quantity;
+            unitPrices[size] = unitPrice;
+            totals[size] = total;
+            locations.add(size, location);
+            customers.add(size, customer);
+            size++;
+        }
+    }
+
+    // Per-block dictionary encoding of a string column
+    private static class Dictionary {
+        final Map<String, Integer> codes = new HashMap<>();
+        final List<String> values = new ArrayList<>();
+        final int[] rows;
+
+        Dictionary(int capacity) {
+            rows = new int[capacity];
+        }
+
+        void add(int row, String value) {
+            rows[row] = value == null ? -1 : codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        void write(DataOutputStream out, int size) throws IOException {
+            out.writeInt(values.size());
+            for (String value : values) {
+                out.writeUTF(value);
+            }
+            for (int i = 0; i < size; i++) {
+                out.writeInt(rows[i]);
+            }
+            codes.clear();
+            values.clear();
+        }
+    }
+
+    private static void writeBlock(DataOutputStream out, ColumnBlock block) {
+        if (block.size == 0) {
+            return;
+        }
+        try {
+            int size = block.size;
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) out.writeLong(block.ids[i]);
+            for (int i = 0; i < size; i++) out.writeLong(block.seconds[i]);
+            for (int i = 0; i < size; i++) out.writeLong(block.productIds[i]);
+            for (int i = 0; i < size; i++) out.writeInt(block.quantities[i]);
+            for (int i = 0; i < size; i++) out.writeLong(block.unitPrices[i]);
+            for (int i = 0; i < size; i++) out.writeLong(block.totals[i]);
+            block.locations.write(out, size);
+            block.customers.write(out, size);
+            block.size = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Decode a columnar export; used by tests and as the reference reader for the format
+    public static void readColumnar(InputStream in, Consumer<ColumnarSale> consumer) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte[] magic = new byte[COLUMNAR_MAGIC.length];
+        data.readFully(magic);
+        if (!Arrays.equals(magic, COLUMNAR_MAGIC) || data.readInt() != COLUMNAR_VERSION) {
+            throw new IOException("Not a sales columnar export");
+        }
+        int size;
+        while ((size = data.readInt()) > 0) {
+            long[] ids = readLongs(data, size);
+            long[] seconds = readLongs(data, size);
+            long[] productIds = readLongs(data, size);
+            int[] quantities = new int[size];
+            for (int i = 0; i < size; i++) quantities[i] = data.readInt();
+            long[] unitPrices = readLongs(data, size);
+            long[] totals = readLongs(data, size);
+            String[] locations = readDictionary(data, size);
+            String[] customers = readDictionary(data, size);
+            for (int i = 0; i < size; i++) {
+                consumer.accept(new ColumnarSale(ids[i], LocalDateTime.ofEpochSecond(seconds[i], 0, ZoneOffset.UTC),
+                        productIds[i], quantities[i], unitPrices[i] == NO_PRICE ? null : Money.toDecimal(unitPrices[i]),
+                        Money.toDecimal(totals[i]), locations[i], customers[i]));
+            }
+        }
+    }
+
+    private static long[] readLongs(DataInputStream data, int size) throws IOException {
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) values[i] = data.readLong();
+        return values;
+    }
+
+    private static String[] readDictionary(DataInputStream data, int size) throws IOException {
+        String[] entries = new String[data.readInt()];
+        for (int i = 0; i < entries.length; i++) entries[i] = data.readUTF();
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            int code = data.readInt();
+            values[i] = code < 0 ? null : entries[code];
+        }
+        return values;
+    }
+}
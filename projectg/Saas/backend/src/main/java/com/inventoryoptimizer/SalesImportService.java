@@ -0,0 +1,427 @@
+package com.inventoryoptimizer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Bulk import of historical sales from CSV or NDJSON. Rows are parsed one at a time from the
+ * request stream, SKUs are resolved through a map loaded once, and accepted rows are written
+ * in large batches (COPY on PostgreSQL, batched INSERTs elsewhere), each batch in its own
+ * transaction. Stock is left alone unless asked for, and derived data (rollup, sketches,
+ * column store, customer aggregates) is rebuilt once at the end instead of per sale. A stream that
+ * fails partway keeps the batches already committed, and those still get their stock and rebuild.
+ */
+@Service
+public class SalesImportService {
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final String COLUMNS =
+            "product_id, quantity_sold, timestamp, unit_price, total_amount, customer_name, customer_key, notes, location";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalesColumnStore salesColumnStore;
+
+    @Autowired
+    private SalesRankingService salesRankingService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private LogService logService;
+
+    @Value("${inventory.import.batch-size:5000}")
+    private int batchSize;
+
+    private boolean postgres;
+    private TransactionTemplate transactionTemplate;
+
+    // One accepted row, ready to be written
+    private record ImportedSale(long productId, int quantity, LocalDateTime timestamp, BigDecimal unitPrice,
+                                BigDecimal totalAmount, String customerName, String notes, String location) {}
+
+    @PostConstruct
+    void init() throws SQLException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        }
+    }
+
+    // Import every row of the stream; adjustStock also takes the imported quantities off current stock
+    public Map<String, Object> importSales(InputStream input, String format, boolean adjustStock) throws IOException {
+        long start = System.nanoTime();
+        Map<String, Long> productsBySku = new HashMap<>();
+        Set<Long> productIds = new HashSet<>();
+        jdbcTemplate.query("SELECT id, sku FROM product",
+                rs -> {
+                    productIds.add(rs.getLong(1));
+                    if (rs.getString(2) != null) {
+                        productsBySku.put(rs.getString(2).toLowerCase(Locale.ROOT), rs.getLong(1));
+                    }
+                });
+
+        List<ImportedSale> batch = new ArrayList<>(batchSize);
+        List<Map<String, Object>> errors = new ArrayList<>();
+        Map<String, Integer> stockTaken = new LinkedHashMap<>();
+        long[] counts = new long[2]; // imported, rejected
+        LocalDate[] earliest = new LocalDate[1];
+
+        ObjLongConsumer<String> reject = (message, line) -> {
+            counts[1]++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("line", line);
+                error.put("error", message);
+                errors.add(error);
+            }
+        };
+        // Only rows of committed batches count towards stock and the rebuild window
+        Runnable flush = () -> {
+            counts[0] += writeBatch(batch);
+            for (ImportedSale sale : batch) {
+                if (earliest[0] == null || sale.timestamp().toLocalDate().isBefore(earliest[0])) {
+                    earliest[0] = sale.timestamp().toLocalDate();
+                }
+                if (adjustStock) {
+                    stockTaken.merge(sale.productId() + "\u0000" + sale.location(), sale.quantity(), Integer::sum);
+                }
+            }
+            batch.clear();
+        };
+        RowHandler handler = (line, row) -> {
+            try {
+                batch.add(toSale(row, productsBySku, productIds));
+            } catch (IllegalArgumentException e) {
+                reject.accept(e.getMessage(), line);
+                return;
+            }
+            if (batch.size() >= batchSize) {
+                flush.run();
+            }
+        };
+
+        if (!NDJSON.equals(format) && !CSV.equals(format)) {
+            throw new IllegalArgumentException("Unsupported import format: " + format + " (expected csv or ndjson)");
+        }
+        boolean completed = false;
+        long loadedNanos;
+        try {
+            if (NDJSON.equals(format)) {
+                readNdjson(input, handler, reject);
+            } else {
+                readCsv(input, handler);
+            }
+            flush.run();
+            completed = true;
+        } finally {
+            // Batches already committed stay committed when a later one, the parser or the client
+            // fails, so stock and derived data must follow them either way
+            loadedNanos = System.nanoTime() - start;
+            if (counts[0] > 0) {
+                for (Map.Entry<String, Integer> taken : stockTaken.entrySet()) {
+                    String[] key = taken.getKey().split("\u0000", 2);
+                    productService.applyImportedSales(Long.valueOf(key[0]), key[1], taken.getValue());
+                }
+                rebuildDerivedData(earliest[0]);
+                logService.createLog("IMPORT", "SaleRecord", null,
+                        String.format("Imported %d sales (%d rejected) from %s%s%s", counts[0], counts[1], format,
+                                adjustStock ? " and adjusted stock" : "", completed ? "" : " before the import failed"),
+                        "system");
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("format", format);
+        report.put("adjustStock", adjustStock);
+        report.put("imported", counts[0]);
+        report.put("rejected", counts[1]);
+        report.put("errors", errors);
+        report.put("loadMillis", loadedNanos / 1_000_000);
+        report.put("elapsedMillis", elapsedNanos / 1_000_000);
+        report.put("rowsPerSecond", loadedNanos > 0 ? Math.round(counts[0] / (loadedNanos / 1e9)) : 0);
+        return report;
+    }
+
+    // Row number (1-based, data rows only) and its fields by lower-cased column name
+    @FunctionalInterface
+    private interface RowHandler {
+        void accept(long line, Map<String, String> row);
+    }
+
+    private ImportedSale toSale(Map<String, String> row, Map<String, Long> productsBySku, Set<Long> productIds) {
+        Long productId;
+        String sku = field(row, "sku");
+        if (sku != null) {
+            productId = productsBySku.get(sku.toLowerCase(Locale.ROOT));
+            if (productId == null) {
+                throw new IllegalArgumentException("Unknown SKU: " + sku);
+            }
+        } else if (field(row, "productid") != null) {
+            productId = parse(row, "productid", Long::valueOf);
+            if (!productIds.contains(productId)) {
+                throw new IllegalArgumentException("Unknown product id: " + productId);
+            }
+        } else {
+            throw new IllegalArgumentException("Row needs a sku or productId");
+        }
+
+        String quantityField = field(row, "quantitysold") != null ? "quantitysold" : "quantity";
+        Integer quantity = parse(row, quantityField, Integer::valueOf);
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("quantitySold must be a positive number");
+        }
+        LocalDateTime timestamp = parse(row, "timestamp", LocalDateTime::parse);
+        if (timestamp == null) {
+            throw new IllegalArgumentException("timestamp is required");
+        }
+        BigDecimal unitPrice = parse(row, "unitprice", BigDecimal::new);
+        BigDecimal totalAmount = parse(row, "totalamount", BigDecimal::new);
+        if (totalAmount == null) {
+            totalAmount = unitPrice != null ? unitPrice.multiply(BigDecimal.valueOf(quantity)) : BigDecimal.ZERO;
+        }
+        String location = field(row, "location");
+        return new ImportedSale(productId, quantity, timestamp, unitPrice, totalAmount,
+                field(row, "customername"), field(row, "notes"), location != null ? location : LocationStock.DEFAULT_LOCATION);
+    }
+
+    private static String field(Map<String, String> row, String name) {
+        String value = row.get(name);
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(Map<String, String> row, String name, Function<String, T> parser) {
+        String value = field(row, name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    // Write the batch in its own transaction
+    private int writeBatch(List<ImportedSale> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int written = batch.size();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (postgres) {
+                copyBatch(batch);
+            } else {
+                insertBatch(batch);
+            }
+        });
+        return written;
+    }
+
+    private void insertBatch(List<ImportedSale> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (ImportedSale sale : batch) {
+            rows.add(new Object[] {sale.productId(), sale.quantity(), Timestamp.valueOf(sale.timestamp()),
+                    sale.unitPrice(), sale.totalAmount(), sale.customerName(), SaleRecord.customerKey(sale.customerName()),
+                    sale.notes(), sale.location()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO sale_record (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // COPY .. FROM STDIN skips per-row statement overhead; the batch is sent as CSV text
+    private void copyBatch(List<ImportedSale> batch) {
+        StringBuilder csv = new StringBuilder(batch.size() * 96);
+        for (ImportedSale sale : batch) {
+            csv.append(sale.productId()).append(',')
+               .append(sale.quantity()).append(',')
+               .append(Timestamp.valueOf(sale.timestamp())).append(',')
+               .append(sale.unitPrice() != null ? sale.unitPrice().toPlainString() : "").append(',')
+               .append(sale.totalAmount().toPlainString()).append(',');
+            appendCsvText(csv, sale.customerName());
+            csv.append(',');
+            appendCsvText(csv, SaleRecord.customerKey(sale.customerName()));
+            csv.append(',');
+            appendCsvText(csv, sale.notes());
+            csv.append(',');
+            appendCsvText(csv, sale.location());
+            csv.append('\n');
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                        "COPY sale_record (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)", new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Unquoted empty is NULL in COPY csv, so every non-null text value is quoted
+    private static void appendCsvText(StringBuilder csv, String value) {
+        if (value != null) {
+            csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    private void rebuildDerivedData(LocalDate earliest) {
+        salesRollupService.rebuildFrom(earliest);
+        salesColumnStore.rebuild();
+        customerService.rebuildAll();
+        salesRankingService.evictAllAfterCommit();
+    }
+
+    // One JSON object per line; a line that is not valid JSON is rejected on its own
+    private void readNdjson(InputStream input, RowHandler handler, ObjLongConsumer<String> reject) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        ObjectReader rowReader = objectMapper.readerForMapOf(Object.class);
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            if (text.isBlank()) {
+                continue;
+            }
+            line++;
+            Map<String, Object> row;
+            try {
+                row = rowReader.readValue(text);
+            } catch (JsonProcessingException e) {
+                reject.accept("Malformed JSON: " + e.getOriginalMessage(), line);
+                continue;
+            }
+            if (row == null) {
+                reject.accept("Row must be a JSON object", line);
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (Map.Entry<String, Object> entry : row.entrySet()) {
+                if (entry.getValue() != null) {
+                    fields.put(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue().toString());
+                }
+            }
+            handler.accept(line, fields);
+        }
+    }
+
+    // RFC 4180 CSV with a header row; quoted fields may contain commas, quotes and newlines
+    private void readCsv(InputStream input, RowHandler handler) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return;
+        }
+        List<String> columns = new ArrayList<>();
+        for (String column : header) {
+            columns.add(column.trim().toLowerCase(Locale.ROOT));
+        }
+        if (!columns.contains("sku") && !columns.contains("productid")) {
+            throw new IllegalArgumentException("CSV header needs a sku or productId column");
+        }
+
+        long line = 0;
+        List<String> record;
+        while ((record = readCsvRecord(reader)) != null) {
+            line++;
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < Math.min(columns.size(), record.size()); i++) {
+                fields.put(columns.get(i), record.get(i));
+            }
+            handler.accept(line, fields);
+        }
+    }
+
+    private static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,309 @@
+package com.inventoryoptimizer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Best sellers and week-over-week style movers over windows of whole days ending today.
+ * Per-product totals come from AnalyticsService (rollup plus today's sales) and the top N
+ * are picked with a bounded heap. Results are cached per window until a sale whose
+ * timestamp falls inside that window commits.
+ */
+@Service
+public class SalesRankingService {
+    public static final List<String> METRICS = List.of("units", "revenue", "count");
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventory.analytics.ranking.max-days:366}")
+    private int maxDays;
+
+    @Value("${inventory.analytics.ranking.max-limit:100}")
+    private int maxLimit;
+
+    // A cached response and the sale timestamps [from, to) it covers
+    private record Cached(LocalDateTime from, LocalDateTime to, Map<String, Object> result) {}
+
+    // Current/previous totals of one product for the movers ranking
+    private record Move(Long productId, long current, long previous) {
+        long change() {
+            return current - previous;
+        }
+    }
+
+    // A window being computed; a sale committing inside it meanwhile marks the result stale
+    private static final class Computing {
+        final LocalDateTime from;
+        final LocalDateTime to;
+        volatile boolean stale;
+
+        Computing(LocalDateTime from, LocalDateTime to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+    private final Set<Computing> computing = ConcurrentHashMap.newKeySet();
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    @PostConstruct
+    void registerCacheMetrics() {
+        cacheHits = MetricsConfig.cacheCounter(meterRegistry, "ranking", "hit");
+        cacheMisses = MetricsConfig.cacheCounter(meterRegistry, "ranking", "miss");
+        meterRegistry.gaugeMapSize(MetricsConfig.CACHE_SIZE, Tags.of("cache", "ranking"), cache);
+    }
+
+    // Top products over the last `days` days including today
+    @Transactional(readOnly = true)
+    public Map<String, Object> topProducts(String metric, int days, int limit) {
+        validate(metric, days, limit);
+        LocalDateTime to = LocalDate.now().plusDays(1).atStartOfDay();
+        LocalDateTime from = to.minusDays(days);
+        String key = "top:" + metric + ":" + days + ":" + limit + ":" + from;
+
+        return cached(key, from, to, () -> {
+            Map<Long, long[]> totals = analyticsService.aggregateByProduct(from, to);
+            ToLongFunction<long[]> value = extractor(metric);
+            List<Map.Entry<Long, long[]>> top = topN(totals.entrySet(), limit,
+                    Comparator.comparingLong((Map.Entry<Long, long[]> e) -> value.applyAsLong(e.getValue()))
+                            .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()));
+
+            Map<Long, String> names = productNames(top.stream().map(Map.Entry::getKey).toList());
+            List<Map<String, Object>> products = new ArrayList<>();
+            for (Map.Entry<Long, long[]> entry : top) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("rank", products.size() + 1);
+                row.put("productId", entry.getKey());
+                row.put("productName", names.get(entry.getKey()));
+                row.put("units", entry.getValue()[0]);
+                row.put("revenue", Money.toDecimal(entry.getValue()[1]));
+                row.put("count", entry.getValue()[2]);
+                products.add(row);
+            }
+
+            Map<String, Object> result = window(metric, days, from, to);
+            result.put("products", products);
+            return result;
+        });
+    }
+
+    // Biggest gainers and decliners of the last `days` days against the `days` days before
+    @Transactional(readOnly = true)
+    public Map<String, Object> movers(String metric, int days, int limit) {
+        validate(metric, days, limit);
+        LocalDateTime to = LocalDate.now().plusDays(1).atStartOfDay();
+        LocalDateTime from = to.minusDays(days);
+        LocalDateTime previousFrom = from.minusDays(days);
+        String key = "movers:" + metric + ":" + days + ":" + limit + ":" + from;
+
+        return cached(key, previousFrom, to, () -> {
+            Map<Long, long[]> current = analyticsService.aggregateByProduct(from, to);
+            Map<Long, long[]> previous = analyticsService.aggregateByProduct(previousFrom, from);
+            ToLongFunction<long[]> value = extractor(metric);
+
+            Set<Long> productIds = new HashSet<>(current.keySet());
+            productIds.addAll(previous.keySet());
+            List<Move> moves = new ArrayList<>(productIds.size());
+            for (Long productId : productIds) {
+                long now = current.containsKey(productId) ? value.applyAsLong(current.get(productId)) : 0;
+                long before = previous.containsKey(productId) ? value.applyAsLong(previous.get(productId)) : 0;
+                if (now != before) {
+                    moves.add(new Move(productId, now, before));
+                }
+            }
+
+            Comparator<Move> byChange = Comparator.comparingLong(Move::change)
+                    .thenComparing(Move::productId, Comparator.reverseOrder());
+            List<Move> gainers = topN(moves.stream().filter(m -> m.change() > 0).toList(), limit, byChange);
+            List<Move> decliners = topN(moves.stream().filter(m -> m.change() < 0).toList(), limit,
+                    Comparator.comparingLong((Move m) -> -m.change()).thenComparing(Move::productId, Comparator.reverseOrder()));
+
+            List<Long> shown = new ArrayList<>();
+            gainers.forEach(m -> shown.add(m.productId()));
+            decliners.forEach(m -> shown.add(m.productId()));
+            Map<Long, String> names = productNames(shown);
+
+            Map<String, Object> result = window(metric, days, from, to);
+            result.put("previousFrom", previousFrom);
+            result.put("gainers", moveRows(gainers, metric, names));
+            result.put("decliners", moveRows(decliners, metric, names));
+            return result;
+        });
+    }
+
+    // Drop cached windows that contain any of these sales once they are committed. Windows
+    // still being computed are marked first, so their result is not cached after the eviction.
+    public void evictAfterCommit(List<SaleRecord> sales) {
+        List<LocalDateTime> timestamps = sales.stream().map(SaleRecord::getTimestamp).toList();
+        BiPredicate<LocalDateTime, LocalDateTime> covers = (from, to) -> timestamps.stream()
+                .anyMatch(t -> t == null || (!t.isBefore(from) && t.isBefore(to)));
+        afterCommit(() -> {
+            computing.forEach(window -> {
+                if (covers.test(window.from, window.to)) {
+                    window.stale = true;
+                }
+            });
+            cache.values().removeIf(cached -> covers.test(cached.from(), cached.to()));
+        });
+    }
+
+    // Sales were removed or rewritten in bulk; every cached window is stale
+    public void evictAllAfterCommit() {
+        afterCommit(() -> {
+            computing.forEach(window -> window.stale = true);
+            cache.clear();
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    Map<String, Object> cached(String key, LocalDateTime from, LocalDateTime to,
+                               Supplier<Map<String, Object>> compute) {
+        Cached hit = cache.get(key);
+        if (hit != null) {
+            cacheHits.increment();
+            Map<String, Object> result = new HashMap<>(hit.result());
+            result.put("cached", true);
+            return result;
+        }
+
+        cacheMisses.increment();
+        // Windows that started on an earlier day can no longer be requested
+        cache.values().removeIf(cached -> cached.to().isBefore(to));
+        Computing window = new Computing(from, to);
+        computing.add(window);
+        Map<String, Object> result;
+        try {
+            result = compute.get();
+            result.put("computedAt", LocalDateTime.now());
+            Cached entry = new Cached(from, to, result);
+            cache.put(key, entry);
+            // Checked after the put: an eviction that missed the entry has marked the window by now
+            if (window.stale) {
+                cache.remove(key, entry);
+            }
+        } finally {
+            computing.remove(window);
+        }
+
+        Map<String, Object> response = new HashMap<>(result);
+        response.put("cached", false);
+        return response;
+    }
+
+    private void validate(String metric, int days, int limit) {
+        if (!METRICS.contains(metric)) {
+            throw new IllegalArgumentException("Unknown metric: " + metric + " (expected one of " + METRICS + ")");
+        }
+        if (days < 1 || days > maxDays) {
+            throw new IllegalArgumentException("days must be between 1 and " + maxDays);
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+    }
+
+    private static ToLongFunction<long[]> extractor(String metric) {
+        return switch (metric) {
+            case "units" -> sums -> sums[0];
+            case "revenue" -> sums -> sums[1];
+            default -> sums -> sums[2];
+        };
+    }
+
+    // The `limit` largest items by `order`, largest first, keeping at most limit + 1 in memory
+    private static <T> List<T> topN(Iterable<T> items, int limit, Comparator<T> order) {
+        PriorityQueue<T> heap = new PriorityQueue<>(limit + 1, order);
+        for (T item : items) {
+            heap.offer(item);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<T> top = new ArrayList<>(heap);
+        top.sort(order.reversed());
+        return top;
+    }
+
+    private static Map<String, Object> window(String metric, int days, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("metric", metric);
+        result.put("days", days);
+        result.put("from", from);
+        result.put("to", to);
+        return result;
+    }
+
+    private static List<Map<String, Object>> moveRows(List<Move> moves, String metric, Map<Long, String> names) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Move move : moves) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("rank", rows.size() + 1);
+            row.put("productId", move.productId());
+            row.put("productName", names.get(move.productId()));
+            row.put("current", metricValue(metric, move.current()));
+            row.put("previous", metricValue(metric, move.previous()));
+            row.put("change", metricValue(metric, move.change()));
+            row.put("changePercent", move.previous() != 0
+                    ? Math.round(move.change() * 1000.0 / move.previous()) / 10.0 : null);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Object metricValue(String metric, long value) {
+        return metric.equals("revenue") ? Money.toDecimal(value) : value;
+    }
+
+    private Map<Long, String> productNames(List<Long> productIds) {
+        Map<Long, String> names = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            names.put(product.getId(), product.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,105 @@
+package com.inventoryoptimizer;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maintains sales_daily_rollup: units, revenue and sale count per product per day. A day is
+ * rolled up once it is over (plus a short lag for transactions still committing) and is then
+ * final, so the rollup never needs row-level upkeep on the sale path. Anything that changes
+ * sales of past days (imports, deletes) moves the finalized watermark back with
+ * {@link #invalidateFrom} and the next run recomputes from there.
+ */
+@Service
+public class SalesRollupService {
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupService.class);
+    private static final String STATE_NAME = "sales_daily_rollup";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SalesSketchService salesSketchService;
+
+    // Sales can still commit for a short while after midnight with yesterday's timestamp
+    @Value("${inventory.rollup.finalize-lag-minutes:5}")
+    private long finalizeLagMinutes;
+
+    // Days the rollup has not finalized yet are kept in memory by the sketch service
+    @PostConstruct
+    void loadLiveSketches() {
+        salesSketchService.loadLiveDays(getFinalizedBefore());
+    }
+
+    // First day the rollup does not cover yet; null before the first run
+    public LocalDate getFinalizedBefore() {
+        List<Date> rows = jdbcTemplate.queryForList(
+                "SELECT finalized_before FROM sales_rollup_state WHERE name = ?", Date.class, STATE_NAME);
+        return rows.isEmpty() || rows.get(0) == null ? null : rows.get(0).toLocalDate();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.rollup.interval-millis:60000}")
+    @Transactional
+    public void rollUp() {
+        LocalDate target = LocalDateTime.now().minusMinutes(finalizeLagMinutes).toLocalDate();
+        LocalDate from = getFinalizedBefore();
+        if (from == null) {
+            Date earliest = jdbcTemplate.queryForObject("SELECT CAST(MIN(timestamp) AS DATE) FROM sale_record", Date.class);
+            from = earliest != null ? earliest.toLocalDate() : target;
+        }
+        if (from.isBefore(target)) {
+            jdbcTemplate.update("DELETE FROM sales_daily_rollup WHERE sale_date >= ? AND sale_date < ?", from, target);
+            int rows = jdbcTemplate.update(
+                    "INSERT INTO sales_daily_rollup (sale_date, product_id, units, revenue_cents, sale_count) " +
+                    "SELECT CAST(timestamp AS DATE), product_id, SUM(quantity_sold), " +
+                    "CAST(COALESCE(SUM(total_amount), 0) * 100 AS BIGINT), COUNT(*) " +
+                    "FROM sale_record WHERE timestamp >= ? AND timestamp < ? " +
+                    "GROUP BY CAST(timestamp AS DATE), product_id",
+                    from.atStartOfDay(), target.atStartOfDay());
+            salesSketchService.persistDays(from, target);
+            log.info("Rolled up sales for {} to {}: {} product-days", from, target.minusDays(1), rows);
+        }
+        saveFinalizedBefore(target);
+    }
+
+    // Sales on or after this day changed; they are recomputed on the next run
+    @Transactional
+    public void invalidateFrom(LocalDate day) {
+        LocalDate finalizedBefore = getFinalizedBefore();
+        if (finalizedBefore != null && day.isBefore(finalizedBefore)) {
+            saveFinalizedBefore(day);
+        }
+    }
+
+    // Sales on or after this day were loaded in bulk: recompute the rollup and sketches now.
+    // Open-day sketches are reloaded from sale_record, so sales recorded meanwhile may be missed until restart.
+    public void rebuildFrom(LocalDate day) {
+        invalidateFrom(day);
+        rollUp();
+        salesSketchService.loadLiveDays(getFinalizedBefore());
+    }
+
+    // A product's sales were deleted
+    public void deleteProduct(Long productId) {
+        jdbcTemplate.update("DELETE FROM sales_daily_rollup WHERE product_id = ?", productId);
+        salesSketchService.deleteProduct(productId);
+    }
+
+    private void saveFinalizedBefore(LocalDate day) {
+        if (jdbcTemplate.update("UPDATE sales_rollup_state SET finalized_before = ? WHERE name = ?", day, STATE_NAME) == 0) {
+            jdbcTemplate.update("INSERT INTO sales_rollup_state (name, finalized_before) VALUES (?, ?)", STATE_NAME, day);
+        }
+    }
+}
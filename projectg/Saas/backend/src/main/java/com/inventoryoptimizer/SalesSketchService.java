@@ -0,0 +1,276 @@
+package com.inventoryoptimizer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mergeable per-product, per-day sketches of sales: a HyperLogLog of distinct customers and
+ * quantile sketches of quantity and ticket size. Days that are still open live in memory and
+ * are updated as sales commit; once SalesRollupService finalizes a day its sketches are
+ * rebuilt from sale_record and stored in sales_daily_sketch. A date-range answer merges one
+ * sketch per day, so its memory use does not depend on the number of sales.
+ */
+@Service
+public class SalesSketchService {
+    // Sketch rows with this product id cover all products of the day
+    public static final long ALL_PRODUCTS = 0;
+    public static final List<String> QUANTILE_METRICS = List.of("quantity", "ticket");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${inventory.analytics.sketch.max-days:366}")
+    private int maxDays;
+
+    // Sketches of one product, or of all products, over one or more days
+    static class DailySketch {
+        final HyperLogLog customers;
+        final QuantileSketch quantities;
+        final QuantileSketch tickets;
+
+        DailySketch() {
+            this(new HyperLogLog(), new QuantileSketch(), new QuantileSketch());
+        }
+
+        DailySketch(HyperLogLog customers, QuantileSketch quantities, QuantileSketch tickets) {
+            this.customers = customers;
+            this.quantities = quantities;
+            this.tickets = tickets;
+        }
+
+        synchronized void add(String customerName, int quantity, BigDecimal totalAmount) {
+            String customerKey = SaleRecord.customerKey(customerName);
+            if (customerKey != null) {
+                customers.add(customerKey);
+            }
+            quantities.add(Math.max(quantity, 0));
+            tickets.add(Math.max(Money.ofDecimal(totalAmount), 0));
+        }
+
+        synchronized void mergeInto(DailySketch target) {
+            target.customers.merge(customers);
+            target.quantities.merge(quantities);
+            target.tickets.merge(tickets);
+        }
+    }
+
+    // Open days, fed by committed sales: day -> product id (or ALL_PRODUCTS) -> sketch
+    private final Map<LocalDate, Map<Long, DailySketch>> liveDays = new ConcurrentHashMap<>();
+
+    // First day that is served from memory rather than sales_daily_sketch
+    private volatile LocalDate liveFrom = LocalDate.now();
+
+    // Rebuild the open days from sale_record; called once at startup with the rollup watermark
+    void loadLiveDays(LocalDate finalizedBefore) {
+        liveFrom = finalizedBefore != null ? finalizedBefore : LocalDate.now();
+        liveDays.clear();
+        jdbcTemplate.query(
+                "SELECT product_id, customer_name, quantity_sold, total_amount, timestamp FROM sale_record WHERE timestamp >= ?",
+                rs -> {
+                    addLive(rs.getTimestamp(5).toLocalDateTime().toLocalDate(), rs.getLong(1),
+                            rs.getString(2), rs.getInt(3), rs.getBigDecimal(4));
+                },
+                liveFrom.atStartOfDay());
+    }
+
+    public void addAfterCommit(List<SaleRecord> sales) {
+        Runnable add = () -> {
+            for (SaleRecord sale : sales) {
+                addLive(sale.getTimestamp().toLocalDate(), sale.getProduct().getId(),
+                        sale.getCustomerName(), sale.getQuantitySold(), sale.getTotalAmount());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add.run();
+                }
+            });
+        } else {
+            add.run();
+        }
+    }
+
+    // Store the sketches of the days in [from, to), rebuilt from sale_record, in the caller's transaction
+    void persistDays(LocalDate from, LocalDate to) {
+        jdbcTemplate.update("DELETE FROM sales_daily_sketch WHERE sale_date >= ? AND sale_date < ?", from, to);
+
+        // Sales arrive in time order, so only one day's sketches are held at a time
+        LocalDate[] day = new LocalDate[1];
+        Map<Long, DailySketch> sketches = new HashMap<>();
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT product_id, customer_name, quantity_sold, total_amount, timestamp FROM sale_record " +
+                "WHERE timestamp >= ? AND timestamp < ? ORDER BY timestamp",
+                rs -> {
+                    LocalDate saleDay = rs.getTimestamp(5).toLocalDateTime().toLocalDate();
+                    if (!saleDay.equals(day[0])) {
+                        insertDay(day[0], sketches, counts);
+                        day[0] = saleDay;
+                    }
+                    long productId = rs.getLong(1);
+                    for (long key : new long[] {productId, ALL_PRODUCTS}) {
+                        sketches.computeIfAbsent(key, k -> new DailySketch())
+                                .add(rs.getString(2), rs.getInt(3), rs.getBigDecimal(4));
+                        counts.merge(key, 1L, Long::sum);
+                    }
+                },
+                from.atStartOfDay(), to.atStartOfDay());
+        insertDay(day[0], sketches, counts);
+
+        // The persisted days stop being served from memory once they are committed
+        Runnable advance = () -> {
+            if (to.isAfter(liveFrom)) {
+                liveFrom = to;
+            }
+            liveDays.keySet().removeIf(liveDay -> liveDay.isBefore(liveFrom));
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    advance.run();
+                }
+            });
+        } else {
+            advance.run();
+        }
+    }
+
+    void deleteProduct(Long productId) {
+        jdbcTemplate.update("DELETE FROM sales_daily_sketch WHERE product_id = ?", productId);
+        for (Map<Long, DailySketch> day : liveDays.values()) {
+            day.remove(productId);
+        }
+    }
+
+    // Approximate number of distinct customers in [from, to], for one product or all of them
+    @Transactional(readOnly = true)
+    public Map<String, Object> distinctCustomers(LocalDate from, LocalDate to, Long productId) {
+        DailySketch merged = merge(from, to, productId);
+        long estimate = merged.customers.estimate();
+        double error = merged.customers.relativeStandardError();
+
+        Map<String, Object> result = range(from, to, productId);
+        result.put("distinctCustomers", estimate);
+        result.put("relativeStandardError", error);
+        // About 95% of estimates fall within two standard errors of the true count
+        result.put("lowerBound95", Math.round(estimate * (1 - 2 * error)));
+        result.put("upperBound95", Math.round(estimate * (1 + 2 * error)));
+        return result;
+    }
+
+    // Approximate quantiles of quantity or ticket size per sale in [from, to]
+    @Transactional(readOnly = true)
+    public Map<String, Object> quantiles(String metric, List<Double> quantiles, LocalDate from, LocalDate to, Long productId) {
+        if (!QUANTILE_METRICS.contains(metric)) {
+            throw new IllegalArgumentException("Unknown metric: " + metric + " (expected one of " + QUANTILE_METRICS + ")");
+        }
+        for (double q : quantiles) {
+            if (q < 0 || q > 1) {
+                throw new IllegalArgumentException("Quantiles must be between 0 and 1: " + q);
+            }
+        }
+        DailySketch merged = merge(from, to, productId);
+        QuantileSketch sketch = metric.equals("quantity") ? merged.quantities : merged.tickets;
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (double q : quantiles) {
+            double value = sketch.quantile(q);
+            Object shown = sketch.count() == 0 ? null
+                    : metric.equals("quantity") ? (Object) Math.round(value) : Money.toDecimal(Math.round(value));
+            values.put(String.valueOf(q), shown);
+        }
+
+        Map<String, Object> result = range(from, to, productId);
+        result.put("metric", metric);
+        result.put("count", sketch.count());
+        result.put("relativeAccuracy", sketch.relativeAccuracy());
+        result.put("quantiles", values);
+        return result;
+    }
+
+    private DailySketch merge(LocalDate from, LocalDate to, Long productId) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (from.plusDays(maxDays).isBefore(to.plusDays(1))) {
+            throw new IllegalArgumentException("Date range is limited to " + maxDays + " days");
+        }
+        long key = productId != null ? productId : ALL_PRODUCTS;
+        LocalDate live = liveFrom;
+        DailySketch merged = new DailySketch();
+
+        LocalDate persistedEnd = to.plusDays(1).isBefore(live) ? to.plusDays(1) : live;
+        if (from.isBefore(persistedEnd)) {
+            jdbcTemplate.query(
+                    "SELECT customers, quantities, tickets FROM sales_daily_sketch " +
+                    "WHERE product_id = ? AND sale_date >= ? AND sale_date < ?",
+                    rs -> {
+                        readSketch(rs).mergeInto(merged);
+                    },
+                    key, from, persistedEnd);
+        }
+        for (LocalDate day = from.isBefore(live) ? live : from; !day.isAfter(to); day = day.plusDays(1)) {
+            Map<Long, DailySketch> sketches = liveDays.get(day);
+            DailySketch sketch = sketches != null ? sketches.get(key) : null;
+            if (sketch != null) {
+                sketch.mergeInto(merged);
+            }
+        }
+        return merged;
+    }
+
+    private void addLive(LocalDate day, long productId, String customerName, int quantity, BigDecimal totalAmount) {
+        Map<Long, DailySketch> sketches = liveDays.computeIfAbsent(day, d -> new ConcurrentHashMap<>());
+        sketches.computeIfAbsent(productId, k -> new DailySketch()).add(customerName, quantity, totalAmount);
+        sketches.computeIfAbsent(ALL_PRODUCTS, k -> new DailySketch()).add(customerName, quantity, totalAmount);
+    }
+
+    private void insertDay(LocalDate day, Map<Long, DailySketch> sketches, Map<Long, Long> counts) {
+        if (day == null || sketches.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(sketches.size());
+        for (Map.Entry<Long, DailySketch> entry : sketches.entrySet()) {
+            DailySketch sketch = entry.getValue();
+            rows.add(new Object[] {day, entry.getKey(), counts.get(entry.getKey()),
+                    sketch.customers.toBytes(), sketch.quantities.toBytes(), sketch.tickets.toBytes()});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO sales_daily_sketch (sale_date, product_id, sale_count, customers, quantities, tickets) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        sketches.clear();
+        counts.clear();
+    }
+
+    private static DailySketch readSketch(ResultSet rs) throws SQLException {
+        return new DailySketch(HyperLogLog.fromBytes(rs.getBytes(1)),
+                QuantileSketch.fromBytes(rs.getBytes(2)), QuantileSketch.fromBytes(rs.getBytes(3)));
+    }
+
+    private static Map<String, Object> range(LocalDate from, LocalDate to, Long productId) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("from", from);
+        result.put("to", to);
+        result.put("productId", productId);
+        return result;
+    }
+}
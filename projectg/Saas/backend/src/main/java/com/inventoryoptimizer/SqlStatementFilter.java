@@ -0,0 +1,197 @@
+package com.inventoryoptimizer;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Map;
+
+// Counts the SQL each request runs, warns about repeated statement shapes (N+1) and, in dev
+// mode, reports the counts in X-SQL-* response headers
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ROWS_HEADER = "X-SQL-Rows";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+    public static final String REPEATED_HEADER = "X-SQL-Repeated-Shapes";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    @Value("${inventory.sql.stats.enabled:true}")
+    private boolean enabled;
+
+    // Development only: headers go out with the first body bytes, so SQL run after that (lazy loads
+    // while a large body is serialized, streaming exports) is not in them
+    @Value("${inventory.sql.stats.headers:false}")
+    private boolean headers;
+
+    @Value("${inventory.sql.n-plus-one-threshold:10}")
+    private int repeatThreshold;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.begin();
+        StatsHeaderResponse wrapper = headers ? new StatsHeaderResponse(response, stats, repeatThreshold) : null;
+        try {
+            chain.doFilter(request, wrapper != null ? wrapper : response);
+        } finally {
+            SqlStatementStats.end();
+        }
+
+        Map<String, Integer> repeated = stats.repeatedShapes(repeatThreshold);
+        for (Map.Entry<String, Integer> shape : repeated.entrySet()) {
+            log.warn("Possible N+1 in {} {}: {} executions of {}",
+                    request.getMethod(), request.getRequestURI(), shape.getValue(), shape.getKey());
+        }
+
+        // Responses without a body never touched the stream
+        if (wrapper != null && !request.isAsyncStarted()) {
+            wrapper.writeHeaders();
+        }
+    }
+
+    // Adds the X-SQL-* headers just before the response commits instead of buffering the body
+    // to add them afterwards, so streamed and large bodies pass straight through
+    private static class StatsHeaderResponse extends HttpServletResponseWrapper {
+        private final SqlStatementStats stats;
+        private final int repeatThreshold;
+        private boolean headersWritten;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        StatsHeaderResponse(HttpServletResponse response, SqlStatementStats stats, int repeatThreshold) {
+            super(response);
+            this.stats = stats;
+            this.repeatThreshold = repeatThreshold;
+        }
+
+        synchronized void writeHeaders() {
+            if (headersWritten) {
+                return;
+            }
+            headersWritten = true;
+            if (isCommitted()) {
+                return;
+            }
+            setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+            setHeader(ROWS_HEADER, String.valueOf(stats.getRows()));
+            setHeader(TIME_HEADER, String.valueOf(stats.getElapsedMillis()));
+            setHeader(REPEATED_HEADER, String.valueOf(stats.repeatedShapes(repeatThreshold).size()));
+        }
+
+        @Override
+        public synchronized ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream target = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        writeHeaders();
+                        target.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        writeHeaders();
+                        target.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        writeHeaders();
+                        target.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        writeHeaders();
+                        target.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return target.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        target.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public synchronized PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                PrintWriter target = super.getWriter();
+                writer = new PrintWriter(new Writer() {
+                    @Override
+                    public void write(char[] chars, int off, int len) {
+                        writeHeaders();
+                        target.write(chars, off, len);
+                    }
+
+                    @Override
+                    public void flush() {
+                        writeHeaders();
+                        target.flush();
+                    }
+
+                    @Override
+                    public void close() {
+                        writeHeaders();
+                        target.close();
+                    }
+                });
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
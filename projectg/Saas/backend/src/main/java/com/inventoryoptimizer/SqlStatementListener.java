@@ -0,0 +1,90 @@
+package com.inventoryoptimizer;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+// Feeds statement and row counts into the current request's SqlStatementStats and logs slow statements
+class SqlStatementListener implements QueryExecutionListener, MethodExecutionListener {
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementListener.class);
+
+    // Bind values beyond this many rows of a batch are left out of the slow query log
+    private static final int MAX_LOGGED_BATCH_ROWS = 10;
+
+    private final long slowQueryMillis;
+
+    SqlStatementListener(long slowQueryMillis) {
+        this.slowQueryMillis = slowQueryMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            List<String> queries = new ArrayList<>(queryInfoList.size());
+            for (QueryInfo query : queryInfoList) {
+                queries.add(query.getQuery());
+            }
+            stats.recordExecution(queries, execInfo.getElapsedTime());
+            if (stats.isCapturing()) {
+                for (QueryInfo query : queryInfoList) {
+                    List<List<Object>> rows = bindValues(query);
+                    stats.recordStatement(query.getQuery(), rows.isEmpty() ? List.of() : rows.get(0));
+                }
+            }
+        }
+
+        if (slowQueryMillis > 0 && execInfo.getElapsedTime() >= slowQueryMillis) {
+            for (QueryInfo query : queryInfoList) {
+                log.warn("Slow query ({} ms): {} params={}", execInfo.getElapsedTime(), query.getQuery(), bindValues(query));
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    // Rows fetched are counted off ResultSet.next() returning true
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            SqlStatementStats stats = SqlStatementStats.current();
+            if (stats != null) {
+                stats.recordRow();
+            }
+        }
+    }
+
+    private static List<List<Object>> bindValues(QueryInfo query) {
+        List<List<Object>> rows = new ArrayList<>();
+        for (List<ParameterSetOperation> operations : query.getParametersList()) {
+            if (rows.size() == MAX_LOGGED_BATCH_ROWS) {
+                break;
+            }
+            List<Object> values = new ArrayList<>();
+            for (ParameterSetOperation operation : operations) {
+                Object[] args = operation.getArgs();
+                // args[0] is the parameter index, args[1] the value (absent for setNull)
+                values.add(args.length > 1 && !ParameterSetOperation.isSetNullParameterOperation(operation) ? args[1] : null);
+            }
+            rows.add(values);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,111 @@
+package com.inventoryoptimizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC work done on behalf of one HTTP request: statements executed, rows fetched and time
+ * spent in the driver. Bound to the request thread by SqlStatementFilter and fed by
+ * SqlStatementListener; work done on other threads (async exports, scheduled jobs) is not counted.
+ */
+public class SqlStatementStats {
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int statements;
+    private long rows;
+    private long elapsedMillis;
+    // Raw SQL -> executions; shapes are only worked out when the request is reported
+    private final Map<String, Integer> executions = new HashMap<>();
+    // Statements with their bind values, kept only for callers that inspect them (query plan checks)
+    private List<Statement> captured;
+
+    record Statement(String sql, List<Object> parameters) {}
+
+    static SqlStatementStats begin() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    // Like begin(), but also keeps every statement with its first row of bind values
+    static SqlStatementStats capture() {
+        SqlStatementStats stats = begin();
+        stats.captured = new ArrayList<>();
+        return stats;
+    }
+
+    static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    // One execute call is one round trip, however many statements a batch carried
+    void recordExecution(List<String> queries, long elapsedMillis) {
+        statements++;
+        this.elapsedMillis += elapsedMillis;
+        for (String sql : queries) {
+            executions.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    boolean isCapturing() {
+        return captured != null;
+    }
+
+    void recordStatement(String sql, List<Object> parameters) {
+        captured.add(new Statement(sql, parameters));
+    }
+
+    List<Statement> getCaptured() {
+        return captured != null ? captured : List.of();
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // Statement shapes executed at least `threshold` times in this request, most repeated first
+    public Map<String, Integer> repeatedShapes(int threshold) {
+        Map<String, Integer> byShape = new HashMap<>();
+        executions.forEach((sql, count) -> byShape.merge(shape(sql), count, Integer::sum));
+
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        byShape.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+
+    // Literals and IN lists are replaced so the same query with different values has one shape
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
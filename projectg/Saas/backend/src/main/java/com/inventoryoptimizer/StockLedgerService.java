@@ -0,0 +1,124 @@
+package com.inventoryoptimizer;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only ledger of typed stock movements with periodic per-product snapshots.
+ * Point-in-time stock is the nearest snapshot plus the movements recorded after it,
+ * so a history query replays at most one snapshot interval of movements. Each run folds
+ * the movements no earlier run has seen, whenever their transaction committed.
+ */
+@Service
+public class StockLedgerService {
+    // Lower bound for replays of products that have no snapshot yet
+    private static final LocalDateTime LEDGER_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    // Products that existed before the ledger get their current stock as an opening balance
+    @PostConstruct
+    void recordOpeningBalances() {
+        for (Product product : movementRepository.findProductsWithoutMovements()) {
+            if (product.getQuantityOnHand() != 0) {
+                movementRepository.save(new StockMovement(product.getId(), LocationStock.DEFAULT_LOCATION,
+                        product.getQuantityOnHand(), StockMovement.OPENING, null));
+            }
+        }
+    }
+
+    public StockMovement record(Long productId, String location, int delta, String reason) {
+        return movementRepository.save(new StockMovement(productId, location, delta, reason, null));
+    }
+
+    // SALE movements are appended with the sale row so they carry its id
+    public void recordSales(List<SaleRecord> sales) {
+        List<StockMovement> movements = new ArrayList<>();
+        for (SaleRecord sale : sales) {
+            movements.add(new StockMovement(sale.getProduct().getId(), sale.getLocation(),
+                    -sale.getQuantitySold(), StockMovement.SALE, sale.getId()));
+        }
+        movementRepository.saveAll(movements);
+    }
+
+    // Stock of a product at a point in time, replayed from the nearest earlier snapshot
+    public Map<String, Object> getStockAt(Long productId, LocalDateTime time) {
+        StockSnapshot snapshot = snapshotRepository
+                .findTopByProductIdAndAsOfLessThanEqualOrderByAsOfDesc(productId, time)
+                .orElse(null);
+        LocalDateTime replayFrom = snapshot != null ? snapshot.getAsOf() : LEDGER_EPOCH;
+        long base = snapshot != null ? snapshot.getQuantity() : 0;
+
+        Object[] replay = movementRepository.sumDeltaForProduct(productId, replayFrom, time).get(0);
+        long delta = ((Number) replay[0]).longValue();
+        long movementsReplayed = ((Number) replay[1]).longValue();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("productId", productId);
+        result.put("time", time);
+        result.put("quantityOnHand", base + delta);
+        result.put("snapshotAsOf", snapshot != null ? snapshot.getAsOf() : null);
+        result.put("movementsReplayed", movementsReplayed);
+        return result;
+    }
+
+    // Fold the movements committed since the last run into a new snapshot for every product that changed
+    @Scheduled(fixedDelayString = "${inventory.ledger.snapshot-interval-millis:3600000}",
+               initialDelayString = "${inventory.ledger.snapshot-interval-millis:3600000}")
+    @Transactional
+    public void takeSnapshots() {
+        takeSnapshots(LocalDateTime.now());
+    }
+
+    @Transactional
+    public int takeSnapshots(LocalDateTime asOf) {
+        // The run is identified by asOf, so it must round-trip through TIMESTAMP(6) unchanged
+        asOf = asOf.truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime since = snapshotRepository.findLatestAsOf();
+        if (since == null) {
+            since = LEDGER_EPOCH;
+        }
+        if (!asOf.isAfter(since)) {
+            return 0;
+        }
+
+        // Movements are selected by whether a run has folded them, not by their timestamp, so a
+        // transaction still in flight now is picked up by whichever run first sees it committed
+        if (movementRepository.markForSnapshot(asOf) == 0) {
+            return 0;
+        }
+
+        List<StockSnapshot> snapshots = new ArrayList<>();
+        for (Object[] row : movementRepository.sumDeltaBySnapshot(asOf)) {
+            Long productId = (Long) row[0];
+            long delta = ((Number) row[1]).longValue();
+            long previous = snapshotRepository
+                    .findTopByProductIdAndAsOfLessThanEqualOrderByAsOfDesc(productId, since)
+                    .map(StockSnapshot::getQuantity)
+                    .orElse(0L);
+            snapshots.add(new StockSnapshot(productId, previous + delta, asOf));
+        }
+
+        // A late movement also belongs in the snapshots taken between its timestamp and this run
+        for (StockMovement late : movementRepository.findLateMovements(asOf, since)) {
+            snapshotRepository.addToSnapshots(late.getProductId(), late.getDelta(), late.getTimestamp(), asOf);
+        }
+
+        snapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+}
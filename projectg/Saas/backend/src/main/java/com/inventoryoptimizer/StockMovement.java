@@ -0,0 +1,47 @@
+package com.inventoryoptimizer;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One append-only entry of the stock ledger: every change to a location's stock is a movement
+@Entity
+public class StockMovement {
+    public static final String OPENING = "OPENING"; // stock that existed before the ledger (or at product creation)
+    public static final String RECEIPT = "RECEIPT";
+    public static final String SALE = "SALE";
+    public static final String ADJUSTMENT = "ADJUSTMENT";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long productId;
+    private String location;
+    private int delta; // signed change in units
+    private String reason; // OPENING, RECEIPT, SALE, ADJUSTMENT
+    private Long saleId; // set for SALE movements
+    private LocalDateTime timestamp;
+    private LocalDateTime snapshotAsOf; // set once, by the snapshot run that folds this movement
+
+    // Constructors
+    public StockMovement() {}
+
+    public StockMovement(Long productId, String location, int delta, String reason, Long saleId) {
+        this.productId = productId;
+        this.location = location;
+        this.delta = delta;
+        this.reason = reason;
+        this.saleId = saleId;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters only: movements are never changed once written, apart from the snapshot marker
+    public Long getId() { return id; }
+    public Long getProductId() { return productId; }
+    public String getLocation() { return location; }
+    public int getDelta() { return delta; }
+    public String getReason() { return reason; }
+    public Long getSaleId() { return saleId; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public LocalDateTime getSnapshotAsOf() { return snapshotAsOf; }
+}
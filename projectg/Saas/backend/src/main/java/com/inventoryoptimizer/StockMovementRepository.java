@@ -0,0 +1,35 @@
+package com.inventoryoptimizer;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+    
+    // Net change and number of movements of a product in (from, to]
+    @Query("SELECT COALESCE(SUM(m.delta), 0), COUNT(m) FROM StockMovement m " +
+           "WHERE m.productId = :productId AND m.timestamp > :from AND m.timestamp <= :to")
+    List<Object[]> sumDeltaForProduct(@Param("productId") Long productId,
+                                      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // Mark every committed movement no snapshot has folded yet as folded by the run at asOf
+    @Modifying
+    @Query("UPDATE StockMovement m SET m.snapshotAsOf = :asOf WHERE m.snapshotAsOf IS NULL AND m.timestamp <= :asOf")
+    int markForSnapshot(@Param("asOf") LocalDateTime asOf);
+    
+    // Net change per product of the movements folded by the run at asOf
+    @Query("SELECT m.productId, SUM(m.delta) FROM StockMovement m WHERE m.snapshotAsOf = :asOf GROUP BY m.productId")
+    List<Object[]> sumDeltaBySnapshot(@Param("asOf") LocalDateTime asOf);
+    
+    // Movements folded by the run at asOf that are stamped at or before an earlier run: they committed late
+    @Query("SELECT m FROM StockMovement m WHERE m.snapshotAsOf = :asOf AND m.timestamp <= :previousAsOf")
+    List<StockMovement> findLateMovements(@Param("asOf") LocalDateTime asOf, @Param("previousAsOf") LocalDateTime previousAsOf);
+    
+    // Products that have stock but no ledger history yet
+    @Query("SELECT p FROM Product p WHERE NOT EXISTS (SELECT 1 FROM StockMovement m WHERE m.productId = p.id)")
+    List<Product> findProductsWithoutMovements();
+}
@@ -0,0 +1,42 @@
+package com.inventoryoptimizer;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+public class StockReservation {
+    public static final String HELD = "HELD";
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String RELEASED = "RELEASED";
+    public static final String EXPIRED = "EXPIRED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long productId;
+    private String location;
+    private int quantity;
+    private String status; // HELD, CONFIRMED, RELEASED, EXPIRED
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private Long saleId; // sale created when the hold was confirmed
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public String getLocation() { return location != null ? location : LocationStock.DEFAULT_LOCATION; }
+    public void setLocation(String location) { this.location = location; }
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    public Long getSaleId() { return saleId; }
+    public void setSaleId(Long saleId) { this.saleId = saleId; }
+}
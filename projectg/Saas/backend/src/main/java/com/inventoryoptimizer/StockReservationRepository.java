@@ -0,0 +1,31 @@
+package com.inventoryoptimizer;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    
+    // Find reservations in a given state (HELD holds are reloaded on startup)
+    List<StockReservation> findByStatus(String status);
+    
+    // Atomically move a hold out of HELD; returns 0 if it was already confirmed, released or expired
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :status WHERE r.id = :id AND r.status = 'HELD'")
+    int transitionFromHeld(@Param("id") Long id, @Param("status") String status);
+    
+    // Same as transitionFromHeld, but only while the hold has not passed its expiry time
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :status WHERE r.id = :id AND r.status = 'HELD' AND r.expiresAt > :now")
+    int transitionFromLiveHold(@Param("id") Long id, @Param("status") String status, @Param("now") LocalDateTime now);
+
+    // Confirmed, released and expired holds whose expiry lies before the cutoff, oldest first
+    @Query("SELECT r.id FROM StockReservation r WHERE r.status IN ('CONFIRMED', 'RELEASED', 'EXPIRED') " +
+           "AND r.expiresAt < :cutoff ORDER BY r.expiresAt")
+    List<Long> findSettledIds(@Param("cutoff") LocalDateTime cutoff, Pageable page);
+}
@@ -0,0 +1,35 @@
+package com.inventoryoptimizer;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Total stock of a product as of a point in time, so history queries replay only what came after
+@Entity
+public class StockSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long productId;
+    private long quantity; // sum of all movements with timestamp <= asOf
+    private LocalDateTime asOf;
+
+    // Constructors
+    public StockSnapshot() {}
+
+    public StockSnapshot(Long productId, long quantity, LocalDateTime asOf) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.asOf = asOf;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public long getQuantity() { return quantity; }
+    public void setQuantity(long quantity) { this.quantity = quantity; }
+    public LocalDateTime getAsOf() { return asOf; }
+    public void setAsOf(LocalDateTime asOf) { this.asOf = asOf; }
+}
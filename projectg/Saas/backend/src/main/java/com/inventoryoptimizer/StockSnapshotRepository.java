@@ -0,0 +1,26 @@
+package com.inventoryoptimizer;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+    
+    // Nearest snapshot at or before a point in time
+    Optional<StockSnapshot> findTopByProductIdAndAsOfLessThanEqualOrderByAsOfDesc(Long productId, LocalDateTime time);
+    
+    // Add a late-committed movement to the snapshots taken since it was stamped; loaded snapshots are stale after it
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockSnapshot s SET s.quantity = s.quantity + :delta " +
+           "WHERE s.productId = :productId AND s.asOf >= :from AND s.asOf < :before")
+    int addToSnapshots(@Param("productId") Long productId, @Param("delta") long delta,
+                       @Param("from") LocalDateTime from, @Param("before") LocalDateTime before);
+    
+    // Time of the most recent snapshot run
+    @Query("SELECT MAX(s.asOf) FROM StockSnapshot s")
+    LocalDateTime findLatestAsOf();
+}
@@ -0,0 +1,104 @@
+package com.inventoryoptimizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel for cheap expiry of large numbers of deadlines. Scheduling and
+ * cancelling are O(1) and lock-free; the single ticking thread only visits the bucket
+ * of the current tick, so the cost of a tick does not depend on how many timers exist.
+ */
+class TimingWheel<T> {
+
+    static class Timeout<T> {
+        final T item;
+        final long deadlineMillis;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timeout(T item, long deadlineMillis) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        void cancel() { cancelled = true; }
+        boolean isCancelled() { return cancelled; }
+    }
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final List<Timeout<T>>[] buckets;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int ticksPerWheel, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        }
+        // Round the wheel up to a power of two so the bucket index is a mask
+        int size = Integer.highestOneBit(Math.max(1, ticksPerWheel - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = size - 1;
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+    }
+
+    // Safe to call from any thread; the timeout is placed in its bucket on the next tick
+    Timeout<T> schedule(T item, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(item, deadlineMillis);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    // Advance over every tick that has fully elapsed by nowMillis and return the expired items.
+    // Items expire at most one tick after their deadline.
+    synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long lastElapsedTick = Math.floorDiv(nowMillis - startMillis, tickMillis) - 1;
+
+        while (currentTick <= lastElapsedTick) {
+            transferPending();
+            expireBucket(buckets[(int) (currentTick & mask)], expired);
+            currentTick++;
+        }
+        return expired;
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long deadlineTick = Math.floorDiv(timeout.deadlineMillis - startMillis, tickMillis);
+            long tick = Math.max(deadlineTick, currentTick);
+            timeout.remainingRounds = (tick - currentTick) / buckets.length;
+            buckets[(int) (tick & mask)].add(timeout);
+        }
+    }
+
+    private void expireBucket(List<Timeout<T>> bucket, List<T> expired) {
+        // Compact in place: drop expired and cancelled timeouts, keep the rest for later rounds
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Timeout<T> timeout = bucket.get(i);
+            if (timeout.cancelled) {
+                continue;
+            }
+            if (timeout.remainingRounds <= 0) {
+                expired.add(timeout.item);
+                continue;
+            }
+            timeout.remainingRounds--;
+            bucket.set(kept++, timeout);
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+}
@@ -0,0 +1,41 @@
+package com.inventoryoptimizer;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Moves stock from the legacy product.quantity_on_hand column into the default location's
+ * location_stock row, then drops the column. Only databases created before stock was split
+ * per location have the column; on any other database this is a no-op.
+ */
+@Component
+public class V2__SplitProductStockByLocation extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            try (ResultSet legacyColumns = statement.executeQuery(
+                    "SELECT COUNT(*) FROM information_schema.columns " +
+                    "WHERE LOWER(table_name) = 'product' AND LOWER(column_name) = 'quantity_on_hand'")) {
+                legacyColumns.next();
+                if (legacyColumns.getInt(1) == 0) {
+                    return;
+                }
+            }
+
+            try (PreparedStatement insert = context.getConnection().prepareStatement(
+                    "INSERT INTO location_stock (product_id, location, quantity) " +
+                    "SELECT p.id, ?, p.quantity_on_hand FROM product p " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM location_stock ls WHERE ls.product_id = p.id)")) {
+                insert.setString(1, LocationStock.DEFAULT_LOCATION);
+                insert.executeUpdate();
+            }
+            statement.execute("ALTER TABLE product DROP COLUMN quantity_on_hand");
+        }
+    }
+}
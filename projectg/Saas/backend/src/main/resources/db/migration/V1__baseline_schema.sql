@@ -0,0 +1,89 @@
+-- Baseline schema. Every statement is guarded so that databases created earlier by
+-- hibernate ddl-auto=update can be brought under migration control (baseline-version=0).
+
+CREATE TABLE IF NOT EXISTS product (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    sku VARCHAR(255),
+    low_stock_threshold INTEGER NOT NULL,
+    price NUMERIC(10, 2),
+    cost_price NUMERIC(10, 2),
+    discontinued BOOLEAN NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS sale_record (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    quantity_sold INTEGER NOT NULL,
+    timestamp TIMESTAMP(6),
+    unit_price NUMERIC(10, 2),
+    total_amount NUMERIC(10, 2),
+    customer_name VARCHAR(255),
+    notes VARCHAR(255),
+    location VARCHAR(255),
+    CONSTRAINT fk_sale_record_product FOREIGN KEY (product_id) REFERENCES product (id)
+);
+
+-- Added with per-location stock
+ALTER TABLE sale_record ADD COLUMN IF NOT EXISTS location VARCHAR(255);
+
+CREATE TABLE IF NOT EXISTS log_entry (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    action VARCHAR(255),
+    entity_type VARCHAR(255),
+    entity_id BIGINT,
+    description VARCHAR(255),
+    user_name VARCHAR(255),
+    timestamp TIMESTAMP(6),
+    details VARCHAR(1000)
+);
+
+CREATE TABLE IF NOT EXISTS location_stock (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    location VARCHAR(255) NOT NULL,
+    quantity INTEGER NOT NULL,
+    CONSTRAINT uk_location_stock_product_location UNIQUE (product_id, location)
+);
+
+CREATE TABLE IF NOT EXISTS stock_reservation (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT,
+    location VARCHAR(255),
+    quantity INTEGER NOT NULL,
+    status VARCHAR(255),
+    created_at TIMESTAMP(6),
+    expires_at TIMESTAMP(6),
+    sale_id BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS stock_movement (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT,
+    location VARCHAR(255),
+    delta INTEGER NOT NULL,
+    reason VARCHAR(255),
+    sale_id BIGINT,
+    timestamp TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_movement_product_time ON stock_movement (product_id, timestamp);
+
+CREATE TABLE IF NOT EXISTS stock_snapshot (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT,
+    quantity BIGINT NOT NULL,
+    as_of TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_snapshot_product_as_of ON stock_snapshot (product_id, as_of);
+
+CREATE TABLE IF NOT EXISTS idempotency_record (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    scope VARCHAR(255),
+    status_code INTEGER NOT NULL,
+    content_type VARCHAR(255),
+    response_body VARCHAR(65535),
+    created_at TIMESTAMP(6),
+    expires_at TIMESTAMP(6)
+);
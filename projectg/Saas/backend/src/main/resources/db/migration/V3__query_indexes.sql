@@ -0,0 +1,19 @@
+-- Secondary indexes for the repository finders and log queries
+
+-- SaleRecordRepository.findByProductId / findByProduct and the per-product revenue sums
+CREATE INDEX IF NOT EXISTS idx_sale_record_product_time ON sale_record (product_id, timestamp);
+
+-- SaleRecordRepository.findByTimestampBetween / findTop10ByOrderByTimestampDesc
+CREATE INDEX IF NOT EXISTS idx_sale_record_time ON sale_record (timestamp);
+
+-- Log slices are ordered by (timestamp, id); id is included so keyset seeks stay inside the index
+CREATE INDEX IF NOT EXISTS idx_log_entry_time_id ON log_entry (timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_log_entry_entity_time ON log_entry (entity_type, entity_id, timestamp);
+CREATE INDEX IF NOT EXISTS idx_log_entry_action_time ON log_entry (action, timestamp);
+CREATE INDEX IF NOT EXISTS idx_log_entry_user_time ON log_entry (user_name, timestamp);
+
+-- Product lookups by SKU
+CREATE INDEX IF NOT EXISTS idx_product_sku ON product (sku);
+
+-- Superseded by idx_log_entry_time_id (created by ddl-auto before migrations existed)
+DROP INDEX IF EXISTS idx_log_entry_timestamp_id;
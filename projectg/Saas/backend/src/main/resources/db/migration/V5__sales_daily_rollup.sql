@@ -0,0 +1,18 @@
+-- Per-day, per-product sales totals maintained by SalesRollupService. Days before
+-- sales_rollup_state.finalized_before are complete; later days are read from sale_record.
+
+CREATE TABLE IF NOT EXISTS sales_daily_rollup (
+    sale_date DATE NOT NULL,
+    product_id BIGINT NOT NULL,
+    units BIGINT NOT NULL,
+    revenue_cents BIGINT NOT NULL,
+    sale_count BIGINT NOT NULL,
+    CONSTRAINT pk_sales_daily_rollup PRIMARY KEY (sale_date, product_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sales_daily_rollup_product_day ON sales_daily_rollup (product_id, sale_date);
+
+CREATE TABLE IF NOT EXISTS sales_rollup_state (
+    name VARCHAR(64) PRIMARY KEY,
+    finalized_before DATE
+);
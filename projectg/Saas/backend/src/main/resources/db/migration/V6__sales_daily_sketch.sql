@@ -0,0 +1,14 @@
+-- Serialized per-day sketches written by SalesSketchService when SalesRollupService finalizes a day.
+-- product_id 0 holds the sketches over all products.
+
+CREATE TABLE IF NOT EXISTS sales_daily_sketch (
+    sale_date DATE NOT NULL,
+    product_id BIGINT NOT NULL,
+    sale_count BIGINT NOT NULL,
+    customers BYTEA NOT NULL,
+    quantities BYTEA NOT NULL,
+    tickets BYTEA NOT NULL,
+    CONSTRAINT pk_sales_daily_sketch PRIMARY KEY (sale_date, product_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sales_daily_sketch_product_day ON sales_daily_sketch (product_id, sale_date);
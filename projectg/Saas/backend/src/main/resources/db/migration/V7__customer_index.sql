@@ -0,0 +1,47 @@
+-- Normalized customer key on sales (trimmed, lower-case customer_name) and per-customer
+-- aggregates maintained by CustomerService as sales are recorded.
+
+ALTER TABLE sale_record ADD COLUMN IF NOT EXISTS customer_key VARCHAR(255);
+
+UPDATE sale_record SET customer_key = LOWER(TRIM(customer_name))
+WHERE customer_key IS NULL AND customer_name IS NOT NULL AND TRIM(customer_name) <> '';
+
+CREATE INDEX IF NOT EXISTS idx_sale_record_customer_time ON sale_record (customer_key, timestamp, id);
+
+CREATE TABLE IF NOT EXISTS customer_summary (
+    customer_key VARCHAR(255) NOT NULL,
+    display_name VARCHAR(255),
+    order_count BIGINT NOT NULL,
+    units BIGINT NOT NULL,
+    spend_cents BIGINT NOT NULL,
+    first_purchase TIMESTAMP,
+    last_purchase TIMESTAMP,
+    CONSTRAINT pk_customer_summary PRIMARY KEY (customer_key)
+);
+
+CREATE TABLE IF NOT EXISTS customer_product (
+    customer_key VARCHAR(255) NOT NULL,
+    product_id BIGINT NOT NULL,
+    order_count BIGINT NOT NULL,
+    units BIGINT NOT NULL,
+    spend_cents BIGINT NOT NULL,
+    last_purchase TIMESTAMP,
+    CONSTRAINT pk_customer_product PRIMARY KEY (customer_key, product_id)
+);
+
+INSERT INTO customer_summary (customer_key, display_name, order_count, units, spend_cents, first_purchase, last_purchase)
+SELECT customer_key, MAX(customer_name), COUNT(*), SUM(quantity_sold),
+       CAST(COALESCE(SUM(total_amount), 0) * 100 AS BIGINT), MIN(timestamp), MAX(timestamp)
+FROM sale_record
+WHERE customer_key IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM customer_summary c WHERE c.customer_key = sale_record.customer_key)
+GROUP BY customer_key;
+
+INSERT INTO customer_product (customer_key, product_id, order_count, units, spend_cents, last_purchase)
+SELECT customer_key, product_id, COUNT(*), SUM(quantity_sold),
+       CAST(COALESCE(SUM(total_amount), 0) * 100 AS BIGINT), MAX(timestamp)
+FROM sale_record
+WHERE customer_key IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM customer_product c
+                  WHERE c.customer_key = sale_record.customer_key AND c.product_id = sale_record.product_id)
+GROUP BY customer_key, product_id;
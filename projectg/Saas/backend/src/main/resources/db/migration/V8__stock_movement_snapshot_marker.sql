@@ -0,0 +1,10 @@
+-- Snapshot runs mark the movements they fold instead of summing a timestamp window, so a
+-- transaction that commits long after stamping its movements is folded by the next run.
+
+ALTER TABLE stock_movement ADD COLUMN IF NOT EXISTS snapshot_as_of TIMESTAMP(6);
+
+CREATE INDEX IF NOT EXISTS idx_stock_movement_snapshot_as_of ON stock_movement (snapshot_as_of, product_id);
+
+-- Snapshots built from timestamp windows may have missed late commits; drop them so the next
+-- run rebuilds every product's balance from the full ledger
+DELETE FROM stock_snapshot;
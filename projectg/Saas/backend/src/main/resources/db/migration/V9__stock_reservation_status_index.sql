@@ -0,0 +1,4 @@
+-- Startup recovery loads the HELD holds and the purge deletes settled ones by expiry; both
+-- seek on (status, expires_at) instead of scanning every hold ever taken
+
+CREATE INDEX IF NOT EXISTS idx_stock_reservation_status_expires ON stock_reservation (status, expires_at);
@@ -0,0 +1,168 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "inventory.admission.analytics.max-concurrency=2",
+        "inventory.admission.analytics.queue-size=0",
+        "inventory.admission.write.latency-slo-millis=50",
+        // Limits are only adjusted when the tests call adjustLimits()
+        "inventory.admission.adjust-interval-millis=3600000"
+})
+@AutoConfigureMockMvc
+public class AdmissionControlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+
+    @Autowired
+    private ProductService productService;
+
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : createdProducts) {
+            productService.forceDeleteProduct(id);
+        }
+    }
+
+    @Test
+    public void testSaturatedAnalyticsClassIsRejectedWhileSalesGoThrough() throws Exception {
+        System.out.println("=== Testing Analytics Bulkhead ===");
+
+        Product product = new Product();
+        product.setName("Admission Product");
+        product.setSku("ADMIT-001");
+        product.setQuantityOnHand(10);
+        product = productService.saveProduct(product);
+        createdProducts.add(product.getId());
+
+        Bulkhead analytics = admissionControlFilter.bulkhead(AdmissionControlFilter.EndpointClass.ANALYTICS);
+        analytics.setLimit(2);
+        assertTrue(analytics.tryAcquire());
+        assertTrue(analytics.tryAcquire());
+        try {
+            mockMvc.perform(get("/api/forecasts/revenue"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.error").exists());
+            mockMvc.perform(get("/api/products/stock-investment")).andExpect(status().isTooManyRequests());
+
+            // Writes and cheap reads have their own bulkheads
+            mockMvc.perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"productId\": " + product.getId() + ", \"quantitySold\": 1}"))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/api/products/" + product.getId())).andExpect(status().isOk());
+
+            // Exports have their own bulkhead and hold a permit until the body has been written
+            Bulkhead bulk = admissionControlFilter.bulkhead(AdmissionControlFilter.EndpointClass.BULK);
+            MvcResult export = mockMvc.perform(get("/api/sales/export?productId=" + product.getId())).andReturn();
+            assertEquals(1, bulk.getInFlight());
+            mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+            assertEquals(0, bulk.getInFlight());
+        } finally {
+            analytics.release(0);
+            analytics.release(0);
+        }
+        mockMvc.perform(get("/api/forecasts/revenue")).andExpect(status().isOk());
+
+        System.out.println("✅ Analytics bulkhead test PASSED");
+    }
+
+    @Test
+    public void testBulkheadQueuesThenTimesOut() throws Exception {
+        System.out.println("=== Testing Bulkhead Queue ===");
+
+        Bulkhead bulkhead = new Bulkhead("test", 1, 1, 200);
+        assertTrue(bulkhead.tryAcquire());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // One caller waits in the queue and gets the permit when it is released
+            Future<Boolean> queued = executor.submit(bulkhead::tryAcquire);
+            while (bulkhead.getQueued() == 0) {
+                Thread.sleep(5);
+            }
+            // The queue is full, so the next caller is turned away at once
+            assertFalse(bulkhead.tryAcquire());
+            bulkhead.release(0);
+            assertTrue(queued.get(1, TimeUnit.SECONDS));
+
+            // With nobody releasing, a queued caller gives up after the queue timeout
+            long start = System.nanoTime();
+            assertFalse(executor.submit(bulkhead::tryAcquire).get(1, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+            assertEquals(2, bulkhead.getRejected());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.println("✅ Bulkhead queue test PASSED");
+    }
+
+    @Test
+    public void testLimitsShrinkWhileWritesMissTheirTarget() {
+        System.out.println("=== Testing Adaptive Limits ===");
+
+        Bulkhead write = admissionControlFilter.bulkhead(AdmissionControlFilter.EndpointClass.WRITE);
+        Bulkhead analytics = admissionControlFilter.bulkhead(AdmissionControlFilter.EndpointClass.ANALYTICS);
+        Bulkhead read = admissionControlFilter.bulkhead(AdmissionControlFilter.EndpointClass.READ);
+        admissionControlFilter.adjustLimits(); // drop latency recorded by other tests
+        analytics.setLimit(2);
+        read.setLimit(32);
+
+        // Writes averaging 120 ms against a 50 ms target halve the other classes, but not bulk transfers
+        int bulkLimit = admissionControlFilter.bulkhead(AdmissionControlFilter.EndpointClass.BULK).getLimit();
+        admitAndRelease(write, TimeUnit.MILLISECONDS.toNanos(120));
+        admissionControlFilter.adjustLimits();
+        assertEquals(1, analytics.getLimit());
+        assertEquals(16, read.getLimit());
+        assertEquals(bulkLimit, admissionControlFilter.bulkhead(AdmissionControlFilter.EndpointClass.BULK).getLimit());
+
+        // Back under target they grow one step per interval, up to the configured maximum
+        admitAndRelease(write, TimeUnit.MILLISECONDS.toNanos(5));
+        admissionControlFilter.adjustLimits();
+        assertEquals(2, analytics.getLimit());
+        assertEquals(17, read.getLimit());
+        admissionControlFilter.adjustLimits();
+        assertEquals(2, analytics.getLimit());
+
+        read.setLimit(32);
+        System.out.println("✅ Adaptive limits test PASSED");
+    }
+
+    private void admitAndRelease(Bulkhead bulkhead, long latencyNanos) {
+        try {
+            assertTrue(bulkhead.tryAcquire());
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        bulkhead.release(latencyNanos);
+    }
+}
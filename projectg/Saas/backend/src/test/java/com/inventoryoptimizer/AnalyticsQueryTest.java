@@ -0,0 +1,246 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class AnalyticsQueryTest {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalesRankingService salesRankingService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SaleRecordService saleRecordService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SaleRecordRepository saleRecordRepository;
+
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : createdProducts) {
+            saleRecordRepository.deleteAll(saleRecordRepository.findByProductId(id));
+            salesRollupService.deleteProduct(id);
+            productRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    public void testRollupAndLiveSalesMergeIntoOneResult() {
+        System.out.println("=== Testing Analytics Query Planner ===");
+
+        Product product = createProduct("ANALYTICS-001");
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        sale(product, today.minusDays(3).atTime(10, 0), 2, "2.50", "Alice");
+        sale(product, today.minusDays(3).atTime(15, 30), 1, "2.50", "Bob");
+        sale(product, today.minusDays(1).atTime(9, 0), 4, "2.50", "Alice");
+        // Today's sale is not finalized, so it has to come from sale_record
+        sale(product, now.minusMinutes(1), 3, "2.50", "Bob");
+
+        salesRollupService.invalidateFrom(today.minusDays(3));
+        salesRollupService.rollUp();
+
+        Map<String, Object> result = analyticsService.query(new AnalyticsQuery(
+                List.of("product", "day"), List.of(), List.of(product.getId()),
+                null, null, today.minusDays(5).atStartOfDay(), now.plusMinutes(1), null, null));
+        List<Map<String, Object>> rows = rows(result);
+        Map<String, Object> plan = plan(result);
+        System.out.println("Plan: " + plan);
+
+        assertEquals("rollup+sales", plan.get("source"));
+        assertEquals(3, rows.size());
+        assertEquals(today.minusDays(3).toString(), rows.get(0).get("day"));
+        assertEquals(3L, rows.get(0).get("units"));
+        assertEquals(2L, rows.get(0).get("count"));
+        assertEquals(new BigDecimal("7.50"), rows.get(0).get("revenue"));
+        assertEquals(new BigDecimal("3.75"), rows.get(0).get("avgTicket"));
+        assertEquals("Analytics ANALYTICS-001", rows.get(0).get("productName"));
+        assertEquals(today.toString(), rows.get(2).get("day"));
+        assertEquals(3L, rows.get(2).get("units"));
+
+        // Coarser grain from the same plan folds the rollup and live rows into one group
+        Map<String, Object> monthly = analyticsService.query(new AnalyticsQuery(
+                List.of("product"), List.of("units", "revenue"), List.of(product.getId()),
+                null, null, today.minusDays(5).atStartOfDay(), now.plusMinutes(1), null, null));
+        assertEquals(1, rows(monthly).size());
+        assertEquals(10L, rows(monthly).get(0).get("units"));
+        assertEquals(new BigDecimal("25.00"), rows(monthly).get(0).get("revenue"));
+
+        System.out.println("✅ Analytics query planner test PASSED");
+    }
+
+    @Test
+    public void testCustomerAndHourQueriesRunOnSaleRecord() {
+        System.out.println("=== Testing Analytics Query on Sale Records ===");
+
+        Product product = createProduct("ANALYTICS-002");
+        LocalDate day = LocalDate.now().minusDays(2);
+        sale(product, day.atTime(10, 5), 1, "4.00", "Alice");
+        sale(product, day.atTime(10, 45), 2, "4.00", "Bob");
+        sale(product, day.atTime(11, 0), 5, "4.00", "Alice");
+        // Same customer typed differently: grouped and filtered on the normalized key
+        sale(product, day.atTime(12, 30), 3, "4.00", " ALICE");
+
+        Map<String, Object> result = analyticsService.query(new AnalyticsQuery(
+                List.of("customer"), List.of("units", "count"), List.of(product.getId()),
+                null, null, day.atStartOfDay(), day.plusDays(1).atStartOfDay(), "units", null));
+        List<Map<String, Object>> rows = rows(result);
+        assertEquals("sales", plan(result).get("source"));
+        assertEquals(2, rows.size());
+        assertEquals("Alice", rows.get(0).get("customer"));
+        assertEquals(9L, rows.get(0).get("units"));
+        assertEquals(3L, rows.get(0).get("count"));
+        assertEquals("Bob", rows.get(1).get("customer"));
+
+        Map<String, Object> byHour = analyticsService.query(new AnalyticsQuery(
+                List.of("hour"), List.of("count"), List.of(product.getId()),
+                "alice", null, day.atStartOfDay(), day.plusDays(1).atStartOfDay(), null, 1));
+        assertEquals(1, rows(byHour).size());
+        assertEquals(10, rows(byHour).get(0).get("hour"));
+        assertEquals(true, byHour.get("truncated"));
+
+        System.out.println("✅ Analytics sale record query test PASSED");
+    }
+
+    @Test
+    public void testInvalidQueriesAreRejected() {
+        System.out.println("=== Testing Analytics Query Validation ===");
+
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.query(AnalyticsQuery.fromRequest(
+                Map.of("dimensions", List.of("product; DROP TABLE sale_record")))));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.query(AnalyticsQuery.fromRequest(
+                Map.of("measures", List.of("margin")))));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.query(AnalyticsQuery.fromRequest(
+                Map.of("dimensions", List.of("day"), "limit", 0))));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.query(AnalyticsQuery.fromRequest(
+                Map.of("filters", Map.of("from", "2024-02-01T00:00:00", "to", "2024-01-01T00:00:00")))));
+
+        System.out.println("✅ Analytics query validation test PASSED");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTopProductsAndMoversAreCachedUntilTheNextSale() {
+        System.out.println("=== Testing Top Products and Movers ===");
+
+        Product rising = createProduct("ANALYTICS-RISING");
+        Product falling = createProduct("ANALYTICS-FALLING");
+        LocalDate today = LocalDate.now();
+        sale(falling, today.minusDays(10).atTime(12, 0), 50000, "1.00", null);
+        sale(rising, today.minusDays(2).atTime(12, 0), 60000, "1.00", null);
+        sale(falling, today.minusDays(1).atTime(12, 0), 40000, "1.00", null);
+        salesRollupService.invalidateFrom(today.minusDays(10));
+        salesRollupService.rollUp();
+        salesRankingService.evictAllAfterCommit();
+
+        Map<String, Object> top = salesRankingService.topProducts("units", 7, 2);
+        List<Map<String, Object>> products = (List<Map<String, Object>>) top.get("products");
+        assertEquals(false, top.get("cached"));
+        assertEquals(rising.getId(), products.get(0).get("productId"));
+        assertEquals(60000L, products.get(0).get("units"));
+        assertEquals(falling.getId(), products.get(1).get("productId"));
+
+        Map<String, Object> movers = salesRankingService.movers("units", 7, 5);
+        Map<String, Object> topGainer = ((List<Map<String, Object>>) movers.get("gainers")).get(0);
+        assertEquals(rising.getId(), topGainer.get("productId"));
+        assertEquals(60000L, topGainer.get("change"));
+        Map<String, Object> topDecliner = ((List<Map<String, Object>>) movers.get("decliners")).get(0);
+        assertEquals(falling.getId(), topDecliner.get("productId"));
+        assertEquals(-10000L, topDecliner.get("change"));
+        assertEquals(-20.0, topDecliner.get("changePercent"));
+
+        // Served from the cache until a sale inside the window commits
+        assertEquals(true, salesRankingService.topProducts("units", 7, 2).get("cached"));
+        saleRecordService.recordSale(falling.getId(), 25);
+        Map<String, Object> refreshed = salesRankingService.topProducts("units", 7, 2);
+        assertEquals(false, refreshed.get("cached"));
+        assertEquals(40025L, ((List<Map<String, Object>>) refreshed.get("products")).get(1).get("units"));
+
+        assertThrows(IllegalArgumentException.class, () -> salesRankingService.topProducts("margin", 7, 20));
+        assertThrows(IllegalArgumentException.class, () -> salesRankingService.movers("units", 0, 20));
+
+        System.out.println("✅ Top products and movers test PASSED");
+    }
+
+    @Test
+    public void testSaleDuringComputationIsNotHiddenByTheCache() {
+        System.out.println("=== Testing Ranking Cache Against a Concurrent Sale ===");
+
+        Product product = createProduct("ANALYTICS-RACE");
+        LocalDateTime to = LocalDate.now().plusDays(1).atStartOfDay();
+        LocalDateTime from = to.minusDays(1);
+
+        // A sale inside the window commits, and evicts, while the ranking is still being computed
+        Map<String, Object> first = salesRankingService.cached("race", from, to, () -> {
+            CompletableFuture.runAsync(() -> saleRecordService.recordSale(product.getId(), 1)).join();
+            return new HashMap<>(Map.of("value", "before the sale"));
+        });
+        assertEquals(false, first.get("cached"));
+
+        Map<String, Object> second = salesRankingService.cached("race", from, to,
+                () -> new HashMap<>(Map.of("value", "after the sale")));
+        assertEquals(false, second.get("cached"));
+        assertEquals("after the sale", second.get("value"));
+
+        System.out.println("✅ Ranking cache race test PASSED");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> rows(Map<String, Object> result) {
+        return (List<Map<String, Object>>) result.get("rows");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> plan(Map<String, Object> result) {
+        return (Map<String, Object>) result.get("plan");
+    }
+
+    private void sale(Product product, LocalDateTime timestamp, int quantity, String unitPrice, String customer) {
+        SaleRecord sale = new SaleRecord();
+        sale.setProduct(product);
+        sale.setQuantitySold(quantity);
+        sale.setTimestamp(timestamp);
+        sale.setUnitPrice(new BigDecimal(unitPrice));
+        sale.setTotalAmount(new BigDecimal(unitPrice).multiply(BigDecimal.valueOf(quantity)));
+        sale.setCustomerName(customer);
+        sale.setLocation(LocationStock.DEFAULT_LOCATION);
+        saleRecordRepository.save(sale);
+    }
+
+    private Product createProduct(String sku) {
+        Product product = new Product();
+        product.setName("Analytics " + sku);
+        product.setSku(sku);
+        product.setQuantityOnHand(100);
+        Product saved = productService.saveProduct(product);
+        createdProducts.add(saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,135 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CustomerHistoryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SaleRecordService saleRecordService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : new ArrayList<>(createdProducts)) {
+            productService.forceDeleteProduct(id);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAggregatesAreMaintainedAsSalesAreRecorded() {
+        System.out.println("=== Testing Customer Aggregates ===");
+
+        Product widget = createProduct("CUST-WIDGET");
+        Product gadget = createProduct("CUST-GADGET");
+        saleRecordService.recordSale(widget.getId(), 2, new BigDecimal("5.00"), "Dana Scully", null);
+        saleRecordService.recordSale(gadget.getId(), 1, new BigDecimal("30.00"), "dana scully ", null);
+        saleRecordService.recordSale(widget.getId(), 1, new BigDecimal("5.00"), "DANA SCULLY", null);
+        saleRecordService.recordSale(widget.getId(), 4, new BigDecimal("5.00"), "Fox Mulder", null);
+
+        Map<String, Object> summary = customerService.getSummary("  Dana Scully");
+        assertEquals("dana scully", summary.get("customerKey"));
+        assertEquals(3L, summary.get("orderCount"));
+        assertEquals(4L, summary.get("units"));
+        assertEquals(new BigDecimal("45.00"), summary.get("lifetimeSpend"));
+        assertEquals(new BigDecimal("15.00"), summary.get("averageOrderValue"));
+        assertNotNull(summary.get("lastPurchase"));
+
+        List<Map<String, Object>> topProducts = (List<Map<String, Object>>) summary.get("topProducts");
+        assertEquals(gadget.getId(), topProducts.get(0).get("productId"));
+        assertEquals(widget.getId(), topProducts.get(1).get("productId"));
+        assertEquals(3L, topProducts.get(1).get("units"));
+
+        assertNull(customerService.getSummary("Walter Skinner"));
+        assertNull(customerService.getSummary("   "));
+
+        // Removing a product's sales recomputes the customers who bought it
+        productService.forceDeleteProduct(gadget.getId());
+        createdProducts.remove(gadget.getId());
+        Map<String, Object> afterDelete = customerService.getSummary("dana scully");
+        assertEquals(2L, afterDelete.get("orderCount"));
+        assertEquals(new BigDecimal("15.00"), afterDelete.get("lifetimeSpend"));
+
+        System.out.println("✅ Customer aggregates test PASSED");
+    }
+
+    @Test
+    public void testHistoryPagesThroughCustomerSales() throws Exception {
+        System.out.println("=== Testing Customer History Paging ===");
+
+        Product product = createProduct("CUST-HISTORY");
+        for (int i = 0; i < 7; i++) {
+            saleRecordService.recordSale(product.getId(), 1, new BigDecimal("1.00"), "History Customer", "sale " + i);
+        }
+        saleRecordService.recordSale(product.getId(), 1, new BigDecimal("1.00"), "Someone Else", null);
+
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CustomerService.HistoryPage page = customerService.getHistory("history customer", cursor, 3);
+            for (SaleRecord sale : page.content()) {
+                assertEquals("history customer", sale.getCustomerKey());
+                assertTrue(seen.add(sale.getId()));
+            }
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+        assertEquals(7, seen.size());
+        assertEquals(3, pages);
+
+        mockMvc.perform(get("/api/customers/History Customer/history").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customer.orderCount").value(7))
+                .andExpect(jsonPath("$.size").value(5))
+                .andExpect(jsonPath("$.hasNext").value(true));
+        mockMvc.perform(get("/api/customers/Nobody At All/history"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/customers/History Customer/history").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        System.out.println("✅ Customer history paging test PASSED");
+    }
+
+    private Product createProduct(String sku) {
+        Product product = new Product();
+        product.setName("Customer " + sku);
+        product.setSku(sku);
+        product.setQuantityOnHand(100);
+        Product saved = productService.saveProduct(product);
+        createdProducts.add(saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,152 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class IdempotencyKeyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SaleRecordRepository saleRecordRepository;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : createdProducts) {
+            saleRecordRepository.deleteAll(saleRecordRepository.findByProductId(id));
+            productRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    public void testRetriedSaleIsRecordedOnce() throws Exception {
+        System.out.println("=== Testing Idempotent Sale Retry ===");
+
+        Product product = createProduct("IDEM-001", 10);
+        String key = UUID.randomUUID().toString();
+        String body = "{\"productId\": " + product.getId() + ", \"quantitySold\": 3}";
+
+        MvcResult first = mockMvc.perform(post("/api/sales").header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn();
+        MvcResult retry = mockMvc.perform(post("/api/sales").header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn();
+
+        assertEquals(first.getResponse().getStatus(), retry.getResponse().getStatus());
+        assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+        assertNull(first.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("true", retry.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+
+        assertEquals(7, productRepository.findById(product.getId()).get().getQuantityOnHand());
+        assertEquals(1, saleRecordRepository.findByProductId(product.getId()).size());
+
+        System.out.println("✅ Idempotent sale retry test PASSED");
+    }
+
+    @Test
+    public void testKeyCannotBeReusedForAnotherRequest() throws Exception {
+        System.out.println("=== Testing Idempotency-Key Reuse ===");
+
+        Product product = createProduct("IDEM-002", 10);
+        String key = UUID.randomUUID().toString();
+
+        MvcResult added = mockMvc.perform(post("/api/products/" + product.getId() + "/add-stock")
+                .header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\": 5}")).andReturn();
+        assertEquals(200, added.getResponse().getStatus());
+
+        MvcResult reused = mockMvc.perform(post("/api/sales").header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productId\": " + product.getId() + ", \"quantitySold\": 1}")).andReturn();
+        assertEquals(422, reused.getResponse().getStatus());
+
+        // Without a key every request runs
+        mockMvc.perform(post("/api/products/" + product.getId() + "/add-stock")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\": 5}"));
+        assertEquals(20, productRepository.findById(product.getId()).get().getQuantityOnHand());
+
+        System.out.println("✅ Idempotency-Key reuse test PASSED");
+    }
+
+    @Test
+    public void testKeyCannotBeReusedWithAnotherBody() throws Exception {
+        System.out.println("=== Testing Idempotency-Key Reuse with a Different Body ===");
+
+        Product product = createProduct("IDEM-003", 10);
+        String key = UUID.randomUUID().toString();
+
+        MvcResult first = mockMvc.perform(post("/api/sales").header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productId\": " + product.getId() + ", \"quantitySold\": 1}")).andReturn();
+        assertEquals(200, first.getResponse().getStatus());
+
+        MvcResult changed = mockMvc.perform(post("/api/sales").header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productId\": " + product.getId() + ", \"quantitySold\": 4}")).andReturn();
+        assertEquals(422, changed.getResponse().getStatus());
+
+        assertEquals(9, productRepository.findById(product.getId()).get().getQuantityOnHand());
+        assertEquals(1, saleRecordRepository.findByProductId(product.getId()).size());
+
+        System.out.println("✅ Idempotency-Key body reuse test PASSED");
+    }
+
+    @Test
+    public void testStaleClaimIsTakenOverByRetry() {
+        System.out.println("=== Testing Idempotency Claim Lease ===");
+
+        String key = UUID.randomUUID().toString();
+        String scope = "POST /api/sales";
+        LocalDateTime now = LocalDateTime.now();
+
+        // A claim left behind by a request that died ten minutes ago
+        idempotencyRecordRepository.claim(key, scope, now.minusMinutes(10), now.plusHours(1));
+        assertEquals(IdempotencyService.Outcome.CLAIMED, idempotencyService.claim(key, scope).outcome());
+
+        // The retry now holds a fresh lease, so a concurrent duplicate still waits
+        assertEquals(IdempotencyService.Outcome.IN_PROGRESS, idempotencyService.claim(key, scope).outcome());
+        idempotencyService.abandon(key);
+
+        System.out.println("✅ Idempotency claim lease test PASSED");
+    }
+
+    private Product createProduct(String sku, int quantity) {
+        Product product = new Product();
+        product.setName("Idempotency " + sku);
+        product.setSku(sku);
+        product.setQuantityOnHand(quantity);
+        Product saved = productService.saveProduct(product);
+        createdProducts.add(saved.getId());
+        return saved;
+    }
+}
@@ -4,11 +4,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,6 +38,18 @@ public class InventoryOptimizerIntegrationTest {
     @Autowired
     private SaleRecordRepository saleRecordRepository;
 
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private LogService logService;
+
+    @Autowired
+    private LogEntryRepository logEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     /**
      * Main method to run all tests manually
      * Usage: Right-click and "Run main()" or use java command
@@ -405,6 +421,143 @@ public class InventoryOptimizerIntegrationTest {
         System.out.println("✅ Low stock scenario test PASSED");
     }
 
+    @Test
+    public void testMultiLocationStock() {
+        System.out.println("=== Testing Multi-Location Stock ===");
+
+        Product product = new Product();
+        product.setName("Multi Location Product");
+        product.setSku("LOC-001");
+        product.setQuantityOnHand(20);
+        Product savedProduct = productService.saveProduct(product);
+
+        // Receive at a store, then sell there and at the main warehouse
+        productService.addStock(savedProduct.getId(), 30, "STORE-1");
+        saleRecordService.recordSale(savedProduct.getId(), "STORE-1", 25, null, null, null);
+        saleRecordService.recordSale(savedProduct.getId(), 5);
+
+        // A location cannot sell stock that sits at another location
+        assertThrows(RuntimeException.class, () -> {
+            saleRecordService.recordSale(savedProduct.getId(), "STORE-1", 10, null, null, null);
+        });
+
+        Map<String, Integer> byLocation = new java.util.HashMap<>();
+        for (LocationStock stock : productService.getLocationStock(savedProduct.getId())) {
+            byLocation.put(stock.getLocation(), stock.getQuantity());
+        }
+        assertEquals(15, byLocation.get(LocationStock.DEFAULT_LOCATION));
+        assertEquals(5, byLocation.get("STORE-1"));
+        assertEquals(20, productService.getProductById(savedProduct.getId()).get().getQuantityOnHand());
+
+        System.out.println("Stock by location: " + byLocation);
+        System.out.println("✅ Multi-location stock test PASSED");
+    }
+
+    @Test
+    public void testStockAtPointInTime() {
+        System.out.println("=== Testing Point-in-Time Stock from the Ledger ===");
+
+        LocalDateTime beforeCreation = LocalDateTime.now().minusSeconds(1);
+
+        Product product = new Product();
+        product.setName("Ledger Product");
+        product.setSku("LEDGER-001");
+        product.setQuantityOnHand(10);
+        Product savedProduct = productService.saveProduct(product);
+        productService.addStock(savedProduct.getId(), 5);
+        saleRecordService.recordSale(savedProduct.getId(), 3);
+
+        Map<String, Object> current = stockLedgerService.getStockAt(savedProduct.getId(), LocalDateTime.now());
+        assertEquals(12L, current.get("quantityOnHand"));
+        assertEquals(0L, stockLedgerService.getStockAt(savedProduct.getId(), beforeCreation).get("quantityOnHand"));
+
+        // After a snapshot the same answer comes from the snapshot, not a replay
+        stockLedgerService.takeSnapshots(LocalDateTime.now());
+        Map<String, Object> fromSnapshot = stockLedgerService.getStockAt(savedProduct.getId(), LocalDateTime.now());
+        assertEquals(12L, fromSnapshot.get("quantityOnHand"));
+        assertNotNull(fromSnapshot.get("snapshotAsOf"));
+        assertEquals(0L, fromSnapshot.get("movementsReplayed"));
+
+        System.out.println("Stock now: " + fromSnapshot);
+        System.out.println("✅ Point-in-time stock test PASSED");
+    }
+
+    @Test
+    public void testLateCommittedMovementIsFoldedIntoSnapshots() {
+        System.out.println("=== Testing Snapshots with a Late-Committed Movement ===");
+
+        Product product = new Product();
+        product.setName("Late Ledger Product");
+        product.setSku("LEDGER-002");
+        product.setQuantityOnHand(10);
+        Product savedProduct = productService.saveProduct(product);
+
+        LocalDateTime firstRun = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        stockLedgerService.takeSnapshots(firstRun);
+        assertEquals(10L, stockLedgerService.getStockAt(savedProduct.getId(), firstRun).get("quantityOnHand"));
+
+        // Stamped before the first run, but its transaction only committed after it
+        jdbcTemplate.update("INSERT INTO stock_movement (product_id, location, delta, reason, timestamp) VALUES (?, ?, ?, ?, ?)",
+                savedProduct.getId(), LocationStock.DEFAULT_LOCATION, 4, StockMovement.ADJUSTMENT, firstRun.minusSeconds(1));
+
+        LocalDateTime secondRun = firstRun.plusSeconds(1);
+        stockLedgerService.takeSnapshots(secondRun);
+
+        // Both the new snapshot and the one it was stamped before include it
+        Map<String, Object> atFirstRun = stockLedgerService.getStockAt(savedProduct.getId(), firstRun);
+        assertEquals(14L, atFirstRun.get("quantityOnHand"));
+        assertEquals(0L, atFirstRun.get("movementsReplayed"));
+        Map<String, Object> atSecondRun = stockLedgerService.getStockAt(savedProduct.getId(), secondRun);
+        assertEquals(14L, atSecondRun.get("quantityOnHand"));
+        assertEquals(secondRun, atSecondRun.get("snapshotAsOf"));
+
+        System.out.println("✅ Late-committed movement test PASSED");
+    }
+
+    @Test
+    public void testLogKeysetPagination() {
+        System.out.println("=== Testing Keyset Pagination of Logs ===");
+
+        // Several entries share a timestamp, so the id tie-break decides the order
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 7; i++) {
+            LogEntry entry = new LogEntry(i % 2 == 0 ? "SALE" : "UPDATE", "PRODUCT", (long) i, "Keyset entry " + i, "keyset-user");
+            entry.setTimestamp(base.plusMinutes(i / 3));
+            logEntryRepository.save(entry);
+        }
+
+        LogFilter byUser = new LogFilter(null, null, null, "keyset-user", null, null);
+        List<LogEntry> walked = new ArrayList<>();
+        String cursor = null;
+        int slices = 0;
+        do {
+            LogService.LogSlice slice = logService.queryLogs(byUser, cursor, 3);
+            walked.addAll(slice.content());
+            cursor = slice.nextCursor();
+            assertEquals(slice.hasNext(), cursor != null);
+            slices++;
+        } while (cursor != null);
+
+        assertEquals(3, slices);
+        assertEquals(7, walked.size());
+        assertEquals(7, walked.stream().map(LogEntry::getId).distinct().count());
+        for (int i = 1; i < walked.size(); i++) {
+            LogEntry newer = walked.get(i - 1);
+            LogEntry older = walked.get(i);
+            assertTrue(newer.getTimestamp().isAfter(older.getTimestamp())
+                    || (newer.getTimestamp().equals(older.getTimestamp()) && newer.getId() > older.getId()));
+        }
+
+        // Filters combine, and the export walks the same rows
+        LogFilter salesInRange = new LogFilter("SALE", "PRODUCT", null, "keyset-user", base, base.plusMinutes(1));
+        assertEquals(3, logService.queryLogs(salesInRange, null, 50).size());
+        List<LogEntry> exported = new ArrayList<>();
+        logService.forEachLog(byUser, exported::addAll);
+        assertEquals(walked.stream().map(LogEntry::getId).toList(), exported.stream().map(LogEntry::getId).toList());
+
+        System.out.println("✅ Keyset log pagination test PASSED");
+    }
+
     // =================================================================
     // SIMPLIFIED TEST METHODS FOR MAIN() EXECUTION
     // =================================================================
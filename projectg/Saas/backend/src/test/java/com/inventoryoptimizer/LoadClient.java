@@ -0,0 +1,152 @@
+package com.inventoryoptimizer;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HttpClient wrapper that records every call of a load run. Latency is recorded twice, in
+ * microseconds: response time runs from when the request was supposed to be sent (its
+ * scheduled arrival, or the end of the step before it), service time from when it actually
+ * was. Under an open arrival model the difference is the queueing a closed-loop tester would
+ * hide (coordinated omission). Calls scheduled before the measurement start are not recorded.
+ */
+class LoadClient {
+    // Highest latency the histograms track (1 hour in microseconds), at 3 significant digits
+    private static final long MAX_LATENCY_MICROS = 3_600_000_000L;
+
+    // Latencies and outcomes of one scenario step, e.g. pos/record-sale
+    static class StepStats {
+        final Histogram responseTime = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final Histogram serviceTime = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder requests = new LongAdder();
+        // "status 429", "status 500", "IOException", ... -> count
+        final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        Map<String, Long> errorCounts() {
+            Map<String, Long> counts = new TreeMap<>();
+            errors.forEach((kind, count) -> counts.put(kind, count.sum()));
+            return counts;
+        }
+    }
+
+    // Whole-session latency and the arrivals that could not even be started
+    static class ScenarioStats {
+        final Histogram sessionTime = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder sessions = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final Map<String, StepStats> steps = new ConcurrentHashMap<>();
+    }
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final Map<String, ScenarioStats> scenarios = new ConcurrentHashMap<>();
+    private final AtomicLong inFlight = new AtomicLong();
+    private volatile long measureFromNanos = Long.MAX_VALUE;
+
+    LoadClient(String baseUrl, Duration requestTimeout) {
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    void startMeasuring(long fromNanos) {
+        measureFromNanos = fromNanos;
+    }
+
+    boolean isMeasured(long intendedNanos) {
+        return intendedNanos >= measureFromNanos;
+    }
+
+    ScenarioStats scenario(String name) {
+        return scenarios.computeIfAbsent(name, key -> new ScenarioStats());
+    }
+
+    Map<String, ScenarioStats> scenarios() {
+        return scenarios;
+    }
+
+    long inFlight() {
+        return inFlight.get();
+    }
+
+    HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(requestTimeout);
+    }
+
+    HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    HttpRequest postJson(String path, String json) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    // Send one step of a session. Failed calls complete with null instead of an exception,
+    // so scripts decide themselves whether the session can go on.
+    CompletableFuture<HttpResponse<String>> send(String scenario, String step, HttpRequest request, long intendedNanos) {
+        StepStats stats = scenario(scenario).steps.computeIfAbsent(step, key -> new StepStats());
+        long sentNanos = System.nanoTime();
+        inFlight.incrementAndGet();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, failure) -> {
+                    long doneNanos = System.nanoTime();
+                    inFlight.decrementAndGet();
+                    boolean ok = failure == null && response.statusCode() < 400;
+                    if (isMeasured(intendedNanos)) {
+                        stats.requests.increment();
+                        stats.responseTime.recordValue(micros(doneNanos - intendedNanos));
+                        stats.serviceTime.recordValue(micros(doneNanos - sentNanos));
+                        if (!ok) {
+                            String kind = failure != null ? rootCause(failure).getClass().getSimpleName() : "status " + response.statusCode();
+                            stats.errors.computeIfAbsent(kind, key -> new LongAdder()).increment();
+                        }
+                    }
+                    return ok ? response : null;
+                });
+    }
+
+    void recordSession(String scenario, long intendedNanos) {
+        if (isMeasured(intendedNanos)) {
+            ScenarioStats stats = scenario(scenario);
+            stats.sessions.increment();
+            stats.sessionTime.recordValue(micros(System.nanoTime() - intendedNanos));
+        }
+    }
+
+    void recordDropped(String scenario, long intendedNanos) {
+        if (isMeasured(intendedNanos)) {
+            scenario(scenario).dropped.increment();
+        }
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(Math.max(nanos / 1000, 0), MAX_LATENCY_MICROS);
+    }
+
+    private static Throwable rootCause(Throwable failure) {
+        Throwable cause = failure;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,115 @@
+package com.inventoryoptimizer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// report.json (for diffing runs and capacity plans) and report.html (for reading) of one load run
+class LoadReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, Object> report = new LinkedHashMap<>();
+
+    LoadReport(Map<String, Object> config, Instant startedAt, double measuredSeconds, LoadClient client) {
+        report.put("startedAt", startedAt.toString());
+        report.put("measuredSeconds", measuredSeconds);
+        report.put("config", config);
+
+        List<Map<String, Object>> scenarios = new ArrayList<>();
+        new TreeMap<>(client.scenarios()).forEach((name, stats) -> {
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("name", name);
+            scenario.put("sessions", stats.sessions.sum());
+            scenario.put("sessionsPerSecond", stats.sessions.sum() / measuredSeconds);
+            scenario.put("dropped", stats.dropped.sum());
+            scenario.put("sessionTimeMillis", summary(stats.sessionTime));
+
+            List<Map<String, Object>> steps = new ArrayList<>();
+            new TreeMap<>(stats.steps).forEach((stepName, step) -> {
+                Map<String, Object> stepReport = new LinkedHashMap<>();
+                stepReport.put("name", stepName);
+                stepReport.put("requests", step.requests.sum());
+                stepReport.put("requestsPerSecond", step.requests.sum() / measuredSeconds);
+                stepReport.put("errors", step.errorCounts());
+                stepReport.put("responseTimeMillis", summary(step.responseTime));
+                stepReport.put("serviceTimeMillis", summary(step.serviceTime));
+                steps.add(stepReport);
+            });
+            scenario.put("steps", steps);
+            scenarios.add(scenario);
+        });
+        report.put("scenarios", scenarios);
+    }
+
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(directory.resolve("report.json").toFile(), report);
+        Files.writeString(directory.resolve("report.html"), html());
+    }
+
+    private static Map<String, Object> summary(Histogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("mean", histogram.getTotalCount() > 0 ? histogram.getMean() / 1000.0 : 0.0);
+        for (double percentile : PERCENTILES) {
+            summary.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        summary.put("max", histogram.getMaxValue() / 1000.0);
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String html() {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Load test report</title>\n")
+                .append("<style>body{font-family:sans-serif;margin:2em}table{border-collapse:collapse;margin-bottom:2em}")
+                .append("th,td{border:1px solid #ccc;padding:4px 8px;text-align:right}th:first-child,td:first-child{text-align:left}")
+                .append(".errors{color:#b00}</style></head><body>\n")
+                .append("<h1>Load test report</h1>\n<p>Started ").append(escape(report.get("startedAt")))
+                .append(", measured for ").append(String.format("%.0f", (Double) report.get("measuredSeconds"))).append(" s. ")
+                .append("Response time counts from when a request was due (open arrival model, corrected for coordinated ")
+                .append("omission); service time from when it was actually sent. All times in milliseconds.</p>\n")
+                .append("<pre>").append(escape(report.get("config"))).append("</pre>\n");
+
+        for (Map<String, Object> scenario : (List<Map<String, Object>>) report.get("scenarios")) {
+            Map<String, Object> session = (Map<String, Object>) scenario.get("sessionTimeMillis");
+            html.append("<h2>").append(escape(scenario.get("name"))).append("</h2>\n<p>")
+                    .append(scenario.get("sessions")).append(" sessions (")
+                    .append(String.format("%.1f", (Double) scenario.get("sessionsPerSecond"))).append("/s), ")
+                    .append(scenario.get("dropped")).append(" dropped; session p99 ")
+                    .append(session.get("p99")).append(" ms</p>\n")
+                    .append("<table><tr><th>step</th><th>requests</th><th>req/s</th><th>errors</th>")
+                    .append("<th>p50</th><th>p90</th><th>p99</th><th>p99.9</th><th>max</th><th>service p99</th></tr>\n");
+            for (Map<String, Object> step : (List<Map<String, Object>>) scenario.get("steps")) {
+                Map<String, Object> response = (Map<String, Object>) step.get("responseTimeMillis");
+                Map<String, Object> service = (Map<String, Object>) step.get("serviceTimeMillis");
+                Map<String, Long> errors = (Map<String, Long>) step.get("errors");
+                html.append("<tr><td>").append(escape(step.get("name"))).append("</td><td>").append(step.get("requests"))
+                        .append("</td><td>").append(String.format("%.1f", (Double) step.get("requestsPerSecond")))
+                        .append("</td><td class=\"").append(errors.isEmpty() ? "" : "errors").append("\">")
+                        .append(errors.isEmpty() ? "0" : escape(errors)).append("</td>");
+                for (String column : List.of("p50", "p90", "p99", "p99.9", "max")) {
+                    html.append("<td>").append(response.get(column)).append("</td>");
+                }
+                html.append("<td>").append(service.get("p99")).append("</td></tr>\n");
+            }
+            html.append("</table>\n");
+        }
+        return html.append("</body></html>\n").toString();
+    }
+
+    private static String escape(Object value) {
+        return String.valueOf(value).replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
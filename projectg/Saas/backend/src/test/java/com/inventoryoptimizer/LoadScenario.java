@@ -0,0 +1,139 @@
+package com.inventoryoptimizer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One scripted user journey of a load run. Each arrival runs the script once as a session;
+ * a step that depends on an earlier response is due as soon as that response arrives, and
+ * steps a browser would issue together are sent together.
+ */
+abstract class LoadScenario {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    final String name;
+    final double ratePerSecond;
+
+    LoadScenario(String name, double ratePerSecond) {
+        this.name = name;
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    // Run one session whose first request was due at intendedNanos
+    abstract CompletableFuture<?> run(LoadClient client, long intendedNanos);
+
+    static JsonNode json(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (Exception e) {
+            return objectMapper.nullNode();
+        }
+    }
+
+    static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    // Point-of-sale terminals: mostly walk-in sales, some quick sales, and online checkouts
+    // that hold stock and then confirm it. Sales carry an Idempotency-Key like the POS client.
+    static class PointOfSale extends LoadScenario {
+        private final List<Long> productIds;
+
+        PointOfSale(double ratePerSecond, List<Long> productIds) {
+            super("pos", ratePerSecond);
+            this.productIds = productIds;
+        }
+
+        @Override
+        CompletableFuture<?> run(LoadClient client, long intendedNanos) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long productId = pick(productIds);
+            int roll = random.nextInt(100);
+
+            if (roll < 70) {
+                String sale = String.format("{\"productId\":%d,\"quantitySold\":%d,\"customerName\":\"Load Customer %d\"}",
+                        productId, 1 + random.nextInt(3), random.nextInt(500));
+                return client.send(name, "record-sale", client.request("/api/sales")
+                        .header("Content-Type", "application/json")
+                        .header(IdempotencyFilter.HEADER, UUID.randomUUID().toString())
+                        .POST(HttpRequest.BodyPublishers.ofString(sale))
+                        .build(), intendedNanos);
+            }
+            if (roll < 90) {
+                return client.send(name, "quick-sale", client.postJson(
+                        "/api/sales/quick?productId=" + productId + "&quantitySold=1", ""), intendedNanos);
+            }
+
+            String hold = String.format("{\"productId\":%d,\"quantity\":1,\"ttlSeconds\":120}", productId);
+            return client.send(name, "checkout-hold", client.postJson("/api/reservations", hold), intendedNanos)
+                    .thenCompose(response -> {
+                        if (response == null) {
+                            return CompletableFuture.completedFuture(null);
+                        }
+                        long reservationId = json(response).path("id").asLong();
+                        return client.send(name, "checkout-confirm", client.postJson(
+                                "/api/reservations/" + reservationId + "/confirm", "{}"), System.nanoTime());
+                    });
+        }
+    }
+
+    // A dashboard page load: every widget's request at once, done when the last one answers
+    static class DashboardRefresh extends LoadScenario {
+        private static final List<String[]> WIDGETS = List.of(
+                new String[] {"products", "/api/products"},
+                new String[] {"recent-sales", "/api/sales/recent"},
+                new String[] {"revenue-total", "/api/sales/revenue/total"},
+                new String[] {"daily-trend", "/api/sales/history/daily-trend?days=30"},
+                new String[] {"top-products", "/api/analytics/top-products?days=7"},
+                new String[] {"revenue-forecast", "/api/forecasts/revenue?days=30"});
+
+        DashboardRefresh(double ratePerSecond) {
+            super("dashboard", ratePerSecond);
+        }
+
+        @Override
+        CompletableFuture<?> run(LoadClient client, long intendedNanos) {
+            return CompletableFuture.allOf(WIDGETS.stream()
+                    .map(widget -> client.send(name, widget[0], client.get(widget[1]), intendedNanos))
+                    .toArray(CompletableFuture[]::new));
+        }
+    }
+
+    // An operator paging back through the activity log, then filtering it by action
+    static class LogBrowsing extends LoadScenario {
+        private static final int PAGES = 3;
+        private static final List<String> ACTIONS = List.of("SALE", "CREATE", "RESERVE", "UPDATE");
+
+        LogBrowsing(double ratePerSecond) {
+            super("logs", ratePerSecond);
+        }
+
+        @Override
+        CompletableFuture<?> run(LoadClient client, long intendedNanos) {
+            return page(client, null, 1, intendedNanos)
+                    .thenCompose(ignored -> client.send(name, "filter-by-action",
+                            client.get("/api/logs?size=50&action=" + pick(ACTIONS)), System.nanoTime()));
+        }
+
+        private CompletableFuture<?> page(LoadClient client, String cursor, int page, long intendedNanos) {
+            String path = "/api/logs?size=50" + (cursor != null ? "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8) : "");
+            return client.send(name, page == 1 ? "first-page" : "next-page", client.get(path), intendedNanos)
+                    .thenCompose(response -> {
+                        JsonNode next = response != null ? json(response).path("nextCursor") : null;
+                        if (page == PAGES || next == null || !next.isTextual()) {
+                            return CompletableFuture.completedFuture(null);
+                        }
+                        return page(client, next.asText(), page + 1, System.nanoTime());
+                    });
+        }
+    }
+}
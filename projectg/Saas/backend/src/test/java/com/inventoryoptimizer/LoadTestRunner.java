@@ -0,0 +1,200 @@
+package com.inventoryoptimizer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load generator for capacity planning. Sessions of each scenario arrive at a
+ * fixed average rate whether or not earlier ones have finished, the way real terminals and
+ * browsers do, so an overloaded backend shows up as growing response times instead of a
+ * quietly lower request rate. Start the backend on H2 first:
+ *
+ *   ./mvnw spring-boot:run -Dspring-boot.run.profiles=h2
+ *
+ * then run this class (options as --name=value, defaults below) and open
+ * target/load-report/report.html, or diff report.json against an earlier release.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(Map.of(
+                "base-url", "http://localhost:8081",
+                "duration", "60",
+                "warmup", "10",
+                "pos-rate", "20",
+                "dashboard-rate", "1",
+                "log-rate", "0.5",
+                "arrivals", "poisson",
+                "products", "20",
+                "max-in-flight", "2000",
+                "report-dir", "target/load-report"));
+        options.put("request-timeout", "30");
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !options.containsKey(arg.substring(2, separator))) {
+                System.err.println("Unknown option " + arg + "; options (with defaults): " + options);
+                System.exit(2);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadClient client = new LoadClient(options.get("base-url"),
+                Duration.ofSeconds(Long.parseLong(options.get("request-timeout"))));
+
+        System.out.println("=".repeat(60));
+        System.out.println("    SMART INVENTORY PLATFORM - LOAD TEST");
+        System.out.println("=".repeat(60));
+        if (!isBackendRunning(client)) {
+            System.err.println("❌ ERROR: Backend is not running at " + options.get("base-url") + "!");
+            System.err.println("Start it on H2 first:");
+            System.err.println("  cd backend");
+            System.err.println("  ./mvnw spring-boot:run -Dspring-boot.run.profiles=h2");
+            System.exit(1);
+        }
+
+        List<Long> productIds = seedProducts(client, Integer.parseInt(options.get("products")));
+        System.out.println("✅ Seeded " + productIds.size() + " products");
+
+        List<LoadScenario> scenarios = List.of(
+                new LoadScenario.PointOfSale(Double.parseDouble(options.get("pos-rate")), productIds),
+                new LoadScenario.DashboardRefresh(Double.parseDouble(options.get("dashboard-rate"))),
+                new LoadScenario.LogBrowsing(Double.parseDouble(options.get("log-rate"))));
+
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("warmup")));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("duration")));
+        long maxInFlight = Long.parseLong(options.get("max-in-flight"));
+        boolean poisson = "poisson".equals(options.get("arrivals"));
+
+        Instant startedAt = Instant.now();
+        long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long endNanos = startNanos + warmupNanos + durationNanos;
+        client.startMeasuring(startNanos + warmupNanos);
+        System.out.printf("Running %ds warmup + %ds measured, %s arrivals%n",
+                TimeUnit.NANOSECONDS.toSeconds(warmupNanos), TimeUnit.NANOSECONDS.toSeconds(durationNanos), options.get("arrivals"));
+
+        List<Thread> dispatchers = new ArrayList<>();
+        for (LoadScenario scenario : scenarios) {
+            if (scenario.ratePerSecond > 0) {
+                Thread dispatcher = new Thread(() -> dispatch(client, scenario, startNanos, endNanos, poisson, maxInFlight),
+                        "load-" + scenario.name);
+                dispatcher.start();
+                dispatchers.add(dispatcher);
+            }
+        }
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.join();
+        }
+
+        // Let sessions that arrived before the end finish, up to one request timeout
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("request-timeout")));
+        while (client.inFlight() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>(options);
+        config.put("productIds", productIds.size());
+        LoadReport report = new LoadReport(config, startedAt, durationNanos / 1e9, client);
+        Path reportDir = Path.of(options.get("report-dir"));
+        report.write(reportDir);
+
+        printSummary(client);
+        System.out.println("📊 Report: " + reportDir.resolve("report.html").toAbsolutePath());
+        System.out.println("           " + reportDir.resolve("report.json").toAbsolutePath());
+        System.exit(0);
+    }
+
+    // Start a session at every arrival time. A dispatcher running late still stamps each session
+    // with the time it was due, so the lag is charged to response time rather than hidden.
+    private static void dispatch(LoadClient client, LoadScenario scenario, long startNanos, long endNanos,
+                                 boolean poisson, long maxInFlight) {
+        double meanIntervalNanos = 1e9 / scenario.ratePerSecond;
+        long due = startNanos;
+        while (due < endNanos) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            long intendedNanos = due;
+            if (client.inFlight() >= maxInFlight) {
+                client.recordDropped(scenario.name, intendedNanos);
+            } else {
+                scenario.run(client, intendedNanos).whenComplete((result, failure) -> client.recordSession(scenario.name, intendedNanos));
+            }
+
+            due += poisson
+                    ? (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos)
+                    : (long) meanIntervalNanos;
+        }
+    }
+
+    private static boolean isBackendRunning(LoadClient client) {
+        try {
+            HttpResponse<String> response = client.send("setup", "health", client.get("/api/products"), System.nanoTime())
+                    .get(5, TimeUnit.SECONDS);
+            return response != null;
+        } catch (Exception e) {
+            return false;
+        } finally {
+            client.scenarios().remove("setup");
+        }
+    }
+
+    // Products with enough stock that the run never sells out; SKUs are unique per run
+    private static List<Long> seedProducts(LoadClient client, int count) throws Exception {
+        long run = System.currentTimeMillis();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int cents = 100 + ThreadLocalRandom.current().nextInt(9900);
+            String product = String.format("{\"name\":\"Load Product %d\",\"sku\":\"LOAD-%d-%d\",\"quantityOnHand\":1000000," +
+                    "\"lowStockThreshold\":10,\"price\":%d.%02d,\"costPrice\":%d.%02d}",
+                    i, run, i, cents / 100, cents % 100, cents * 6 / 1000, cents * 6 / 10 % 100);
+            HttpResponse<String> response = client.send("setup", "create-product", client.postJson("/api/products", product), System.nanoTime())
+                    .get(30, TimeUnit.SECONDS);
+            if (response == null) {
+                throw new IllegalStateException("Could not create load test product " + i);
+            }
+            JsonNode created = LoadScenario.json(response);
+            ids.add(created.path("id").asLong());
+        }
+        client.scenarios().remove("setup");
+        return ids;
+    }
+
+    private static void printSummary(LoadClient client) {
+        System.out.println("");
+        System.out.println("=".repeat(60));
+        System.out.println("📊 RESPONSE TIMES (ms, from when each request was due)");
+        System.out.println("=".repeat(60));
+        Map<String, LoadClient.ScenarioStats> scenarios = new HashMap<>(client.scenarios());
+        scenarios.keySet().stream().sorted().forEach(name -> {
+            LoadClient.ScenarioStats stats = scenarios.get(name);
+            System.out.printf("%s: %d sessions, %d dropped, session p99 %.1f%n",
+                    name, stats.sessions.sum(), stats.dropped.sum(), millis(stats.sessionTime, 99));
+            stats.steps.keySet().stream().sorted().forEach(stepName -> {
+                LoadClient.StepStats step = stats.steps.get(stepName);
+                long errors = step.errorCounts().values().stream().mapToLong(Long::longValue).sum();
+                System.out.printf("  %-18s %7d req %5d err  p50 %8.1f  p99 %8.1f  p99.9 %8.1f  (service p99 %.1f)%n",
+                        stepName, step.requests.sum(), errors, millis(step.responseTime, 50), millis(step.responseTime, 99),
+                        millis(step.responseTime, 99.9), millis(step.serviceTime, 99));
+            });
+        });
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SaleRecordService saleRecordService;
+
+    @Autowired
+    private ForecastService forecastService;
+
+    @Autowired
+    private SalesRankingService salesRankingService;
+
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : createdProducts) {
+            productService.forceDeleteProduct(id);
+        }
+    }
+
+    @Test
+    public void testPrometheusEndpointExposesHotPathMetrics() throws Exception {
+        System.out.println("=== Testing Prometheus Metrics ===");
+
+        Product product = new Product();
+        product.setName("Metrics Product");
+        product.setSku("METRICS-001");
+        product.setQuantityOnHand(10);
+        product.setPrice(new BigDecimal("3.00"));
+        product = productService.saveProduct(product);
+        createdProducts.add(product.getId());
+
+        saleRecordService.recordSale(product.getId(), 2, new BigDecimal("3.00"), "Metrics Customer", null);
+        forecastService.forecastTotalRevenue(7);
+        salesRankingService.topProducts("units", 7, 5);
+        salesRankingService.topProducts("units", 7, 5);
+        mockMvc.perform(get("/api/products")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        for (String step : List.of("stock_update", "sale_insert", "derived_data", "log_insert")) {
+            assertTrue(scrape.contains("inventory_sale_step_seconds_bucket{application=\"backend\",step=\"" + step + "\""), step);
+        }
+        assertTrue(scrape.contains("inventory_service_seconds_bucket{"));
+        assertTrue(scrape.contains("class=\"com.inventoryoptimizer.ForecastService\""));
+        assertTrue(scrape.contains("method=\"forecastTotalRevenue\""));
+        assertTrue(scrape.contains("inventory_forecast_products_count"));
+        assertTrue(scrape.contains("inventory_cache_requests_total{application=\"backend\",cache=\"ranking\",result=\"hit\"}"));
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(scrape.contains("uri=\"/api/products\""));
+        assertTrue(scrape.contains("hikaricp_connections_acquire_seconds_bucket{"));
+        assertTrue(scrape.contains("hibernate_"));
+
+        System.out.println("✅ Prometheus metrics test PASSED");
+    }
+}
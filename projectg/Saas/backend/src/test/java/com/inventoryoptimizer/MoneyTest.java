@@ -0,0 +1,109 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    private static final int AMOUNTS = 5_000_000;
+
+    @Test
+    public void testSumsMatchBigDecimalExactly() {
+        System.out.println("=== Testing Long-Cents Sums Against BigDecimal ===");
+
+        // Property: for any list of 2-decimal amounts the long-cents sum equals the BigDecimal sum
+        Random random = new Random(42);
+        for (int trial = 0; trial < 200; trial++) {
+            int size = 1 + random.nextInt(5000);
+            BigDecimal expected = BigDecimal.ZERO;
+            long cents = 0;
+            for (int i = 0; i < size; i++) {
+                BigDecimal amount = BigDecimal.valueOf(random.nextInt(10_000_000) - 1_000_000, 2);
+                int quantity = 1 + random.nextInt(20);
+                expected = expected.add(amount.multiply(BigDecimal.valueOf(quantity)));
+                cents = Money.add(cents, Money.times(Money.ofDecimal(amount), quantity));
+            }
+            assertEquals(expected, Money.toDecimal(cents), "trial " + trial);
+        }
+
+        System.out.println("✅ Long-cents sum property test PASSED");
+    }
+
+    @Test
+    public void testRoundingAndOverflow() {
+        System.out.println("=== Testing Money Rounding and Overflow ===");
+
+        assertEquals(1235, Money.ofDecimal(new BigDecimal("12.345")));
+        assertEquals(-1235, Money.ofDecimal(new BigDecimal("-12.345")));
+        assertEquals(1234, Money.ofDecimal(new BigDecimal("12.3449")));
+        assertEquals(0, Money.ofDecimal(null));
+        assertEquals(new BigDecimal("0.05"), Money.toDecimal(5));
+        assertEquals(333, Money.divide(1000, 3));
+        assertEquals(667, Money.divide(2000, 3));
+        assertEquals(1250, Money.times(500, 2.5));
+
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.ofDecimal(new BigDecimal("1e30")));
+        assertThrows(ArithmeticException.class, () -> Money.divide(100, 0));
+
+        System.out.println("✅ Money rounding and overflow test PASSED");
+    }
+
+    @Test
+    public void testAggregateThroughputAndDrift() {
+        System.out.println("=== Money Aggregation Benchmark ===");
+
+        Random random = new Random(7);
+        BigDecimal[] amounts = new BigDecimal[AMOUNTS];
+        long[] cents = new long[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            amounts[i] = BigDecimal.valueOf(random.nextInt(100_000), 2);
+            cents[i] = Money.ofDecimal(amounts[i]);
+        }
+
+        // Best of a few runs for each approach, so JIT warm-up does not decide the comparison
+        BigDecimal exact = null;
+        double doubleSum = 0;
+        long longSum = 0;
+        long bigDecimalNanos = Long.MAX_VALUE;
+        long doubleNanos = Long.MAX_VALUE;
+        long longNanos = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            BigDecimal total = BigDecimal.ZERO;
+            for (BigDecimal amount : amounts) {
+                total = total.add(amount);
+            }
+            bigDecimalNanos = Math.min(bigDecimalNanos, System.nanoTime() - start);
+            exact = total;
+
+            start = System.nanoTime();
+            double approximate = 0;
+            for (BigDecimal amount : amounts) {
+                approximate += amount.doubleValue();
+            }
+            doubleNanos = Math.min(doubleNanos, System.nanoTime() - start);
+            doubleSum = approximate;
+
+            start = System.nanoTime();
+            long sum = 0;
+            for (long amount : cents) {
+                sum = Money.add(sum, amount);
+            }
+            longNanos = Math.min(longNanos, System.nanoTime() - start);
+            longSum = sum;
+        }
+
+        assertEquals(exact, Money.toDecimal(longSum));
+        System.out.printf("BigDecimal sum: %,d us%n", bigDecimalNanos / 1000);
+        System.out.printf("double sum:     %,d us (off by %s)%n", doubleNanos / 1000,
+                exact.subtract(BigDecimal.valueOf(doubleSum)).abs().toPlainString());
+        System.out.printf("long-cents sum: %,d us (exact)%n", longNanos / 1000);
+        System.out.println("✅ Money aggregation benchmark PASSED");
+    }
+}
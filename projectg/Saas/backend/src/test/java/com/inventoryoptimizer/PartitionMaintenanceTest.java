@@ -0,0 +1,85 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = "inventory.partitions.archive-dir=target/test-archive")
+public class PartitionMaintenanceTest {
+
+    @Autowired
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @Autowired
+    private LogEntryRepository logEntryRepository;
+
+    private final List<Long> createdLogs = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        logEntryRepository.deleteAllById(createdLogs);
+        Path archive = Paths.get("target/test-archive");
+        if (Files.exists(archive)) {
+            try (Stream<Path> files = Files.walk(archive)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    public void testRetentionSelectsWholeMonthsBeforeCutoff() {
+        System.out.println("=== Testing Partition Retention Selection ===");
+
+        List<YearMonth> partitions = List.of(YearMonth.of(2024, 3), YearMonth.of(2023, 12), YearMonth.of(2024, 1), YearMonth.of(2024, 2));
+        assertEquals(List.of(YearMonth.of(2023, 12), YearMonth.of(2024, 1)),
+                PartitionMaintenanceService.partitionsOlderThan(partitions, YearMonth.of(2024, 2)));
+        assertEquals("log_entry_p202401", PartitionMaintenanceService.partitionName("log_entry", YearMonth.of(2024, 1)));
+
+        System.out.println("✅ Partition retention selection test PASSED");
+    }
+
+    @Test
+    public void testArchivedMonthCanBeQueried() {
+        System.out.println("=== Testing Cold Archive Round Trip ===");
+
+        LocalDateTime january = LocalDateTime.of(2019, 1, 10, 8, 30);
+        saveLog("Archived entry 1", january);
+        saveLog("Archived entry 2", january.plusDays(20));
+        saveLog("February entry", january.plusMonths(1));
+
+        long rows = partitionMaintenanceService.archiveMonth("log_entry", "log_entry", YearMonth.of(2019, 1));
+        assertEquals(2, rows);
+        assertTrue(Files.exists(Paths.get("target/test-archive/log_entry/log_entry_p201901.ndjson.gz")));
+
+        List<Map<String, Object>> read = new ArrayList<>();
+        partitionMaintenanceService.readArchived("log_entry", january.plusDays(1), LocalDateTime.of(2019, 3, 1, 0, 0), read::add);
+        assertEquals(1, read.size());
+        assertEquals("Archived entry 2", read.get(0).get("description"));
+        assertEquals("archive-user", read.get(0).get("user_name"));
+
+        System.out.println("✅ Cold archive round trip test PASSED");
+    }
+
+    private void saveLog(String description, LocalDateTime timestamp) {
+        LogEntry entry = new LogEntry("UPDATE", "PRODUCT", 1L, description, "archive-user");
+        entry.setTimestamp(timestamp);
+        createdLogs.add(logEntryRepository.save(entry).getId());
+    }
+}
@@ -0,0 +1,135 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the SQL each repository finder actually generates is answered from an index on
+ * the configured database (H2 or PostgreSQL), so a dropped or mistyped migration, or a finder
+ * whose JPQL or Specification no longer matches an index, shows up here. The statements are
+ * captured with their bind values through the datasource proxy and explained as issued.
+ */
+@SpringBootTest
+@Transactional
+public class QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SaleRecordRepository saleRecordRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    @Autowired
+    private LogService logService;
+
+    private boolean postgres;
+
+    @BeforeEach
+    void detectDatabase() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        }
+        if (postgres) {
+            // Test tables are tiny; without this PostgreSQL would rightly prefer a sequential scan
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        }
+    }
+
+    @Test
+    public void testRepositoryFindersUseIndexes() {
+        System.out.println("=== Testing Query Plans of Repository Finders ===");
+
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(30);
+        LogEntry position = new LogEntry();
+        position.setTimestamp(to);
+        position.setId(100L);
+        String cursor = LogService.encodeCursor(position);
+
+        Map<String, Runnable> finders = new LinkedHashMap<>();
+        finders.put("SaleRecordRepository.findByProductId", () -> saleRecordRepository.findByProductId(1L));
+        finders.put("SaleRecordRepository.findByTimestampBetween", () -> saleRecordRepository.findByTimestampBetween(from, to));
+        finders.put("SaleRecordRepository.findTop10ByOrderByTimestampDesc", () -> saleRecordRepository.findTop10ByOrderByTimestampDesc());
+        finders.put("SaleRecordRepository.getTotalRevenueByProductId", () -> saleRecordRepository.getTotalRevenueByProductId(1L));
+        finders.put("SaleRecordRepository.getTotalQuantitySoldByProductId", () -> saleRecordRepository.getTotalQuantitySoldByProductId(1L));
+        finders.put("SaleRecordRepository.findByCustomerKeyNewestFirst",
+                () -> saleRecordRepository.findByCustomerKeyNewestFirst("alice", PageRequest.of(0, 20)));
+        finders.put("SaleRecordRepository.findByCustomerKeyOlderThan",
+                () -> saleRecordRepository.findByCustomerKeyOlderThan("alice", to, 100L, PageRequest.of(0, 20)));
+        finders.put("StockMovementRepository.sumDeltaForProduct", () -> stockMovementRepository.sumDeltaForProduct(1L, from, to));
+        finders.put("StockMovementRepository.sumDeltaBySnapshot", () -> stockMovementRepository.sumDeltaBySnapshot(to));
+        finders.put("StockSnapshotRepository.findTopByProductIdAndAsOfLessThanEqualOrderByAsOfDesc",
+                () -> stockSnapshotRepository.findTopByProductIdAndAsOfLessThanEqualOrderByAsOfDesc(1L, to));
+        finders.put("LogService.queryLogs (no filter)", () -> logService.queryLogs(LogFilter.all(), null, 50));
+        finders.put("LogService.queryLogs (after cursor)", () -> logService.queryLogs(LogFilter.all(), cursor, 50));
+        finders.put("LogService.queryLogs (action)",
+                () -> logService.queryLogs(new LogFilter("SALE", null, null, null, null, null), null, 50));
+        finders.put("LogService.queryLogs (entity)",
+                () -> logService.queryLogs(new LogFilter(null, "PRODUCT", 1L, null, null, null), null, 50));
+        finders.put("LogService.queryLogs (user)",
+                () -> logService.queryLogs(new LogFilter(null, null, null, "system", null, null), null, 50));
+        finders.put("LogService.queryLogs (time range)",
+                () -> logService.queryLogs(new LogFilter(null, null, null, null, from, to), null, 50));
+
+        for (Map.Entry<String, Runnable> finder : finders.entrySet()) {
+            List<SqlStatementStats.Statement> selects = captureSelects(finder.getValue());
+            assertFalse(selects.isEmpty(), finder.getKey() + " issued no SELECT through the datasource proxy");
+            for (SqlStatementStats.Statement select : selects) {
+                String plan = explain(select);
+                System.out.println(finder.getKey() + ": " + plan.replaceAll("\\s+", " "));
+                assertTrue(usesIndex(plan), finder.getKey() + " does not use an index:\n" + select.sql() + "\n" + plan);
+            }
+        }
+
+        System.out.println("✅ Query plan test PASSED");
+    }
+
+    // Run the finder with the datasource proxy keeping every statement it sends, bind values included
+    private List<SqlStatementStats.Statement> captureSelects(Runnable finder) {
+        SqlStatementStats stats = SqlStatementStats.capture();
+        try {
+            finder.run();
+        } finally {
+            SqlStatementStats.end();
+        }
+        return stats.getCaptured().stream()
+                .filter(statement -> statement.sql().stripLeading().toLowerCase().startsWith("select"))
+                .toList();
+    }
+
+    private String explain(SqlStatementStats.Statement statement) {
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + statement.sql(), String.class,
+                statement.parameters().toArray());
+        return String.join("\n", lines);
+    }
+
+    private boolean usesIndex(String plan) {
+        if (postgres) {
+            return plan.contains("Index Scan") || plan.contains("Index Only Scan") || plan.contains("Bitmap Index Scan");
+        }
+        return !plan.contains("tableScan");
+    }
+}
@@ -0,0 +1,279 @@
+package com.inventoryoptimizer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Admission control is off and pool waits are unbounded so neither side of the thread
+// comparison is cut short by 429s or acquire timeouts
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"inventory.admission.enabled=false", "inventory.reactive.pool.max-acquire-time-millis=120000"})
+public class ReactiveReadApiTest {
+
+    private static final int CONCURRENT_CONNECTIONS = 400;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SaleRecordService saleRecordService;
+
+    @Autowired
+    private LogService logService;
+
+    @Autowired
+    private ReactiveReadService reactiveReadService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.reactive.r2dbc.url:}")
+    private String r2dbcUrl;
+
+    @Value("${spring.datasource.url}")
+    private String jdbcUrl;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : createdProducts) {
+            productService.forceDeleteProduct(id);
+        }
+    }
+
+    @Test
+    public void testReactiveReadsMatchServletEndpoints() throws Exception {
+        System.out.println("=== Testing Reactive Reads Against Servlet Endpoints ===");
+
+        Product product = createProduct("REACTIVE-001", 20, new BigDecimal("3.25"));
+        saleRecordService.recordSale(product.getId(), 2, new BigDecimal("3.25"), "Reactive Customer", "first");
+        saleRecordService.recordSale(product.getId(), 1, null, null, null);
+
+        HttpResponse<String> response = send("/api/reactive/products");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/x-ndjson"));
+        JsonNode reactiveProduct = lines(response.body()).stream()
+                .filter(line -> line.get("id").asLong() == product.getId()).findFirst().orElseThrow();
+        JsonNode servletProduct = objectMapper.readTree(send("/api/products/" + product.getId()).body());
+        assertEquals(servletProduct, reactiveProduct);
+        assertEquals(17, reactiveProduct.get("quantityOnHand").asInt());
+
+        // Same sales, same order, same JSON as the servlet endpoint
+        JsonNode servletRecent = objectMapper.readTree(send("/api/sales/recent").body());
+        List<JsonNode> reactiveRecent = lines(send("/api/reactive/sales/recent").body());
+        assertEquals(servletRecent.size(), reactiveRecent.size());
+        for (int i = 0; i < reactiveRecent.size(); i++) {
+            assertEquals(servletRecent.get(i), reactiveRecent.get(i));
+        }
+        assertEquals(1, lines(send("/api/reactive/sales/recent?limit=1").body()).size());
+
+        assertEquals(objectMapper.readTree(send("/api/sales/revenue/total").body()),
+                objectMapper.readTree(send("/api/reactive/sales/revenue/total").body()));
+
+        System.out.println("✅ Reactive reads match servlet endpoints test PASSED");
+    }
+
+    @Test
+    public void testLogStreamResumesFromCursor() throws Exception {
+        System.out.println("=== Testing Reactive Log Stream Cursor ===");
+
+        String user = "reactive-" + System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            logService.createLog("UPDATE", "PRODUCT", (long) i, "Reactive log " + i, user);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        for (int page = 0; page < 3; page++) {
+            List<JsonNode> lines = lines(send("/api/reactive/logs?user=" + user + "&size=2"
+                    + (cursor != null ? "&cursor=" + cursor : "")).body());
+            for (JsonNode line : lines) {
+                seen.add(line.get("log").get("entityId").asLong());
+            }
+            cursor = lines.get(lines.size() - 1).get("cursor").asText();
+        }
+        // Newest first, no gaps or repeats across pages
+        assertEquals(List.of(4L, 3L, 2L, 1L, 0L), seen);
+
+        // The cursor format is shared with GET /api/logs
+        JsonNode slice = objectMapper.readTree(send("/api/logs?user=" + user + "&size=2").body());
+        String servletCursor = slice.get("nextCursor").asText();
+        List<JsonNode> resumed = lines(send("/api/reactive/logs?user=" + user + "&cursor=" + servletCursor).body());
+        assertEquals(2L, resumed.get(0).get("log").get("entityId").asLong());
+
+        HttpResponse<String> rejected = send("/api/reactive/logs?cursor=not-a-cursor");
+        assertEquals(400, rejected.statusCode());
+        assertTrue(objectMapper.readTree(rejected.body()).has("error"));
+
+        System.out.println("✅ Reactive log stream cursor test PASSED");
+    }
+
+    @Test
+    public void testStreamsOnlyWhatTheSubscriberRequests() throws Exception {
+        System.out.println("=== Testing Reactive Backpressure ===");
+
+        for (int i = 0; i < 5; i++) {
+            createProduct("REACTIVE-BP-" + i, 1, null);
+        }
+
+        AtomicInteger received = new AtomicInteger();
+        BaseSubscriber<Product> subscriber = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(Product product) {
+                received.incrementAndGet();
+            }
+        };
+        reactiveReadService.getProducts().subscribe(subscriber);
+
+        Thread.sleep(300);
+        assertEquals(1, received.get());
+        subscriber.request(2);
+        Thread.sleep(300);
+        assertEquals(3, received.get());
+        subscriber.cancel();
+
+        System.out.println("✅ Reactive backpressure test PASSED");
+    }
+
+    // A servlet response holds its request thread until the body is written; a reactive one gives it
+    // back while the query runs. Embedded H2's R2DBC driver runs queries on the subscribing thread,
+    // so against H2 both sides saturate Tomcat and the comparison only runs against PostgreSQL
+    @Test
+    public void testReactiveHoldsFewerRequestThreadsThanServlet() throws Exception {
+        System.out.println("=== Testing Servlet vs Reactive Request Threads Held ===");
+        String reactiveUrl = r2dbcUrl.isBlank() ? jdbcUrl : r2dbcUrl;
+        assumeTrue(reactiveUrl.contains(":postgresql:"), "Reactive reads only free request threads on a "
+                + "non-blocking driver: set spring.datasource.url (or inventory.reactive.r2dbc.url) to PostgreSQL");
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Product product = new Product();
+            product.setName("Footprint " + i);
+            product.setSku("REACTIVE-FOOTPRINT-" + i);
+            product.setPrice(new BigDecimal("1.00"));
+            products.add(product);
+        }
+        for (Product saved : productRepository.saveAll(products)) {
+            createdProducts.add(saved.getId());
+        }
+
+        // Reactive first: Tomcat keeps the worker threads the servlet run grows, which would hide the difference
+        int reactive = peakRequestThreads("/api/reactive/products");
+        int servlet = peakRequestThreads("/api/products");
+
+        System.out.printf("Servlet:  %d connections, peak %d request threads busy%n", CONCURRENT_CONNECTIONS, servlet);
+        System.out.printf("Reactive: %d connections, peak %d request threads busy%n", CONCURRENT_CONNECTIONS, reactive);
+        assertTrue(reactive < servlet, "reactive held " + reactive + " request threads, servlet " + servlet);
+        System.out.println("✅ Servlet vs reactive request threads test PASSED");
+    }
+
+    // Opens every connection at once and samples the threads inside the DispatcherServlet
+    // (a request thread held by a response) until all finish
+    private int peakRequestThreads(String path) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger peak = new AtomicInteger();
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                peak.accumulateAndGet(requestThreadsBusy(threads), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_CONNECTIONS; i++) {
+            responses.add(httpClient.sendAsync(request(path), HttpResponse.BodyHandlers.discarding()));
+        }
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            assertEquals(200, response.get(2, TimeUnit.MINUTES).statusCode());
+        }
+        running.set(false);
+        sampler.join();
+        return peak.get();
+    }
+
+    private static int requestThreadsBusy(ThreadMXBean threads) {
+        int busy = 0;
+        for (ThreadInfo thread : threads.dumpAllThreads(false, false)) {
+            for (StackTraceElement frame : thread.getStackTrace()) {
+                if (frame.getClassName().equals("org.springframework.web.servlet.DispatcherServlet")) {
+                    busy++;
+                    break;
+                }
+            }
+        }
+        return busy;
+    }
+
+    private HttpResponse<String> send(String path) throws Exception {
+        return httpClient.send(request(path), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    private List<JsonNode> lines(String ndjson) throws Exception {
+        List<JsonNode> nodes = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            if (!line.isBlank()) {
+                nodes.add(objectMapper.readTree(line));
+            }
+        }
+        return nodes;
+    }
+
+    private Product createProduct(String sku, int quantity, BigDecimal price) {
+        Product product = new Product();
+        product.setName("Reactive " + sku);
+        product.setSku(sku);
+        product.setQuantityOnHand(quantity);
+        product.setPrice(price);
+        Product saved = productService.saveProduct(product);
+        createdProducts.add(saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,100 @@
+package com.inventoryoptimizer;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The replica pool points at the test database itself, so the full application runs with routing on
+@SpringBootTest(properties = {
+        "inventory.datasource.replica.enabled=true",
+        "inventory.datasource.replica.url=${spring.datasource.url}",
+        "inventory.datasource.replica.driver-class-name=${spring.datasource.driver-class-name:}",
+        "inventory.datasource.replica.username=${spring.datasource.username:}",
+        "inventory.datasource.replica.password=${spring.datasource.password:}",
+        "inventory.datasource.replica.hikari.maximum-pool-size=3"
+})
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("replicaPool")
+    private HikariDataSource replicaPool;
+
+    @Autowired
+    private ForecastService forecastService;
+
+    @Test
+    public void testReadOnlyTransactionsUseTheReplicaPool() {
+        System.out.println("=== Testing Read Replica Routing ===");
+
+        assertEquals(3, replicaPool.getMaximumPoolSize());
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        int replicaConnectionsInReadOnly = readOnly.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product", Long.class);
+            return replicaPool.getHikariPoolMXBean().getActiveConnections();
+        });
+        int replicaConnectionsInReadWrite = readWrite.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product", Long.class);
+            return replicaPool.getHikariPoolMXBean().getActiveConnections();
+        });
+        assertEquals(1, replicaConnectionsInReadOnly);
+        assertEquals(0, replicaConnectionsInReadWrite);
+
+        // Read-only service methods run end to end against the replica
+        assertNotNull(forecastService.forecastTotalRevenue(7).get("predictedRevenue"));
+
+        System.out.println("✅ Read replica routing test PASSED");
+    }
+
+    @Test
+    public void testRoutingBetweenTwoDatabasesAndFallbackToPrimary() {
+        System.out.println("=== Testing Primary/Replica Databases ===");
+
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1", "sa", "");
+        DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(primary).execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(16)); DELETE FROM whoami; INSERT INTO whoami VALUES ('primary')");
+        new JdbcTemplate(replica).execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(16)); DELETE FROM whoami; INSERT INTO whoami VALUES ('replica')");
+
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, replica);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager manager = new DataSourceTransactionManager(dataSource);
+        TransactionTemplate readOnly = new TransactionTemplate(manager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(manager);
+
+        String whoami = "SELECT name FROM whoami";
+        assertEquals("replica", readOnly.execute(status -> jdbc.queryForObject(whoami, String.class)));
+        assertEquals("primary", readWrite.execute(status -> jdbc.queryForObject(whoami, String.class)));
+        assertEquals("primary", jdbc.queryForObject(whoami, String.class));
+
+        // A replica that fails its check is taken out of rotation until it passes again
+        routing.setReplicaAvailable(false);
+        assertEquals("primary", readOnly.execute(status -> jdbc.queryForObject(whoami, String.class)));
+        routing.checkReplicaLag(30);
+        assertTrue(routing.isReplicaAvailable());
+        assertEquals("replica", readOnly.execute(status -> jdbc.queryForObject(whoami, String.class)));
+
+        System.out.println("✅ Primary/replica databases test PASSED");
+    }
+}
@@ -0,0 +1,129 @@
+package com.inventoryoptimizer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class RequestCoalescingTest {
+
+    private static final int CALLERS = 8;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testConcurrentIdenticalCallsShareOneComputation() throws Exception {
+        System.out.println("=== Testing Request Coalescing ===");
+
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS + 1);
+        try {
+            List<Future<Map<String, Object>>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> requestCoalescer.coalesce("test-dashboard", () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("total", 42);
+                    return result;
+                }, 30)));
+            }
+            // Different parameters are a different computation
+            Future<Integer> other = executor.submit(() -> requestCoalescer.coalesce("test-dashboard", () -> 7, 7));
+            assertEquals(7, other.get(5, TimeUnit.SECONDS));
+
+            waitForFollowers(CALLERS - 1);
+            release.countDown();
+
+            Map<String, Object> first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Map<String, Object>> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+            assertEquals(2.0, count("leader"));
+            assertEquals(CALLERS - 1.0, count("follower"));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Nothing is remembered once the computation finished
+        assertEquals(99, (int) requestCoalescer.coalesce("test-dashboard", () -> 99, 30));
+
+        System.out.println("✅ Request coalescing test PASSED");
+    }
+
+    @Test
+    public void testFollowersReceiveTheLeadersException() throws Exception {
+        System.out.println("=== Testing Coalesced Failures ===");
+
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> leader = executor.submit(() -> requestCoalescer.coalesce("test-failure", () -> {
+                await(release);
+                throw new IllegalArgumentException("bad window");
+            }));
+            while (count("test-failure", "leader") == 0) {
+                Thread.sleep(5);
+            }
+            Future<Object> follower = executor.submit(() -> requestCoalescer.coalesce("test-failure", () -> "never run"));
+            while (count("test-failure", "follower") == 0) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<Object> caller : List.of(leader, follower)) {
+                Exception e = assertThrows(Exception.class, () -> caller.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalArgumentException.class, e.getCause());
+                assertEquals("bad window", e.getCause().getMessage());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.println("✅ Coalesced failures test PASSED");
+    }
+
+    private void waitForFollowers(int followers) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (count("follower") < followers && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private double count(String role) {
+        return count("test-dashboard", role);
+    }
+
+    private double count(String endpoint, String role) {
+        var counter = meterRegistry.find(RequestCoalescer.METRIC).tag("endpoint", endpoint).tag("role", role).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
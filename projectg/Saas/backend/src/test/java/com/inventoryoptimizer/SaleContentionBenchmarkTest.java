@@ -0,0 +1,159 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contention benchmark for hot-SKU sales: many threads selling the same product,
+ * once with per-request transactions and once through the sale combiner. Throughput
+ * is printed; the assertion is on stock-update transactions, which combining must cut.
+ */
+@SpringBootTest
+public class SaleContentionBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int SALES_PER_THREAD = 100;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SaleRecordService saleRecordService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SaleRecordRepository saleRecordRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        saleRecordService.setCombiningEnabled(true);
+        for (Long id : createdProducts) {
+            saleRecordRepository.deleteAll(saleRecordRepository.findByProductId(id));
+            productRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    public void testCombinedSalesThroughputVersusPerRequestTransactions() throws Exception {
+        System.out.println("=== Hot-SKU Contention Benchmark ===");
+
+        saleRecordService.setCombiningEnabled(false);
+        long before = stockUpdateTransactions();
+        double perRequest = runHotSkuLoad("BENCH-PER-REQUEST");
+        long perRequestTransactions = stockUpdateTransactions() - before;
+
+        saleRecordService.setCombiningEnabled(true);
+        before = stockUpdateTransactions();
+        double combined = runHotSkuLoad("BENCH-COMBINED");
+        long combinedTransactions = stockUpdateTransactions() - before;
+
+        System.out.printf("Per-request transactions: %.0f sales/s, %d stock updates%n", perRequest, perRequestTransactions);
+        System.out.printf("Combined transactions:    %.0f sales/s (%.2fx), %d stock updates%n",
+                combined, combined / perRequest, combinedTransactions);
+
+        // One stock update per sale without combining; contended sales share them with it
+        assertEquals(THREADS * SALES_PER_THREAD, perRequestTransactions);
+        assertTrue(combinedTransactions < perRequestTransactions,
+                "combining should apply contended sales in fewer transactions");
+        // Lanes are dropped once the product goes quiet
+        assertEquals(0, saleRecordService.getCombiningLaneCount());
+        System.out.println("✅ Contention benchmark PASSED");
+    }
+
+    @Test
+    public void testCombinedSalesRejectIndividuallyOnInsufficientStock() throws Exception {
+        System.out.println("=== Testing Combined Sales with Insufficient Stock ===");
+
+        Product product = createProduct("BENCH-SHORT", 10);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(20, 1, () -> {
+            try {
+                saleRecordService.recordSale(product.getId(), 1);
+                succeeded.incrementAndGet();
+            } catch (RuntimeException e) {
+                assertTrue(e.getMessage().startsWith("Insufficient stock"));
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(10, succeeded.get());
+        assertEquals(10, rejected.get());
+        assertEquals(0, productRepository.findById(product.getId()).get().getQuantityOnHand());
+        assertEquals(10, saleRecordRepository.findByProductId(product.getId()).size());
+
+        System.out.println("✅ Combined insufficient stock test PASSED");
+    }
+
+    private double runHotSkuLoad(String sku) throws Exception {
+        int totalSales = THREADS * SALES_PER_THREAD;
+        Product product = createProduct(sku, totalSales * 2);
+
+        long start = System.nanoTime();
+        runConcurrently(THREADS, SALES_PER_THREAD, () -> saleRecordService.recordSale(product.getId(), 1));
+        long elapsed = System.nanoTime() - start;
+
+        // No lost updates in either mode
+        assertEquals(totalSales, productRepository.findById(product.getId()).get().getQuantityOnHand());
+        assertEquals(totalSales, saleRecordRepository.findByProductId(product.getId()).size());
+
+        return totalSales / (elapsed / 1_000_000_000.0);
+    }
+
+    // Each per-request sale or combined batch takes stock in exactly one timed UPDATE
+    private long stockUpdateTransactions() {
+        return meterRegistry.get("inventory.sale.step").tag("step", "stock_update").timer().count();
+    }
+
+    private Product createProduct(String sku, int quantity) {
+        Product product = new Product();
+        product.setName("Benchmark " + sku);
+        product.setSku(sku);
+        product.setQuantityOnHand(quantity);
+        Product saved = productService.saveProduct(product);
+        createdProducts.add(saved.getId());
+        return saved;
+    }
+
+    private void runConcurrently(int threads, int iterations, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                for (int i = 0; i < iterations; i++) {
+                    task.run();
+                }
+                return null;
+            }));
+        }
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,220 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class SalesColumnStoreTest {
+
+    private static final int SCAN_ROWS = 3_000_000;
+
+    @Autowired
+    private SalesColumnStore salesColumnStore;
+
+    @Autowired
+    private SaleRecordService saleRecordService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SaleRecordRepository saleRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : createdProducts) {
+            saleRecordRepository.deleteAll(saleRecordRepository.findByProductId(id));
+            productRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    public void testScansOverMillionsOfSales() {
+        System.out.println("=== Testing Columnar Sales Scans ===");
+
+        Path directory = Paths.get("target/test-columns", UUID.randomUUID().toString());
+        SalesColumnStore store = new SalesColumnStore(directory, 1 << 18);
+
+        int baseMinute = SalesColumnStore.toEpochMinute(LocalDateTime.of(2024, 1, 1, 0, 0));
+        long expectedQuantity = 0;
+        long expectedCents = 0;
+        long expectedProduct7 = 0;
+        for (int i = 0; i < SCAN_ROWS; i++) {
+            int productId = 1 + i % 50;
+            int quantity = 1 + i % 5;
+            long cents = 199L * quantity;
+            store.append(productId, baseMinute + i / 100, quantity, cents, i + 1);
+            expectedQuantity += quantity;
+            expectedCents += cents;
+            if (productId == 7) {
+                expectedProduct7 += quantity;
+            }
+        }
+
+        // Best of a few runs, so the figure is the compiled loop rather than JIT warm-up
+        SalesColumnStore.Totals totals = null;
+        long[] byProduct = null;
+        long totalsMicros = Long.MAX_VALUE;
+        long byProductMicros = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            long start = System.nanoTime();
+            totals = store.totals(Integer.MIN_VALUE, Integer.MAX_VALUE);
+            totalsMicros = Math.min(totalsMicros, (System.nanoTime() - start) / 1000);
+
+            start = System.nanoTime();
+            byProduct = store.quantityByProduct();
+            byProductMicros = Math.min(byProductMicros, (System.nanoTime() - start) / 1000);
+        }
+
+        assertEquals(SCAN_ROWS, totals.sales());
+        assertEquals(expectedQuantity, totals.quantity());
+        assertEquals(expectedCents, totals.cents());
+        assertEquals(expectedProduct7, byProduct[7]);
+
+        // 100 sales a minute: the first day holds 144,000 of them
+        SalesColumnStore.DailyTotals daily = store.dailyTotals(baseMinute / 1440, 2);
+        assertEquals(144_000, daily.sales()[0]);
+        assertEquals(144_000, daily.sales()[1]);
+
+        // The files are the store: a reopened instance sees the same rows
+        SalesColumnStore reopened = new SalesColumnStore(directory, 1 << 18);
+        assertEquals(totals, reopened.totals(Integer.MIN_VALUE, Integer.MAX_VALUE));
+
+        System.out.printf("Scanned %,d sales: totals in %,d us, per-product quantities in %,d us%n",
+                SCAN_ROWS, totalsMicros, byProductMicros);
+        System.out.println("✅ Columnar scan test PASSED");
+    }
+
+    @Test
+    public void testRecordedSalesReachTheStoreAndRebuildMatches() {
+        System.out.println("=== Testing Column Store Feed and Rebuild ===");
+
+        Product product = new Product();
+        product.setName("Columnar Product");
+        product.setSku("COL-001");
+        product.setQuantityOnHand(20);
+        product.setPrice(new BigDecimal("2.50"));
+        Product saved = productService.saveProduct(product);
+        createdProducts.add(saved.getId());
+
+        LocalDateTime before = LocalDateTime.now();
+        long sizeBefore = salesColumnStore.size();
+        saleRecordService.recordSale(saved.getId(), 3, new BigDecimal("2.50"), null, null);
+        saleRecordService.recordSale(saved.getId(), 2, new BigDecimal("2.50"), null, null);
+        assertEquals(sizeBefore + 2, salesColumnStore.size());
+
+        Map<String, Object> revenue = saleRecordService.getRevenueForPeriod(before, LocalDateTime.now());
+        assertEquals(new BigDecimal("12.50"), revenue.get("totalRevenue"));
+        assertEquals(5, revenue.get("totalQuantitySold"));
+
+        SalesColumnStore.Series series = salesColumnStore.series(Math.toIntExact(saved.getId()));
+        assertArrayEquals(new int[] {3, 2}, series.quantities());
+
+        long rebuilt = salesColumnStore.rebuild();
+        assertEquals(saleRecordRepository.count(), rebuilt);
+        assertArrayEquals(new int[] {3, 2}, salesColumnStore.series(Math.toIntExact(saved.getId())).quantities());
+
+        System.out.println("✅ Column store feed and rebuild test PASSED");
+    }
+
+    @Test
+    public void testRebuildBetweenCommitAndAppendDoesNotCountSaleTwice() {
+        System.out.println("=== Testing Column Store Rebuild Racing an Append ===");
+
+        Product product = new Product();
+        product.setName("Columnar Race Product");
+        product.setSku("COL-002");
+        product.setQuantityOnHand(20);
+        Product saved = productService.saveProduct(product);
+        createdProducts.add(saved.getId());
+
+        // The rebuild is registered first, so it runs after the commit but before the sale's own append
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    salesColumnStore.rebuild();
+                }
+            });
+            saleRecordService.recordSale(saved.getId(), 4, new BigDecimal("1.00"), null, null);
+        });
+
+        assertEquals(saleRecordRepository.count(), salesColumnStore.size());
+        assertArrayEquals(new int[] {4}, salesColumnStore.series(Math.toIntExact(saved.getId())).quantities());
+
+        System.out.println("✅ Column store rebuild race test PASSED");
+    }
+
+    @Test
+    public void testSalesDuringARebuildScanDoNotWaitAndAreKept() throws Exception {
+        System.out.println("=== Testing Sales During a Column Store Rebuild ===");
+
+        Product product = new Product();
+        product.setName("Columnar Rebuild Product");
+        product.setSku("COL-003");
+        product.setQuantityOnHand(20);
+        Product saved = productService.saveProduct(product);
+        createdProducts.add(saved.getId());
+
+        // Enough history that the rebuild scan is still running while the sale is recorded
+        List<Object[]> history = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 0, 0);
+        for (int i = 0; i < 300_000; i++) {
+            history.add(new Object[] {saved.getId(), Timestamp.valueOf(start.plusMinutes(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO sale_record (product_id, quantity_sold, timestamp, total_amount, location) "
+                + "VALUES (?, 1, ?, 0, 'MAIN')", history);
+
+        try {
+            CompletableFuture<Long> rebuild = CompletableFuture.supplyAsync(salesColumnStore::rebuild);
+            while (!salesColumnStore.isRebuilding() && !rebuild.isDone()) {
+                Thread.onSpinWait();
+            }
+            saleRecordService.recordSale(saved.getId(), 5, new BigDecimal("1.00"), null, null);
+            assertTrue(salesColumnStore.isRebuilding(), "the sale waited for the rebuild scan to finish");
+
+            rebuild.get(2, TimeUnit.MINUTES);
+            assertEquals(saleRecordRepository.count(), salesColumnStore.size());
+            int[] quantities = salesColumnStore.series(Math.toIntExact(saved.getId())).quantities();
+            assertEquals(300_001, quantities.length);
+            assertEquals(5, quantities[quantities.length - 1]);
+        } finally {
+            jdbcTemplate.update("DELETE FROM sale_record WHERE product_id = ?", saved.getId());
+            salesColumnStore.rebuild();
+        }
+
+        System.out.println("✅ Column store rebuild concurrency test PASSED");
+    }
+}
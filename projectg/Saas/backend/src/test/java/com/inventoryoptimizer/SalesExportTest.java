@@ -0,0 +1,139 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "inventory.export.block-rows=2")
+@AutoConfigureMockMvc
+public class SalesExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SaleRecordService saleRecordService;
+
+    @Autowired
+    private SalesExportService salesExportService;
+
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : createdProducts) {
+            productService.forceDeleteProduct(id);
+        }
+    }
+
+    @Test
+    public void testCsvExportQuotesFieldsAndAppliesFilters() throws Exception {
+        System.out.println("=== Testing CSV Sales Export ===");
+
+        Product product = createProduct("EXPORT-CSV", "Widget, \"Deluxe\"");
+        Product other = createProduct("EXPORT-OTHER", "Other");
+        saleRecordService.recordSale(product.getId(), 2, new BigDecimal("4.50"), "Ada, Countess", "first");
+        saleRecordService.recordSale(product.getId(), 1, new BigDecimal("4.50"), null, null);
+        saleRecordService.recordSale(other.getId(), 3, new BigDecimal("1.00"), "Someone", null);
+
+        String csv = new String(export("/api/sales/export?productId=" + product.getId()), StandardCharsets.UTF_8);
+        String[] lines = csv.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,timestamp,productId,sku,productName"));
+        assertTrue(lines[1].contains(",EXPORT-CSV,\"Widget, \"\"Deluxe\"\"\","));
+        assertTrue(lines[1].endsWith(",2,4.50,9.00,\"Ada, Countess\",first"));
+        assertTrue(lines[2].endsWith(",1,4.50,4.50,,"));
+
+        // A window that ends before the sales exports only the header
+        String empty = new String(export("/api/sales/export?productId=" + product.getId() + "&to=2000-01-01T00:00:00"),
+                StandardCharsets.UTF_8);
+        assertEquals(1, empty.split("\n").length);
+
+        MvcResult rejected = mockMvc.perform(get("/api/sales/export?format=xml")).andReturn();
+        mockMvc.perform(asyncDispatch(rejected)).andExpect(status().isBadRequest());
+        rejected = mockMvc.perform(get("/api/sales/export?compress=zstd")).andReturn();
+        mockMvc.perform(asyncDispatch(rejected)).andExpect(status().isBadRequest());
+
+        System.out.println("✅ CSV sales export test PASSED");
+    }
+
+    @Test
+    public void testColumnarExportRoundTripsThroughGzip() throws Exception {
+        System.out.println("=== Testing Columnar Sales Export ===");
+
+        Product product = createProduct("EXPORT-COL", "Columnar");
+        LocalDateTime start = LocalDateTime.now().minusMinutes(1);
+        for (int i = 1; i <= 5; i++) {
+            saleRecordService.recordSale(product.getId(), i, new BigDecimal("2.25"), i % 2 == 0 ? "Even" : null, null);
+        }
+
+        byte[] compressed = export("/api/sales/export?format=columnar&compress=gzip&productId=" + product.getId()
+                + "&from=" + start);
+        List<SalesExportService.ColumnarSale> sales = new ArrayList<>();
+        SalesExportService.readColumnar(new GZIPInputStream(new ByteArrayInputStream(compressed)), sales::add);
+
+        assertEquals(5, sales.size());
+        for (int i = 0; i < 5; i++) {
+            SalesExportService.ColumnarSale sale = sales.get(i);
+            assertEquals(product.getId(), sale.productId());
+            assertEquals(i + 1, sale.quantity());
+            assertEquals(new BigDecimal("2.25"), sale.unitPrice());
+            assertEquals(new BigDecimal("2.25").multiply(BigDecimal.valueOf(i + 1)), sale.totalAmount());
+            assertEquals(LocationStock.DEFAULT_LOCATION, sale.location());
+            assertEquals((i + 1) % 2 == 0 ? "Even" : null, sale.customerName());
+            if (i > 0) {
+                assertTrue(sale.id() > sales.get(i - 1).id());
+            }
+        }
+
+        // Two-row blocks mean five sales span three blocks, each with its own dictionaries
+        ByteArrayOutputStream direct = new ByteArrayOutputStream();
+        salesExportService.export(SalesExportService.COLUMNAR,
+                new SalesExportService.ExportFilter(start, null, product.getId()), direct);
+        List<SalesExportService.ColumnarSale> reread = new ArrayList<>();
+        SalesExportService.readColumnar(new ByteArrayInputStream(direct.toByteArray()), reread::add);
+        assertEquals(sales, reread);
+
+        System.out.println("✅ Columnar sales export test PASSED");
+    }
+
+    private byte[] export(String url) throws Exception {
+        MvcResult started = mockMvc.perform(get(url)).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private Product createProduct(String sku, String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setSku(sku);
+        product.setQuantityOnHand(100);
+        product.setPrice(new BigDecimal("4.50"));
+        Product saved = productService.saveProduct(product);
+        createdProducts.add(saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,228 @@
+package com.inventoryoptimizer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SalesImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SaleRecordRepository saleRecordRepository;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private SalesImportService salesImportService;
+
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : createdProducts) {
+            productService.forceDeleteProduct(id);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCsvImportLeavesStockAloneAndRebuildsAggregates() throws Exception {
+        System.out.println("=== Testing CSV Sales Import ===");
+
+        Product product = createProduct("IMPORT-CSV", 50);
+        int rows = 20_000;
+        LocalDate today = LocalDate.now();
+        StringBuilder csv = new StringBuilder("sku,quantitySold,unitPrice,timestamp,customerName,notes\n");
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime timestamp = today.minusDays(1 + i % 10).atTime(9, 0).plusSeconds(i);
+            csv.append("import-csv,").append(1 + i % 3).append(",2.50,").append(timestamp)
+               .append(",Importer ").append(i % 50).append(",\"batch, \"\"legacy\"\" POS\"\n");
+        }
+        csv.append("NO-SUCH-SKU,1,1.00,2024-01-01T10:00:00,,\n");
+        csv.append("IMPORT-CSV,-4,1.00,2024-01-01T10:00:00,,\n");
+
+        MvcResult response = mockMvc.perform(post("/api/sales/import")
+                        .contentType("text/csv")
+                        .content(csv.toString().getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn();
+        Map<String, Object> report = objectMapper.readValue(response.getResponse().getContentAsString(), Map.class);
+        System.out.println("Import report: imported=" + report.get("imported") + ", rejected=" + report.get("rejected")
+                + ", " + report.get("rowsPerSecond") + " rows/s, total " + report.get("elapsedMillis") + " ms");
+
+        assertEquals(rows, ((Number) report.get("imported")).intValue());
+        assertEquals(2, ((Number) report.get("rejected")).intValue());
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) report.get("errors");
+        assertEquals(rows + 1, ((Number) errors.get(0).get("line")).intValue());
+        assertTrue(errors.get(0).get("error").toString().contains("Unknown SKU"));
+
+        // Historical import does not touch live stock
+        assertEquals(50, productRepository.findById(product.getId()).get().getQuantityOnHand());
+
+        List<SaleRecord> sales = saleRecordRepository.findByProductId(product.getId());
+        assertEquals(rows, sales.size());
+        assertEquals("batch, \"legacy\" POS", sales.get(0).getNotes());
+        assertTrue(sales.get(0).getCustomerKey().startsWith("importer "));
+
+        // Derived data was rebuilt once: the rollup serves the imported days and customers are indexed
+        Map<String, Object> totals = analyticsService.query(new AnalyticsQuery(List.of("product"), List.of("count", "units"),
+                List.of(product.getId()), null, null, today.minusDays(11).atStartOfDay(), today.atStartOfDay(), null, null));
+        Map<String, Object> row = ((List<Map<String, Object>>) totals.get("rows")).get(0);
+        assertEquals((long) rows, row.get("count"));
+        assertEquals("rollup", ((Map<String, Object>) totals.get("plan")).get("source"));
+        assertEquals((long) rows / 50, customerService.getSummary("importer 7").get("orderCount"));
+
+        System.out.println("✅ CSV sales import test PASSED");
+    }
+
+    @Test
+    public void testNdjsonImportCanAdjustStock() throws Exception {
+        System.out.println("=== Testing NDJSON Sales Import with Stock Adjustment ===");
+
+        Product product = createProduct("IMPORT-NDJSON", 100);
+        String ndjson = String.join("\n",
+                "{\"productId\": " + product.getId() + ", \"quantitySold\": 5, \"unitPrice\": 3.00, \"timestamp\": \"2025-03-01T10:00:00\"}",
+                "{\"productId\": " + product.getId() + ", \"quantitySold\": 7, \"totalAmount\": 20.00, \"timestamp\": \"2025-03-02T10:00:00\", \"customerName\": \"Walk In\"}",
+                "{\"productId\": 999999999, \"quantitySold\": 1, \"timestamp\": \"2025-03-02T10:00:00\"}") + "\n";
+
+        mockMvc.perform(post("/api/sales/import")
+                        .param("adjustStock", "true")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk());
+
+        assertEquals(88, productRepository.findById(product.getId()).get().getQuantityOnHand());
+        List<SaleRecord> sales = saleRecordRepository.findByProductId(product.getId());
+        assertEquals(2, sales.size());
+        assertTrue(sales.stream().anyMatch(s -> new BigDecimal("20.00").compareTo(s.getTotalAmount()) == 0));
+
+        mockMvc.perform(post("/api/sales/import").param("format", "xml").content("<sales/>"))
+                .andExpect(status().isBadRequest());
+
+        System.out.println("✅ NDJSON sales import test PASSED");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMalformedNdjsonLineIsRejectedOnItsOwn() throws Exception {
+        System.out.println("=== Testing Malformed NDJSON Line ===");
+
+        Product product = createProduct("IMPORT-MALFORMED", 10);
+        String ndjson = String.join("\n",
+                "{\"productId\": " + product.getId() + ", \"quantitySold\": 1, \"timestamp\": \"2025-03-01T10:00:00\"}",
+                "{\"productId\": " + product.getId() + ", \"quantitySold\": ",
+                "[1, 2]",
+                "{\"productId\": " + product.getId() + ", \"quantitySold\": 2, \"timestamp\": \"2025-03-02T10:00:00\"}") + "\n";
+
+        MvcResult response = mockMvc.perform(post("/api/sales/import")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andReturn();
+        Map<String, Object> report = objectMapper.readValue(response.getResponse().getContentAsString(), Map.class);
+
+        assertEquals(2, ((Number) report.get("imported")).intValue());
+        assertEquals(2, ((Number) report.get("rejected")).intValue());
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) report.get("errors");
+        assertEquals(2, ((Number) errors.get(0).get("line")).intValue());
+        assertTrue(errors.get(0).get("error").toString().startsWith("Malformed JSON"));
+        assertEquals(3, ((Number) errors.get(1).get("line")).intValue());
+        assertEquals(2, saleRecordRepository.findByProductId(product.getId()).size());
+
+        System.out.println("✅ Malformed NDJSON line test PASSED");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCommittedBatchesAreFoldedInWhenTheStreamFails() throws Exception {
+        System.out.println("=== Testing Import Failing After a Committed Batch ===");
+
+        Product product = createProduct("IMPORT-BROKEN", 100);
+        String rows = String.join("\n",
+                "sku,quantitySold,timestamp",
+                "IMPORT-BROKEN,3,2025-04-01T10:00:00",
+                "IMPORT-BROKEN,4,2025-04-01T11:00:00",
+                "IMPORT-BROKEN,5,2025-04-01T12:00:00") + "\n";
+        byte[] bytes = rows.getBytes(StandardCharsets.UTF_8);
+        // The client goes away after the third data row: the first batch of two is already committed
+        InputStream disconnecting = new InputStream() {
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                if (position == bytes.length) {
+                    throw new IOException("Connection reset by peer");
+                }
+                return bytes[position++];
+            }
+        };
+
+        int batchSize = (int) ReflectionTestUtils.getField(salesImportService, "batchSize");
+        ReflectionTestUtils.setField(salesImportService, "batchSize", 2);
+        try {
+            assertThrows(IOException.class,
+                    () -> salesImportService.importSales(disconnecting, SalesImportService.CSV, true));
+        } finally {
+            ReflectionTestUtils.setField(salesImportService, "batchSize", batchSize);
+        }
+
+        assertEquals(2, saleRecordRepository.findByProductId(product.getId()).size());
+        assertEquals(93, productRepository.findById(product.getId()).get().getQuantityOnHand());
+        // The rollup was rebuilt for the committed rows
+        Map<String, Object> totals = analyticsService.query(new AnalyticsQuery(List.of("product"), List.of("count", "units"),
+                List.of(product.getId()), null, null, LocalDate.of(2025, 4, 1).atStartOfDay(),
+                LocalDate.of(2025, 4, 2).atStartOfDay(), null, null));
+        Map<String, Object> row = ((List<Map<String, Object>>) totals.get("rows")).get(0);
+        assertEquals(2L, row.get("count"));
+        assertEquals("rollup", ((Map<String, Object>) totals.get("plan")).get("source"));
+
+        System.out.println("✅ Failed import folding test PASSED");
+    }
+
+    private Product createProduct(String sku, int quantity) {
+        Product product = new Product();
+        product.setName("Import " + sku);
+        product.setSku(sku);
+        product.setQuantityOnHand(quantity);
+        Product saved = productService.saveProduct(product);
+        createdProducts.add(saved.getId());
+        return saved;
+    }
+}
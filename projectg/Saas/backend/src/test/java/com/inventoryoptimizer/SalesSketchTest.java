@@ -0,0 +1,178 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class SalesSketchTest {
+
+    @Autowired
+    private SalesSketchService salesSketchService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SaleRecordService saleRecordService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SaleRecordRepository saleRecordRepository;
+
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : createdProducts) {
+            saleRecordRepository.deleteAll(saleRecordRepository.findByProductId(id));
+            salesRollupService.deleteProduct(id);
+            productRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    public void testHyperLogLogStaysWithinItsErrorBound() {
+        System.out.println("=== Testing HyperLogLog Accuracy ===");
+
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        int distinct = 200_000;
+        for (int i = 0; i < distinct; i++) {
+            // Every value is added twice; duplicates must not count
+            (i % 2 == 0 ? first : second).add("customer-" + i);
+            first.add("customer-" + i);
+        }
+        second.merge(first);
+
+        double error = Math.abs(second.estimate() - distinct) / (double) distinct;
+        System.out.printf("Estimate %d for %d distinct values (error %.2f%%, standard error %.2f%%)%n",
+                second.estimate(), distinct, error * 100, second.relativeStandardError() * 100);
+        assertTrue(error < 3 * second.relativeStandardError());
+
+        // Small sets are counted almost exactly and survive the sparse encoding
+        HyperLogLog small = new HyperLogLog();
+        for (int i = 0; i < 50; i++) {
+            small.add("c" + i);
+        }
+        HyperLogLog copy = HyperLogLog.fromBytes(small.toBytes());
+        assertTrue(small.toBytes().length < 200);
+        assertEquals(small.estimate(), copy.estimate());
+        assertEquals(50, copy.estimate(), 1);
+        assertEquals(second.estimate(), HyperLogLog.fromBytes(second.toBytes()).estimate());
+
+        System.out.println("✅ HyperLogLog accuracy test PASSED");
+    }
+
+    @Test
+    public void testQuantileSketchHasRelativeErrorGuarantee() {
+        System.out.println("=== Testing Quantile Sketch Accuracy ===");
+
+        QuantileSketch low = new QuantileSketch();
+        QuantileSketch high = new QuantileSketch();
+        int n = 100_000;
+        for (int i = 1; i <= n; i++) {
+            (i % 3 == 0 ? high : low).add(i);
+        }
+        low.add(0);
+        low.merge(QuantileSketch.fromBytes(high.toBytes()));
+        assertEquals(n + 1, low.count());
+
+        for (double q : new double[] {0.01, 0.25, 0.5, 0.9, 0.99, 1.0}) {
+            double exact = Math.floor(q * n);
+            double estimate = low.quantile(q);
+            assertEquals(exact, estimate, Math.max(1, exact * low.relativeAccuracy()), "quantile " + q);
+        }
+        assertEquals(0, low.quantile(0));
+
+        // Small whole numbers such as quantities come back exactly after rounding
+        QuantileSketch quantities = new QuantileSketch();
+        for (int quantity : new int[] {1, 1, 2, 3, 3, 3, 5, 8, 13}) {
+            quantities.add(quantity);
+        }
+        assertEquals(3, Math.round(quantities.quantile(0.5)));
+        assertEquals(13, Math.round(quantities.quantile(1.0)));
+
+        System.out.println("✅ Quantile sketch accuracy test PASSED");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDailySketchesMergeAcrossPersistedAndLiveDays() {
+        System.out.println("=== Testing Daily Sales Sketches ===");
+
+        Product product = createProduct("SKETCH-001");
+        LocalDate today = LocalDate.now();
+        sale(product, today.minusDays(3).atTime(10, 0), 1, "2.00", "Alice");
+        sale(product, today.minusDays(3).atTime(11, 0), 2, "2.00", " alice ");
+        sale(product, today.minusDays(2).atTime(10, 0), 3, "2.00", "Bob");
+        sale(product, today.minusDays(1).atTime(10, 0), 4, "2.00", null);
+        salesRollupService.invalidateFrom(today.minusDays(3));
+        salesRollupService.rollUp();
+
+        // Today's sale is only in the live sketches
+        saleRecordService.recordSale(product.getId(), LocationStock.DEFAULT_LOCATION, 10, new BigDecimal("2.00"), "Carol", null);
+
+        Map<String, Object> distinct = salesSketchService.distinctCustomers(today.minusDays(3), today, product.getId());
+        assertEquals(3L, distinct.get("distinctCustomers"));
+        assertEquals(new HyperLogLog().relativeStandardError(), distinct.get("relativeStandardError"));
+
+        Map<String, Object> persistedOnly = salesSketchService.distinctCustomers(today.minusDays(3), today.minusDays(3), product.getId());
+        assertEquals(1L, persistedOnly.get("distinctCustomers"));
+
+        Map<String, Object> quantities = salesSketchService.quantiles("quantity", List.of(0.0, 0.5, 1.0),
+                today.minusDays(3), today, product.getId());
+        Map<String, Object> values = (Map<String, Object>) quantities.get("quantiles");
+        assertEquals(5L, quantities.get("count"));
+        assertEquals(1L, values.get("0.0"));
+        assertEquals(3L, values.get("0.5"));
+        assertEquals(10L, values.get("1.0"));
+
+        Map<String, Object> tickets = salesSketchService.quantiles("ticket", List.of(1.0),
+                today.minusDays(3), today, product.getId());
+        BigDecimal largestTicket = (BigDecimal) ((Map<String, Object>) tickets.get("quantiles")).get("1.0");
+        assertEquals(20.00, largestTicket.doubleValue(), 20.00 * QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+
+        assertThrows(IllegalArgumentException.class, () -> salesSketchService.quantiles("margin", List.of(0.5), today, today, null));
+        assertThrows(IllegalArgumentException.class, () -> salesSketchService.distinctCustomers(today.minusYears(2), today, null));
+
+        System.out.println("✅ Daily sales sketch test PASSED");
+    }
+
+    private void sale(Product product, LocalDateTime timestamp, int quantity, String unitPrice, String customer) {
+        SaleRecord sale = new SaleRecord();
+        sale.setProduct(product);
+        sale.setQuantitySold(quantity);
+        sale.setTimestamp(timestamp);
+        sale.setUnitPrice(new BigDecimal(unitPrice));
+        sale.setTotalAmount(new BigDecimal(unitPrice).multiply(BigDecimal.valueOf(quantity)));
+        sale.setCustomerName(customer);
+        sale.setLocation(LocationStock.DEFAULT_LOCATION);
+        saleRecordRepository.save(sale);
+    }
+
+    private Product createProduct(String sku) {
+        Product product = new Product();
+        product.setName("Sketch " + sku);
+        product.setSku(sku);
+        product.setQuantityOnHand(100);
+        Product saved = productService.saveProduct(product);
+        createdProducts.add(saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,131 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "inventory.sql.stats.headers=true")
+@AutoConfigureMockMvc
+public class SqlStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SaleRecordService saleRecordService;
+
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : createdProducts) {
+            productService.forceDeleteProduct(id);
+        }
+    }
+
+    @Test
+    public void testRevenueForecastStatementsDoNotGrowWithProducts() throws Exception {
+        System.out.println("=== Testing Revenue Forecast Statement Budget ===");
+
+        createProductsWithSales("SQL-A", 3);
+        MockHttpServletResponse before = fetch("/api/forecasts/revenue?days=7");
+
+        createProductsWithSales("SQL-B", 5);
+        MockHttpServletResponse after = fetch("/api/forecasts/revenue?days=7");
+
+        int statements = Integer.parseInt(after.getHeader(SqlStatementFilter.STATEMENTS_HEADER));
+        assertEquals(before.getHeader(SqlStatementFilter.STATEMENTS_HEADER), after.getHeader(SqlStatementFilter.STATEMENTS_HEADER));
+        assertTrue(statements <= 2, "revenue forecast ran " + statements + " statements");
+        assertEquals("0", after.getHeader(SqlStatementFilter.REPEATED_HEADER));
+        assertTrue(Long.parseLong(after.getHeader(SqlStatementFilter.ROWS_HEADER)) >= 8);
+        assertNotNull(after.getHeader(SqlStatementFilter.TIME_HEADER));
+
+        System.out.println("✅ Revenue forecast statement budget test PASSED");
+    }
+
+    @Test
+    public void testRepeatedStatementShapesAreGrouped() {
+        System.out.println("=== Testing N+1 Shape Detection ===");
+
+        assertEquals("select * from product where id = ? and name = ?",
+                SqlStatementStats.shape("select *  from product\n where id = 42 and name = 'O''Brien'"));
+        assertEquals("select * from sale_record where product_id in (?)",
+                SqlStatementStats.shape("select * from sale_record where product_id in (?, ?, ?)"));
+
+        SqlStatementStats stats = SqlStatementStats.begin();
+        try {
+            for (int id = 1; id <= 12; id++) {
+                stats.recordExecution(List.of("select * from product where id = " + id), 1);
+            }
+            stats.recordExecution(List.of("select count(*) from sale_record"), 1);
+        } finally {
+            SqlStatementStats.end();
+        }
+
+        Map<String, Integer> repeated = stats.repeatedShapes(10);
+        assertEquals(Map.of("select * from product where id = ?", 12), repeated);
+        assertEquals(13, stats.getStatements());
+        assertEquals(13, stats.getElapsedMillis());
+
+        System.out.println("✅ N+1 shape detection test PASSED");
+    }
+
+    @Test
+    public void testStreamedExportKeepsItsBodyWithHeadersOn() throws Exception {
+        System.out.println("=== Testing Streamed Export with SQL Headers ===");
+
+        createProductsWithSales("SQL-EXPORT", 1);
+        MvcResult started = mockMvc.perform(get("/api/sales/export?productId=" + createdProducts.get(0)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].contains(",SQL-EXPORT-0,"));
+        assertNotNull(response.getHeader(SqlStatementFilter.STATEMENTS_HEADER));
+
+        System.out.println("✅ Streamed export with SQL headers test PASSED");
+    }
+
+    private MockHttpServletResponse fetch(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private void createProductsWithSales(String prefix, int count) {
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName("Budget " + prefix + "-" + i);
+            product.setSku(prefix + "-" + i);
+            product.setQuantityOnHand(50);
+            product.setPrice(new BigDecimal("2.00"));
+            product = productService.saveProduct(product);
+            createdProducts.add(product.getId());
+            saleRecordService.recordSale(product.getId(), 1, new BigDecimal("2.00"), null, null);
+            saleRecordService.recordSale(product.getId(), 2, new BigDecimal("2.00"), null, null);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.inventoryoptimizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class StockReservationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SaleRecordService saleRecordService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SaleRecordRepository saleRecordRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : createdProducts) {
+            reservationRepository.deleteAll(reservationRepository.findAll().stream()
+                    .filter(r -> r.getProductId().equals(id)).toList());
+            saleRecordRepository.deleteAll(saleRecordRepository.findByProductId(id));
+            productRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    public void testHoldReducesAvailableToSell() {
+        System.out.println("=== Testing Reservation Hold ===");
+
+        Product product = createProduct("RES-001", 10);
+        reservationService.createHold(product.getId(), LocationStock.DEFAULT_LOCATION, 7, 60L);
+
+        Map<String, Object> availability = reservationService.getAvailability(product.getId());
+        assertEquals(10, availability.get("quantityOnHand"));
+        assertEquals(7, availability.get("reserved"));
+        assertEquals(3, availability.get("availableToSell"));
+
+        // Walk-in sales cannot take held stock, and neither can another hold
+        assertThrows(RuntimeException.class, () -> saleRecordService.recordSale(product.getId(), 4));
+        assertThrows(RuntimeException.class, () -> reservationService.createHold(product.getId(), LocationStock.DEFAULT_LOCATION, 4, 60L));
+        saleRecordService.recordSale(product.getId(), 3);
+
+        System.out.println("✅ Reservation hold test PASSED");
+    }
+
+    @Test
+    public void testConfirmTurnsHoldIntoSale() {
+        System.out.println("=== Testing Reservation Confirmation ===");
+
+        Product product = createProduct("RES-002", 10);
+        StockReservation hold = reservationService.createHold(product.getId(), LocationStock.DEFAULT_LOCATION, 4, 60L);
+
+        SaleRecord sale = reservationService.confirmHold(hold.getId(), null, "Checkout Customer", null);
+        assertEquals(4, sale.getQuantitySold());
+        assertEquals(6, productRepository.findById(product.getId()).get().getQuantityOnHand());
+        assertEquals(0, reservationService.getReservedQuantity(product.getId()));
+
+        StockReservation confirmed = reservationRepository.findById(hold.getId()).get();
+        assertEquals(StockReservation.CONFIRMED, confirmed.getStatus());
+        assertEquals(sale.getId(), confirmed.getSaleId());
+
+        // A hold can only be settled once
+        assertThrows(IllegalStateException.class, () -> reservationService.releaseHold(hold.getId()));
+
+        System.out.println("✅ Reservation confirmation test PASSED");
+    }
+
+    @Test
+    public void testReleaseAndExpiryReturnStock() throws InterruptedException {
+        System.out.println("=== Testing Reservation Release and Expiry ===");
+
+        Product product = createProduct("RES-003", 10);
+        StockReservation released = reservationService.createHold(product.getId(), LocationStock.DEFAULT_LOCATION, 5, 60L);
+        assertEquals(5, reservationService.getReservedQuantity(product.getId()));
+
+        reservationService.releaseHold(released.getId());
+        assertEquals(0, reservationService.getReservedQuantity(product.getId()));
+        assertEquals(StockReservation.RELEASED, reservationRepository.findById(released.getId()).get().getStatus());
+
+        StockReservation expiring = reservationService.createHold(product.getId(), LocationStock.DEFAULT_LOCATION, 5, 0L);
+
+        // The scheduled tick expires the zero-TTL hold within a couple of wheel ticks
+        long deadline = System.currentTimeMillis() + 5000;
+        while (reservationService.getReservedQuantity(product.getId()) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, reservationService.getReservedQuantity(product.getId()));
+        assertEquals(StockReservation.EXPIRED, reservationRepository.findById(expiring.getId()).get().getStatus());
+        assertThrows(IllegalStateException.class, () -> reservationService.confirmHold(expiring.getId(), null, null, null));
+
+        System.out.println("✅ Reservation release and expiry test PASSED");
+    }
+
+    @Test
+    public void testSettledHoldsArePurgedAfterRetention() {
+        System.out.println("=== Testing Settled Reservation Purge ===");
+
+        Product product = createProduct("RES-004", 10);
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(90);
+        StockReservation oldReleased = saveReservation(product, StockReservation.RELEASED, longAgo);
+        StockReservation oldConfirmed = saveReservation(product, StockReservation.CONFIRMED, longAgo);
+        StockReservation recentExpired = saveReservation(product, StockReservation.EXPIRED, LocalDateTime.now().minusDays(1));
+        StockReservation stillHeld = saveReservation(product, StockReservation.HELD, longAgo);
+
+        assertTrue(reservationService.purgeSettledHolds() >= 2);
+        assertFalse(reservationRepository.existsById(oldReleased.getId()));
+        assertFalse(reservationRepository.existsById(oldConfirmed.getId()));
+        assertTrue(reservationRepository.existsById(recentExpired.getId()));
+        // A HELD row is only ever settled by expiry or checkout, never purged
+        assertTrue(reservationRepository.existsById(stillHeld.getId()));
+
+        System.out.println("✅ Settled reservation purge test PASSED");
+    }
+
+    @Test
+    public void testConfirmMapsBadInputAndMissingHolds() throws Exception {
+        System.out.println("=== Testing Reservation Confirm Errors ===");
+
+        Product product = createProduct("RES-005", 10);
+        StockReservation hold = reservationService.createHold(product.getId(), LocationStock.DEFAULT_LOCATION, 2, 60L);
+
+        mockMvc.perform(post("/api/reservations/" + hold.getId() + "/confirm")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"unitPrice\": \"abc\"}"))
+                .andExpect(status().isBadRequest());
+        assertEquals(StockReservation.HELD, reservationRepository.findById(hold.getId()).get().getStatus());
+
+        mockMvc.perform(post("/api/reservations/999999999/confirm")).andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/reservations/999999999/release")).andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/reservations/" + hold.getId() + "/confirm")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"unitPrice\": \"2.50\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/reservations/" + hold.getId() + "/confirm")).andExpect(status().isConflict());
+
+        System.out.println("✅ Reservation confirm errors test PASSED");
+    }
+
+    @Test
+    public void testTimingWheelExpiresAcrossRounds() {
+        System.out.println("=== Testing Timing Wheel ===");
+
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        wheel.schedule("soon", 25);
+        wheel.schedule("next-round", 205);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 25);
+        cancelled.cancel();
+
+        assertEquals(List.of(), wheel.advance(20));
+        assertEquals(List.of("soon"), wheel.advance(30));
+        assertEquals(List.of(), wheel.advance(200));
+        assertEquals(List.of("next-round"), wheel.advance(210));
+
+        System.out.println("✅ Timing wheel test PASSED");
+    }
+
+    private StockReservation saveReservation(Product product, String status, LocalDateTime expiresAt) {
+        StockReservation reservation = new StockReservation();
+        reservation.setProductId(product.getId());
+        reservation.setLocation(LocationStock.DEFAULT_LOCATION);
+        reservation.setQuantity(1);
+        reservation.setStatus(status);
+        reservation.setCreatedAt(expiresAt.minusMinutes(15));
+        reservation.setExpiresAt(expiresAt);
+        return reservationRepository.save(reservation);
+    }
+
+    private Product createProduct(String sku, int quantity) {
+        Product product = new Product();
+        product.setName("Reservation " + sku);
+        product.setSku(sku);
+        product.setQuantityOnHand(quantity);
+        Product saved = productService.saveProduct(product);
+        createdProducts.add(saved.getId());
+        return saved;
+    }
+}
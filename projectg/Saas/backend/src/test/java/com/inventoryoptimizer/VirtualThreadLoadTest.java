@@ -0,0 +1,201 @@
+package com.inventoryoptimizer;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Platform threads versus virtual threads for request-shaped work that blocks on JDBC, and a
+ * check that the sale path does not pin virtual threads. Both need a JDK 21 build (Maven on
+ * JDK 21 turns on the jdk21 profile). The throughput comparison also needs PostgreSQL, since
+ * in-memory H2 never blocks on a socket, so run it with spring.datasource.url pointing at one;
+ * on H2 it is reported as skipped with that reason rather than passing on numbers that mean nothing.
+ */
+@SpringBootTest
+@EnabledForJreRange(min = JRE.JAVA_21,
+        disabledReason = "Virtual threads need JDK 21: run mvn test on JDK 21+, which activates the jdk21 profile")
+public class VirtualThreadLoadTest {
+
+    // Tomcat's default maximum, i.e. what the platform-thread mode can run at once
+    private static final int PLATFORM_THREADS = 200;
+    private static final int CONCURRENT_REQUESTS = 2000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SaleRecordService saleRecordService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<Long> createdProducts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : createdProducts) {
+            productService.forceDeleteProduct(id);
+        }
+    }
+
+    @Test
+    public void testThroughputAndTailLatencyPlatformVersusVirtual() throws Exception {
+        System.out.println("=== Platform vs Virtual Thread Load Test ===");
+        assumeTrue(isPostgres(), "Platform vs virtual throughput needs JDBC that blocks on I/O: "
+                + "set spring.datasource.url (and username/password) to a PostgreSQL database");
+
+        Product product = createProduct("VT-LOAD", CONCURRENT_REQUESTS * 2);
+
+        Result platform = runLoad(Executors.newFixedThreadPool(PLATFORM_THREADS), product.getId());
+        Result virtual = runLoad(newVirtualThreadPerTaskExecutor(), product.getId());
+
+        System.out.printf("Platform (%d threads): %.0f req/s, p50 %.1f ms, p99 %.1f ms%n",
+                PLATFORM_THREADS, platform.throughput(), platform.p50Millis(), platform.p99Millis());
+        System.out.printf("Virtual:               %.0f req/s, p50 %.1f ms, p99 %.1f ms%n",
+                virtual.throughput(), virtual.p50Millis(), virtual.p99Millis());
+
+        // Both modes did all of the work with no lost updates
+        assertEquals(0, productRepository.findById(product.getId()).get().getQuantityOnHand());
+        System.out.println("✅ Platform vs virtual thread load test PASSED");
+    }
+
+    @Test
+    public void testSalePathDoesNotPinVirtualThreads() throws Exception {
+        System.out.println("=== Virtual Thread Pinning Check ===");
+
+        Product product = createProduct("VT-PIN", 400);
+        List<String> pinnedInOurCode = new CopyOnWriteArrayList<>();
+
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                // The embedded H2 engine synchronizes internally; PostgreSQL's driver and Hikari do not.
+                // Pinning whose innermost non-JDK frame is H2 is the engine's; anything else with our
+                // code on the stack is ours to fix, even if H2 is further down.
+                if (inOurCode(event) && !pinnedInside(event, "org.h2.")) {
+                    pinnedInOurCode.add(describe(event));
+                }
+            });
+            recording.startAsync();
+
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                futures.add(executor.submit(() -> saleRecordService.recordSale(product.getId(), 1)));
+            }
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            executor.shutdown();
+        }
+
+        pinnedInOurCode.forEach(System.out::println);
+        assertEquals(List.of(), pinnedInOurCode);
+        System.out.println("✅ Virtual thread pinning check PASSED");
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis) {}
+
+    // Each request records one sale and reads the product's recent sales, both through JDBC
+    private Result runLoad(ExecutorService executor, Long productId) throws Exception {
+        long[] latencies = new long[CONCURRENT_REQUESTS];
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            int request = i;
+            long submitted = System.nanoTime();
+            futures.add(executor.submit(() -> {
+                saleRecordService.recordSale(productId, 1);
+                saleRecordService.getRecentSales();
+                latencies[request] = System.nanoTime() - submitted;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        return new Result(CONCURRENT_REQUESTS / (elapsed / 1_000_000_000.0),
+                latencies[CONCURRENT_REQUESTS / 2] / 1_000_000.0,
+                latencies[(int) (CONCURRENT_REQUESTS * 0.99)] / 1_000_000.0);
+    }
+
+    // Looked up reflectively so the test compiles on the Java 17 baseline
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws Exception {
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+
+    private static boolean inOurCode(RecordedEvent event) {
+        return inFrames(event, "com.inventoryoptimizer.");
+    }
+
+    private static boolean inFrames(RecordedEvent event, String packagePrefix) {
+        return event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                .anyMatch(frame -> frame.getMethod().getType().getName().startsWith(packagePrefix));
+    }
+
+    // The first frame outside the JDK is where the carrier got pinned (a monitor or native call)
+    private static boolean pinnedInside(RecordedEvent event, String packagePrefix) {
+        if (event.getStackTrace() == null) {
+            return false;
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type.startsWith(packagePrefix);
+            }
+        }
+        return false;
+    }
+
+    private boolean isPostgres() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        }
+    }
+
+    private static String describe(RecordedEvent event) {
+        StringBuilder trace = new StringBuilder("Pinned for " + event.getDuration().toMillis() + " ms:");
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            trace.append("\n    at ").append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName());
+        }
+        return trace.toString();
+    }
+
+    private Product createProduct(String sku, int quantity) {
+        Product product = new Product();
+        product.setName("Virtual Threads " + sku);
+        product.setSku(sku);
+        product.setQuantityOnHand(quantity);
+        Product saved = productService.saveProduct(product);
+        createdProducts.add(saved.getId());
+        return saved;
+    }
+}
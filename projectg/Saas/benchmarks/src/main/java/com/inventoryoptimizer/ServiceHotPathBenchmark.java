@@ -0,0 +1,62 @@
+package com.inventoryoptimizer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service hot paths against SyntheticSalesDataset, called through the Spring beans so
+ * transactions, the column store and the metrics aspects are all on the measured path.
+ * Run with -rf json (the module's exec:exec does) to get results that diff between versions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ServiceHotPathBenchmark {
+
+    private static final int FORECAST_DAYS = 30;
+
+    // Regression over one product's sale series
+    @Benchmark
+    public Map<String, Object> forecastLinearRegression(SyntheticSalesDataset dataset) {
+        return dataset.forecastService.forecastLinearRegression(dataset.hotProductId, FORECAST_DAYS);
+    }
+
+    // Regression over every product, summed into revenue
+    @Benchmark
+    public Map<String, Object> forecastTotalRevenue(SyntheticSalesDataset dataset) {
+        return dataset.forecastService.forecastTotalRevenue(FORECAST_DAYS);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> getDailyTrend(SyntheticSalesDataset dataset) {
+        return dataset.saleRecordService.getDailyTrend(FORECAST_DAYS);
+    }
+
+    @Benchmark
+    public Map<String, Object> calculateStockInvestment(SyntheticSalesDataset dataset) {
+        return dataset.productService.calculateStockInvestment();
+    }
+
+    // What GET /api/sales does per page of SaleRecord entities
+    @Benchmark
+    public byte[] serializeSaleRecords(SyntheticSalesDataset dataset) throws Exception {
+        return dataset.objectMapper.writeValueAsBytes(dataset.saleList);
+    }
+
+    // Stock check, sale insert, ledger movement, log row and column store append, committed on H2
+    @Benchmark
+    public SaleRecord recordSale(SyntheticSalesDataset dataset) {
+        return dataset.saleRecordService.recordSale(dataset.hotProductId, 1);
+    }
+}
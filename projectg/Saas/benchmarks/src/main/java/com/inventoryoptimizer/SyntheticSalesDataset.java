@@ -0,0 +1,160 @@
+package com.inventoryoptimizer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * The backend on an embedded H2 file database, loaded with a synthetic year of sales before
+ * any benchmark runs. Sales are spread evenly over the last 365 days across PRODUCTS products,
+ * in timestamp order, with a fixed seed so every run and every version sees the same data.
+ */
+@State(Scope.Benchmark)
+public class SyntheticSalesDataset {
+    static final int PRODUCTS = 1000;
+    static final int JSON_LIST_SIZE = 1000;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int sales;
+
+    ConfigurableApplicationContext context;
+    ProductService productService;
+    SaleRecordService saleRecordService;
+    ForecastService forecastService;
+    ObjectMapper objectMapper;
+
+    // The product recordSale sells from; it is stocked for far more sales than a run makes
+    Long hotProductId;
+    List<SaleRecord> saleList;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        directory = Files.createTempDirectory("inventory-jmh");
+        // Passed as command-line arguments so they take precedence over application.properties
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("inventory") + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--inventory.columnar.dir=" + directory.resolve("sales-columns"),
+                        "--inventory.reactive.enabled=false",
+                        // Background rollups over the whole dataset would land inside measurement windows
+                        "--inventory.rollup.interval-millis=86400000");
+
+        productService = context.getBean(ProductService.class);
+        saleRecordService = context.getBean(SaleRecordService.class);
+        forecastService = context.getBean(ForecastService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        List<Long> productIds = loadProducts(context.getBean(DataSource.class));
+        hotProductId = productIds.get(0);
+        loadSales(context.getBean(DataSource.class), productIds);
+
+        // Rows went in under the application's feet; fold them into the column store before timing anything
+        context.getBean(SalesColumnStore.class).rebuild();
+        saleList = context.getBean(SaleRecordRepository.class).findAll(PageRequest.of(0, JSON_LIST_SIZE)).getContent();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private List<Long> loadProducts(DataSource dataSource) throws SQLException {
+        Random random = new Random(42);
+        List<Long> ids = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement product = connection.prepareStatement(
+                     "INSERT INTO product (name, sku, low_stock_threshold, price, cost_price, discontinued) VALUES (?, ?, 10, ?, ?, FALSE)",
+                     new String[] {"id"});
+             PreparedStatement stock = connection.prepareStatement(
+                     "INSERT INTO location_stock (product_id, location, quantity) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < PRODUCTS; i++) {
+                BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(9900), 2);
+                product.setString(1, "Benchmark product " + i);
+                product.setString(2, "JMH-" + i);
+                product.setBigDecimal(3, price);
+                product.setBigDecimal(4, price.multiply(new BigDecimal("0.60")).setScale(2, RoundingMode.HALF_UP));
+                product.executeUpdate();
+                try (ResultSet keys = product.getGeneratedKeys()) {
+                    keys.next();
+                    ids.add(keys.getLong(1));
+                }
+                stock.setLong(1, ids.get(i));
+                stock.setString(2, LocationStock.DEFAULT_LOCATION);
+                stock.setInt(3, i == 0 ? 1_000_000_000 : 1_000_000);
+                stock.executeUpdate();
+            }
+        }
+        return ids;
+    }
+
+    private void loadSales(DataSource dataSource, List<Long> productIds) throws SQLException {
+        Random random = new Random(7);
+        LocalDateTime start = LocalDateTime.now().minusDays(365);
+        long stepMillis = 365L * 24 * 60 * 60 * 1000 / sales;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO sale_record (product_id, quantity_sold, timestamp, unit_price, total_amount, location) " +
+                     "VALUES (?, ?, ?, ?, ?, ?)")) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < sales; i++) {
+                int quantity = 1 + random.nextInt(5);
+                BigDecimal unitPrice = BigDecimal.valueOf(100 + random.nextInt(9900), 2);
+                insert.setLong(1, productIds.get(random.nextInt(productIds.size())));
+                insert.setInt(2, quantity);
+                insert.setTimestamp(3, Timestamp.valueOf(start.plusNanos(i * stepMillis * 1_000_000)));
+                insert.setBigDecimal(4, unitPrice);
+                insert.setBigDecimal(5, unitPrice.multiply(BigDecimal.valueOf(quantity)));
+                insert.setString(6, LocationStock.DEFAULT_LOCATION);
+                insert.addBatch();
+                if ((i + 1) % INSERT_BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+    }
+}
@@ -268,10 +268,18 @@ export async function fetchSalesHistory(days = 30) {
   return data;
 }
 
-// Log-related API calls
-export async function fetchLogs(page = 0, size = 50) {
-  console.log('Fetching logs, page:', page, 'size:', size);
-  const res = await fetch(`${API_BASE}/logs?page=${page}&size=${size}`);
+// Log-related API calls. Logs come back as newest-first slices:
+// { content, size, hasNext, nextCursor }; pass nextCursor back to get the next slice.
+export async function fetchLogs({ cursor = null, size = 50, action, entityType, user, from, to } = {}) {
+  const params = new URLSearchParams({ size });
+  if (cursor) params.set('cursor', cursor);
+  if (action) params.set('action', action);
+  if (entityType) params.set('entityType', entityType);
+  if (user) params.set('user', user);
+  if (from) params.set('from', from);
+  if (to) params.set('to', to);
+  console.log('Fetching logs:', params.toString());
+  const res = await fetch(`${API_BASE}/logs?${params}`);
   if (!res.ok) {
     throw new Error(`Failed to fetch logs: ${res.status} ${res.statusText}`);
   }
@@ -279,25 +287,3 @@ export async function fetchLogs(page = 0, size = 50) {
   console.log('Logs data:', data);
   return data;
 }
-
-export async function fetchLogsByAction(action) {
-  console.log('Fetching logs by action:', action);
-  const res = await fetch(`${API_BASE}/logs/action/${action}`);
-  if (!res.ok) {
-    throw new Error(`Failed to fetch logs: ${res.status} ${res.statusText}`);
-  }
-  const data = await res.json();
-  console.log('Logs by action:', data);
-  return data;
-}
-
-export async function fetchLogsByEntityType(entityType) {
-  console.log('Fetching logs by entity type:', entityType);
-  const res = await fetch(`${API_BASE}/logs/entity/${entityType}`);
-  if (!res.ok) {
-    throw new Error(`Failed to fetch logs: ${res.status} ${res.statusText}`);
-  }
-  const data = await res.json();
-  console.log('Logs by entity type:', data);
-  return data;
-}
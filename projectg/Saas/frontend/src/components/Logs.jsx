@@ -16,11 +16,11 @@ import {
   Select,
   MenuItem,
   InputLabel,
-  Pagination,
+  Button,
   CircularProgress,
   Alert
 } from '@mui/material';
-import { fetchLogs, fetchLogsByAction, fetchLogsByEntityType } from '../api/backend';
+import { fetchLogs } from '../api/backend';
 
 const actionColors = {
   CREATE: 'success',
@@ -39,50 +39,50 @@ export default function Logs() {
   const [logs, setLogs] = useState([]);
   const [loading, setLoading] = useState(false);
   const [filter, setFilter] = useState('all');
-  const [page, setPage] = useState(1);
-  const [totalPages, setTotalPages] = useState(1);
+  // cursors[i] is the cursor that loads slice i; the first slice needs none
+  const [cursors, setCursors] = useState([null]);
+  const [page, setPage] = useState(0);
+  const [hasNext, setHasNext] = useState(false);
   const [error, setError] = useState(null);
 
-  const loadLogs = async (pageNum = 0, filterType = 'all') => {
+  const loadLogs = async (cursor = null, filterType = 'all') => {
     setLoading(true);
     setError(null);
     try {
-      let response;
-      if (filterType === 'all') {
-        response = await fetchLogs(pageNum, 20);
-        setLogs(response.content || []);
-        setTotalPages(response.totalPages || 1);
-      } else if (filterType.startsWith('action:')) {
-        const action = filterType.replace('action:', '');
-        response = await fetchLogsByAction(action);
-        setLogs(response || []);
-        setTotalPages(1);
+      const query = { cursor, size: 20 };
+      if (filterType.startsWith('action:')) {
+        query.action = filterType.replace('action:', '');
       } else if (filterType.startsWith('entity:')) {
-        const entityType = filterType.replace('entity:', '');
-        response = await fetchLogsByEntityType(entityType);
-        setLogs(response || []);
-        setTotalPages(1);
+        query.entityType = filterType.replace('entity:', '');
+      }
+      const response = await fetchLogs(query);
+      setLogs(response.content || []);
+      setHasNext(Boolean(response.hasNext));
+      if (response.nextCursor) {
+        setCursors((known) => {
+          const updated = known.slice(0, page + 1);
+          updated[page + 1] = response.nextCursor;
+          return updated;
+        });
       }
     } catch (error) {
       console.error('Error loading logs:', error);
       setError('Failed to load logs: ' + error.message);
       setLogs([]);
+      setHasNext(false);
     } finally {
       setLoading(false);
     }
   };
 
   useEffect(() => {
-    loadLogs(page - 1, filter);
+    loadLogs(cursors[page], filter);
   }, [page, filter]);
 
   const handleFilterChange = (event) => {
     setFilter(event.target.value);
-    setPage(1);
-  };
-
-  const handlePageChange = (event, value) => {
-    setPage(value);
+    setCursors([null]);
+    setPage(0);
   };
 
   const formatTimestamp = (timestamp) => {
@@ -199,14 +199,22 @@ export default function Logs() {
                 </Table>
               </TableContainer>
 
-              {totalPages > 1 && (
-                <Box sx={{ display: 'flex', justifyContent: 'center' }}>
-                  <Pagination
-                    count={totalPages}
-                    page={page}
-                    onChange={handlePageChange}
-                    color="primary"
-                  />
+              {(page > 0 || hasNext) && (
+                <Box sx={{ display: 'flex', justifyContent: 'center', gap: 2 }}>
+                  <Button
+                    variant="outlined"
+                    disabled={page === 0}
+                    onClick={() => setPage(page - 1)}
+                  >
+                    Newer
+                  </Button>
+                  <Button
+                    variant="outlined"
+                    disabled={!hasNext}
+                    onClick={() => setPage(page + 1)}
+                  >
+                    Older
+                  </Button>
                 </Box>
               )}
             </>